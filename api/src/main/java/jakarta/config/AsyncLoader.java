@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The default implementation of {@link Config#loadAsync(Class, Executor, Duration)}.
+ */
+final class AsyncLoader {
+    private AsyncLoader() {
+    }
+
+    /**
+     * Loads an object of the supplied type with a task submitted to the supplied {@link Executor}.
+     *
+     * @param config the {@link Config} to load the object from
+     * @param type the type of object to load
+     * @param executor the {@link Executor}, or {@code null} for the {@linkplain #defaultExecutor() default}
+     * @param timeout the maximum duration of the load, or {@code null} for none
+     * @return the future object
+     */
+    static <T> CompletableFuture<T> loadAsync(Config config, Class<T> type, Executor executor, Duration timeout) {
+        Load<T> load = new Load<>(config, type);
+        try {
+            (executor == null ? defaultExecutor() : executor).execute(load);
+        } catch (RejectedExecutionException e) {
+            load.completeExceptionally(new ConfigException("Loading " + type.getName() + " was rejected", e));
+        }
+        if (timeout != null) {
+            load.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return load;
+    }
+
+    /**
+     * Returns the default {@link Executor}: a new virtual thread per task if the runtime supports virtual threads and
+     * they are enabled, otherwise a new or cached daemon thread per task.
+     */
+    static Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    private static final class DefaultExecutor {
+        private static final Executor INSTANCE = create();
+
+        private static Executor create() {
+            try {
+                // the API targets a release without virtual threads
+                MethodHandle factory = MethodHandles.publicLookup()
+                        .findStatic(Executors.class,
+                                    "newVirtualThreadPerTaskExecutor",
+                                    MethodType.methodType(ExecutorService.class));
+                return (Executor) factory.invoke();
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // not found, or, as on a release with virtual threads as a preview feature that is not enabled, not
+                // supported
+                return Executors.newCachedThreadPool(new DaemonThreadFactory());
+            }
+        }
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jakarta-config-load-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * A load, which reports its timeout and its cancellation as a {@link ConfigException}.
+     */
+    private static final class Load<T> extends CompletableFuture<T> implements Runnable {
+        private final Config config;
+        private final Class<T> type;
+
+        Load(Config config, Class<T> type) {
+            this.config = config;
+            this.type = type;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                // timed out or cancelled before it started
+                return;
+            }
+            try {
+                complete(config.load(type));
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            if (ex instanceof TimeoutException) {
+                return super.completeExceptionally(new ConfigException("Loading " + type.getName() + " timed out",
+                                                                       ex));
+            }
+            return super.completeExceptionally(ex);
+        }
+
+        /**
+         * Completes this load with a {@link ConfigException}, caused by a {@link CancellationException}. A load that
+         * has already started is not interrupted; its result is discarded.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return completeExceptionally(new ConfigException("Loading " + type.getName() + " was cancelled",
+                                                             new CancellationException()));
+        }
+    }
+}
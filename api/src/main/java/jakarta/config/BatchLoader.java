@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The default implementation of {@link Config#loadAll(Collection)} and {@link Config#loadAll(Collection, Executor)}:
+ * every type is {@linkplain Config#load(Class) loaded} independently, and every failure is collected.
+ */
+final class BatchLoader {
+    private BatchLoader() {
+    }
+
+    /**
+     * Loads an object of every supplied type.
+     *
+     * @param config the {@link Config} to load the objects from
+     * @param types the types of object to load
+     * @param executor the {@link Executor} to load the objects with, or {@code null} to load them in the current thread
+     * @return the loaded objects, by type, in the order of the supplied types
+     * @exception ConfigException if any object could not be loaded, with every failure suppressed
+     */
+    static Map<Class<?>, Object> loadAll(Config config, Collection<? extends Class<?>> types, Executor executor) {
+        Set<Class<?>> unique = new LinkedHashSet<>();
+        for (Class<?> type : types) {
+            unique.add(Objects.requireNonNull(type, "type"));
+        }
+        List<Class<?>> distinct = new ArrayList<>(unique);
+
+        List<CompletableFuture<?>> futures = null;
+        if (executor != null) {
+            futures = new ArrayList<>(distinct.size());
+            for (Class<?> type : distinct) {
+                try {
+                    futures.add(CompletableFuture.supplyAsync(() -> config.load(type), executor));
+                } catch (RejectedExecutionException e) {
+                    // a rejected type fails like any other type, rather than abandoning the submitted ones
+                    futures.add(CompletableFuture.failedFuture(e));
+                }
+            }
+        }
+
+        Map<Class<?>, Object> loaded = new LinkedHashMap<>();
+        List<RuntimeException> failures = new ArrayList<>();
+        List<Class<?>> failed = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            Class<?> type = distinct.get(i);
+            try {
+                loaded.put(type, futures == null ? config.load(type) : join(futures.get(i)));
+            } catch (RuntimeException e) {
+                failures.add(e);
+                failed.add(type);
+            }
+        }
+        if (!failures.isEmpty()) {
+            StringBuilder message = new StringBuilder("Unable to load ").append(failed.size()).append(" of ")
+                    .append(distinct.size()).append(" types:");
+            for (Class<?> type : failed) {
+                message.append(' ').append(type.getName());
+            }
+            ConfigException exception = new ConfigException(message.toString());
+            for (RuntimeException failure : failures) {
+                exception.addSuppressed(failure);
+            }
+            throw exception;
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+
+    private static Object join(CompletableFuture<?> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
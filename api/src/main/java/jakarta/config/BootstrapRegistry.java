@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import jakarta.config.spi.BootstrapListener;
+
+/**
+ * A registry of {@linkplain Config#bootstrap(ClassLoader) bootstrapped} {@link Config} instances, one per
+ * {@link ClassLoader}.
+ *
+ * <p>The {@link ClassLoader} keys are weakly referenced, and the {@link Config} values are strongly referenced, so
+ * that a {@link Config} is bootstrapped once per {@link ClassLoader}, whether or not the application keeps a
+ * reference to it. A {@link Config} whose classes are defined by the {@link ClassLoader} of its key keeps that
+ * {@link ClassLoader} reachable, so containers must {@linkplain #release(ClassLoader) release} it when the
+ * application is undeployed.</p>
+ *
+ * <p>Lookups of an already bootstrapped {@link Config} do not block. Only the bootstraps that locate a {@link Config}
+ * are reported to the {@link BootstrapListener}s.</p>
+ */
+final class BootstrapRegistry {
+    private static final ConcurrentMap<LoaderKey, Config> CONFIGS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassLoader> QUEUE = new ReferenceQueue<>();
+    private static final AtomicLong RELEASES = new AtomicLong();
+
+    private BootstrapRegistry() {
+    }
+
+    /**
+     * Returns the {@link Config} registered for the supplied {@link ClassLoader}, locating and registering one with
+     * the {@link ServiceLoader} first if needed.
+     *
+     * @param classLoader the {@link ClassLoader} used to locate service provider files; may be {@code null}
+     * @return a {@link Config}; never {@code null}
+     * @exception java.util.ServiceConfigurationError if a {@link ServiceLoader} problem occurred
+     * @exception NoSuchElementException if a {@linkplain Config} is not found
+     */
+    static Config bootstrap(ClassLoader classLoader) {
+        ClassLoader loader = effective(classLoader);
+        Config config = CONFIGS.get(new LoaderKey(loader));
+        if (config != null) {
+            return config;
+        }
+
+        // Never call the ServiceLoader from within a map computation: a provider may bootstrap recursively
+        long releases = RELEASES.get();
+        List<Consumer<Throwable>> observers = observers(loader);
+        Config loaded;
+        try {
+            loaded = ServiceLoader.load(Config.class, classLoader)
+                                  .findFirst()
+                                  .orElseThrow(NoSuchElementException::new);
+        } catch (RuntimeException | Error e) {
+            for (Consumer<Throwable> observer : observers) {
+                observer.accept(e);
+            }
+            throw e;
+        }
+        for (Consumer<Throwable> observer : observers) {
+            observer.accept(null);
+        }
+        expunge();
+        LoaderKey weakKey = new LoaderKey(loader, QUEUE);
+        Config existing = CONFIGS.putIfAbsent(weakKey, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (RELEASES.get() != releases) {
+            // a release during the scan, of this or of another ClassLoader, may have missed this registration: the
+            // caller still gets the located Config, and the next bootstrap locates one again
+            CONFIGS.remove(weakKey, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes the {@link Config} registered for the supplied {@link ClassLoader}, if any.
+     *
+     * @param classLoader the {@link ClassLoader}; may be {@code null}
+     */
+    static void release(ClassLoader classLoader) {
+        // counted before the removal, so that a concurrent bootstrap which registers afterwards observes it
+        RELEASES.incrementAndGet();
+        CONFIGS.remove(new LoaderKey(effective(classLoader)));
+        expunge();
+    }
+
+    private static List<Consumer<Throwable>> observers(ClassLoader loader) {
+        List<Consumer<Throwable>> observers = List.of();
+        for (BootstrapListener listener : ServiceLoader.load(BootstrapListener.class, loader)) {
+            Consumer<Throwable> observer = listener.bootstrap(loader);
+            if (observer != null) {
+                if (observers.isEmpty()) {
+                    observers = new ArrayList<>(1);
+                }
+                observers.add(observer);
+            }
+        }
+        return observers;
+    }
+
+    private static ClassLoader effective(ClassLoader classLoader) {
+        // ServiceLoader treats null as the system classloader, and so does the registry
+        return classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+    }
+
+    private static void expunge() {
+        Reference<? extends ClassLoader> reference;
+        while ((reference = QUEUE.poll()) != null) {
+            CONFIGS.remove(reference);
+        }
+    }
+
+    /**
+     * A weak, identity-based {@link ClassLoader} key.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        LoaderKey(ClassLoader classLoader) {
+            super(classLoader);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LoaderKey)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader != null && classLoader == ((LoaderKey) obj).get();
+        }
+    }
+}
@@ -18,8 +18,15 @@
  */
 package jakarta.config;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * A loader of configuration-related objects.
@@ -57,6 +64,10 @@ public interface Config {
     /**
      * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>.
      *
+     * <p>If the supplied {@code type} is a {@link ConfigMapping} interface with a
+     * {@linkplain ConfigMapping generated implementation}, the loaded object must be an instance of the generated
+     * implementation.</p>
+     *
      * @param <T> the type of object to load
      * @param type the type of object to load; must not be {@code null}
      * @return the loaded object; never {@code null}
@@ -66,6 +77,189 @@ public interface Config {
      */
     <T> T load(Class<T> type);
 
+    /**
+     * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>,
+     * asynchronously, with the default {@link Executor}.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #loadAsync(Class, Executor, Duration)}
+     * with the default {@link Executor}, and without timeout. The default {@link Executor} runs each load in a new
+     * virtual thread, if the runtime supports and enables virtual threads, or in a daemon thread otherwise.</p>
+     *
+     * @param <T> the type of object to load
+     * @param type the type of object to load; must not be {@code null}
+     * @return a {@link CompletionStage} of the loaded object; never {@code null}
+     * @exception NullPointerException if the supplied {@code type} was {@code null}
+     * @see #loadAsync(Class, Executor, Duration)
+     */
+    default <T> CompletionStage<T> loadAsync(Class<T> type) {
+        return AsyncLoader.loadAsync(this, Objects.requireNonNull(type, "type"), null, null);
+    }
+
+    /**
+     * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>,
+     * asynchronously, with the supplied {@link Executor}.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #loadAsync(Class, Executor, Duration)}
+     * without timeout.</p>
+     *
+     * @param <T> the type of object to load
+     * @param type the type of object to load; must not be {@code null}
+     * @param executor the {@link Executor} to load the object with; must not be {@code null}
+     * @return a {@link CompletionStage} of the loaded object; never {@code null}
+     * @exception NullPointerException if the supplied {@code type} or {@code executor} was {@code null}
+     * @see #loadAsync(Class, Executor, Duration)
+     */
+    default <T> CompletionStage<T> loadAsync(Class<T> type, Executor executor) {
+        return AsyncLoader.loadAsync(this,
+                                     Objects.requireNonNull(type, "type"),
+                                     Objects.requireNonNull(executor, "executor"),
+                                     null);
+    }
+
+    /**
+     * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>,
+     * asynchronously, with the supplied {@link Executor}, so that the caller does not block on a configuration that
+     * is slow to read.
+     *
+     * <p>The returned {@link CompletionStage} completes with the object {@linkplain #load(Class) loaded} by a task
+     * submitted to the supplied {@link Executor}, or exceptionally with the exception thrown by
+     * {@link #load(Class)}. It completes exceptionally with a {@link ConfigException} if the task is rejected by the
+     * {@link Executor}, if the load does not complete within the supplied {@code timeout}, or if the load is
+     * {@linkplain java.util.concurrent.CompletableFuture#cancel(boolean) cancelled}. A load that has already started
+     * is not interrupted by its timeout or cancellation.</p>
+     *
+     * <p>Implementations are encouraged to override this method, for instance to read independent nested members,
+     * or independent configuration sources, concurrently.</p>
+     *
+     * @param <T> the type of object to load
+     * @param type the type of object to load; must not be {@code null}
+     * @param executor the {@link Executor} to load the object with; must not be {@code null}
+     * @param timeout the maximum duration of the load; must not be {@code null}
+     * @return a {@link CompletionStage} of the loaded object; never {@code null}
+     * @exception NullPointerException if the supplied {@code type}, {@code executor} or {@code timeout} was
+     *            {@code null}
+     * @see #load(Class)
+     */
+    default <T> CompletionStage<T> loadAsync(Class<T> type, Executor executor, Duration timeout) {
+        return AsyncLoader.loadAsync(this,
+                                     Objects.requireNonNull(type, "type"),
+                                     Objects.requireNonNull(executor, "executor"),
+                                     Objects.requireNonNull(timeout, "timeout"));
+    }
+
+    /**
+     * Loads an object of every supplied type from the current {@link Config} <em>configuration path</em>.
+     *
+     * <p>Every object is loaded as if by {@link #load(Class)}. Rather than failing on the first object that cannot be
+     * loaded, this method attempts to load every object, and reports every failure at once:</p>
+     *
+     * <blockquote><pre> {@linkplain java.util.Map}&lt;Class&lt;?&gt;, Object&gt; mappings = config.{@linkplain #loadAll(Collection) loadAll}({@linkplain java.util.List}.of(Server.class, Client.class));
+     *Server server = Server.class.cast(mappings.get(Server.class));</pre></blockquote>
+     *
+     * <p>The default implementation loads every object independently with {@link #load(Class)}; its only benefit over
+     * a sequence of {@link #load(Class)} invocations is the aggregation of the failures.</p>
+     *
+     * @param types the types of object to load; must not be {@code null} or contain {@code null}
+     * @return an unmodifiable map of the loaded objects, by type, in the iteration order of the supplied types; never
+     *         {@code null}
+     * @exception ConfigException if any object could not be loaded; the exception of every type that could not be
+     *            loaded, such as a {@link NoSuchElementException}, is {@linkplain Throwable#getSuppressed()
+     *            suppressed}
+     * @exception NullPointerException if the supplied {@code types}, or any of its elements, was {@code null}
+     * @see #load(Class)
+     */
+    default Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types) {
+        return BatchLoader.loadAll(this, types, null);
+    }
+
+    /**
+     * Loads an object of every supplied type from the current {@link Config} <em>configuration path</em>, in
+     * parallel.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #loadAll(Collection)}, except that the
+     * objects are loaded by tasks submitted to the supplied {@link Executor}, such as
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()}, so that the time to load many independent objects
+     * scales with the available processors.</p>
+     *
+     * @param types the types of object to load; must not be {@code null} or contain {@code null}
+     * @param executor the {@link Executor} to load the objects with; must not be {@code null}
+     * @return an unmodifiable map of the loaded objects, by type, in the iteration order of the supplied types; never
+     *         {@code null}
+     * @exception ConfigException if any object could not be loaded; the exception of every type that could not be
+     *            loaded, including a {@link java.util.concurrent.RejectedExecutionException} of the supplied
+     *            {@code executor}, is {@linkplain Throwable#getSuppressed() suppressed}
+     * @exception NullPointerException if the supplied {@code types}, any of its elements, or {@code executor} was
+     *            {@code null}
+     * @see #loadAll(Collection)
+     */
+    default Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types, Executor executor) {
+        return BatchLoader.loadAll(this, types, Objects.requireNonNull(executor, "executor"));
+    }
+
+    /**
+     * Loads the <code>int</code> value of the current {@link Config} <em>configuration path</em>.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #load(Class)} with
+     * {@link Integer}. Implementations are encouraged to override this method, and to convert the <em>raw value</em>
+     * without boxing it.</p>
+     *
+     * @return the loaded value
+     * @exception NoSuchElementException if the requested value is not found.
+     * @exception ConfigException if the value could not be converted to <code>int</code>
+     * @see #load(Class)
+     */
+    default int loadInt() {
+        return load(Integer.class);
+    }
+
+    /**
+     * Loads the <code>long</code> value of the current {@link Config} <em>configuration path</em>.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #load(Class)} with
+     * {@link Long}. Implementations are encouraged to override this method, and to convert the <em>raw value</em>
+     * without boxing it.</p>
+     *
+     * @return the loaded value
+     * @exception NoSuchElementException if the requested value is not found.
+     * @exception ConfigException if the value could not be converted to <code>long</code>
+     * @see #load(Class)
+     */
+    default long loadLong() {
+        return load(Long.class);
+    }
+
+    /**
+     * Loads the <code>double</code> value of the current {@link Config} <em>configuration path</em>.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #load(Class)} with
+     * {@link Double}. Implementations are encouraged to override this method, and to convert the <em>raw value</em>
+     * without boxing it.</p>
+     *
+     * @return the loaded value
+     * @exception NoSuchElementException if the requested value is not found.
+     * @exception ConfigException if the value could not be converted to <code>double</code>
+     * @see #load(Class)
+     */
+    default double loadDouble() {
+        return load(Double.class);
+    }
+
+    /**
+     * Loads the <code>boolean</code> value of the current {@link Config} <em>configuration path</em>.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #load(Class)} with
+     * {@link Boolean}. Implementations are encouraged to override this method, and to convert the <em>raw value</em>
+     * without boxing it.</p>
+     *
+     * @return the loaded value
+     * @exception NoSuchElementException if the requested value is not found.
+     * @exception ConfigException if the value could not be converted to <code>boolean</code>
+     * @see #load(Class)
+     */
+    default boolean loadBoolean() {
+        return load(Boolean.class);
+    }
+
     /**
      * Return a new instance of a {@link Config} with the <em>configuration path</em> set.
      *
@@ -96,6 +290,66 @@ public interface Config {
         return path(new String[] {path});
     }
 
+    /**
+     * Return a new instance of a {@link Config} with the <em>configuration path</em> set.
+     *
+     * <p>The observable behavior of this method is identical to that of {@link #path(String...)} with the
+     * {@linkplain ConfigPath#toArray() configuration keys} of the supplied {@link ConfigPath}. Implementations are
+     * encouraged to override this method, and to resolve the supplied {@link ConfigPath} incrementally from the
+     * {@linkplain ConfigPath#parent() parent} configuration paths they have already resolved.</p>
+     *
+     * @param path a {@link ConfigPath}; must not be {@code null}
+     * @return a new instance of the {@link Config} class with the new <em>configuration path</em>
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     * @see Config#path(String...)
+     */
+    default Config path(ConfigPath path) {
+        return path(path.toArray());
+    }
+
+    /**
+     * Returns the <em>configuration keys</em> of the child configuration entries of the current {@link Config}
+     * <em>configuration path</em>.
+     *
+     * <p>For instance, if the configuration contains a <code>properties</code> file with:</p>
+     * <pre>my.configuration.user=tester
+     *my.configuration.endpoints.0=/a
+     *my.configuration.endpoints.1=/b</pre>
+     * <p>the child configuration keys of the <em>configuration path</em> <code>my</code>, <code>configuration</code>
+     * are <code>user</code> and <code>endpoints</code>, and those of <code>my</code>, <code>configuration</code>,
+     * <code>endpoints</code> are the indexes <code>0</code> and <code>1</code> of its elements. A
+     * {@linkplain ConfigMapping generated implementation} enumerates the elements of its collection and
+     * {@link Map} members with this method.</p>
+     *
+     * @return an unmodifiable set of the child configuration keys, which is empty if there are none; never
+     *         {@code null}
+     */
+    Set<String> childKeys();
+
+    /**
+     * Returns a {@link Config} of an immutable, point-in-time view of the whole configuration, with the
+     * <em>configuration path</em> of this {@link Config}.
+     *
+     * <p>Every {@link #load(Class)} of the returned {@link Config}, and of every {@link Config} {@linkplain
+     * #path(String...) derived} from it, reads the same configuration, even if the configuration of this
+     * {@link Config} changes in the meantime:</p>
+     *
+     * <blockquote><pre> {@linkplain Config} snapshot = config.{@linkplain #snapshot() snapshot()};
+     *My my = snapshot.{@linkplain #path(String) path("my")}.{@linkplain #load(Class) load(My.class)};
+     *Other other = snapshot.{@linkplain #path(String) path("other")}.{@linkplain #load(Class) load(Other.class)}; // consistent with my</pre></blockquote>
+     *
+     * <p>Taking a snapshot must not copy the configuration, so that a snapshot can be taken per request.
+     * Implementations whose configuration can change must override this method, for instance by sharing an
+     * immutable configuration tree such as the <code>ConfigNode</code> of the implementation module. The default
+     * implementation returns this {@link Config}, which is correct for a {@link Config} whose configuration never
+     * changes.</p>
+     *
+     * @return a {@link Config} of the current configuration; never {@code null}
+     */
+    default Config snapshot() {
+        return this;
+    }
+
     /**
      * {@linkplain #bootstrap(ClassLoader) Bootstraps} a {@link Config} instance for subsequent usage using
      * the {@linkplain Thread#getContextClassLoader() context classloader}.
@@ -133,6 +387,16 @@ public interface Config {
      * </pre>
      * </blockquote>
      *
+     * <p>The located {@link Config} is registered for the supplied {@link ClassLoader}, and subsequent invocations
+     * with the same {@link ClassLoader} return the registered instance without consulting the {@link ServiceLoader}
+     * again, whether or not the application keeps a reference to the {@link Config}. The registration lasts until
+     * the {@link ClassLoader} is garbage collected, or until the {@link Config} is {@linkplain #release(ClassLoader)
+     * released}. A {@link Config} provided by the {@link ClassLoader} itself keeps it reachable, so containers must
+     * release it when the application is undeployed.</p>
+     *
+     * <p>A bootstrap that locates a {@link Config} is reported to the {@link jakarta.config.spi.BootstrapListener}s
+     * located with the {@link ServiceLoader} and the same {@link ClassLoader}.</p>
+     *
      * @param classLoader the {@link ClassLoader} used
      *                    to {@linkplain ServiceLoader#load(Class, ClassLoader) locate service provider files};
      *                    may be {@code null} to indicate the system classloader (or bootstrap class loader) in
@@ -146,8 +410,27 @@ public interface Config {
      * @exception NoSuchElementException if a {@linkplain Config} is not found.
      */
     static Config bootstrap(ClassLoader classLoader) {
-        return ServiceLoader.load(Config.class, classLoader)
-                            .findFirst()
-                            .orElseThrow(NoSuchElementException::new);
+        return BootstrapRegistry.bootstrap(classLoader);
+    }
+
+    /**
+     * Releases the {@link Config} {@linkplain #bootstrap(ClassLoader) bootstrapped} for the supplied
+     * {@link ClassLoader}, if any.
+     *
+     * <p>A subsequent {@linkplain #bootstrap(ClassLoader) bootstrap} with the same {@link ClassLoader} locates a new
+     * {@link Config} with the {@link ServiceLoader}. Containers must invoke this method when an application is
+     * undeployed or redeployed, so that the new deployment does not observe a stale {@link Config}, and so that the
+     * {@link ClassLoader} of the application can be garbage collected.</p>
+     *
+     * <p>This method is safe for concurrent use by multiple threads. A {@link Config} located by a bootstrap that is
+     * concurrent with this method is returned by that bootstrap, but is not registered.</p>
+     *
+     * @param classLoader the {@link ClassLoader} the {@link Config} was bootstrapped with; may be {@code null} to
+     *                    indicate the system classloader, in accordance with {@link #bootstrap(ClassLoader)}
+     *
+     * @see #bootstrap(ClassLoader)
+     */
+    static void release(ClassLoader classLoader) {
+        BootstrapRegistry.release(classLoader);
     }
 }
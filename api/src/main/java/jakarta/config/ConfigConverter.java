@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.config.spi.Converter;
+
+/**
+ * Overrides the default converter of the type of a {@link ConfigMapping} member.
+ *
+ * <pre>
+ * &#064;ConfigConverter(IOThreadsConverter.class)
+ * int ioThreads();
+ * </pre>
+ *
+ * <p>The converter converts the <em>raw value</em> of the member, or of each element of an
+ * {@link java.util.Optional}, {@link java.util.List}, {@link java.util.Set} or {@link java.util.Map} member, and any
+ * default value declared with {@link ConfigDefault}. Its type must be public, and must declare a public constructor
+ * without parameters. Implementations create a single instance of it, which is shared by every conversion.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface ConfigConverter {
+    /**
+     * The converter of the member.
+     *
+     * @return the type of the converter
+     */
+    Class<? extends Converter<?>> value();
+}
@@ -6,9 +6,24 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-// TODO - Should we leave this as is, or add ways to accept other defaults types (ints, booleans, etc)
 /**
  * Specify the default value of a configuration member.
+ *
+ * <p>The default value is a <em>raw value</em>, which is converted to the member type like a configuration value.
+ * The default value of an <code>int</code>, <code>long</code>, <code>double</code> or <code>boolean</code> member may
+ * instead be specified with a typed annotation, which the compiler checks:</p>
+ *
+ * <pre>
+ * &#064;ConfigDefault.OfInt(8080)
+ * int port();
+ *
+ * &#064;ConfigDefault.OfBoolean(true)
+ * boolean enabled();
+ * </pre>
+ *
+ * <p>A typed annotation must match the member type, or its wrapper type, and a member must declare at most one
+ * default value. Implementations must reject a mapping that violates these rules, at build time or when the mapping
+ * is loaded.</p>
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
@@ -20,4 +35,64 @@ public @interface ConfigDefault {
      * @return the default value as a <code>String</code>
      */
     String value();
+
+    /**
+     * Specify the default value of an <code>int</code> or {@link Integer} configuration member.
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.METHOD })
+    @interface OfInt {
+        /**
+         * The default value of the member.
+         *
+         * @return the default value
+         */
+        int value();
+    }
+
+    /**
+     * Specify the default value of a <code>long</code> or {@link Long} configuration member.
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.METHOD })
+    @interface OfLong {
+        /**
+         * The default value of the member.
+         *
+         * @return the default value
+         */
+        long value();
+    }
+
+    /**
+     * Specify the default value of a <code>double</code> or {@link Double} configuration member.
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.METHOD })
+    @interface OfDouble {
+        /**
+         * The default value of the member.
+         *
+         * @return the default value
+         */
+        double value();
+    }
+
+    /**
+     * Specify the default value of a <code>boolean</code> or {@link Boolean} configuration member.
+     */
+    @Documented
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.METHOD })
+    @interface OfBoolean {
+        /**
+         * The default value of the member.
+         *
+         * @return the default value
+         */
+        boolean value();
+    }
 }
@@ -40,7 +40,9 @@ import java.lang.annotation.Target;
  *     <li>A configuration path is built by taking the object type path and the mapping member name</li>
  *     <li>The member name is converted to its kebab-case format</li>
  *     <li>If the member name is a getter, the member name is taken from its property name equivalent, and then converted to its kebab-case format</li>
- *     <li>The configuration value is automatically converted to the member type</li>
+ *     <li>The configuration value is automatically converted to the member type, with the
+ *     default converter of the member type, as documented by the specification, or with the
+ *     {@link ConfigConverter} of the member</li>
  *     <li>The configuration path is required to exist with a valid configuration value or the mapping will fail</li>
  * </ul>
  *
@@ -101,9 +103,31 @@ import java.lang.annotation.Target;
  *     Server server = config.load(Server.class);
  * </pre>
  *
+ * <h2>Generated implementations</h2>
+ *
+ * <p>An implementation of a {@link ConfigMapping} interface may be generated at build time, for instance by the
+ * <em>jakarta.config-processor</em> annotation processor. A generated implementation:</p>
+ *
+ * <ul>
+ *     <li>is a public class in the package of the {@link ConfigMapping} interface</li>
+ *     <li>is named after the binary name of the interface, without its package, with every <code>$</code> replaced by
+ *     <code>_</code>, followed by <code>_ConfigMapping</code>; for instance <code>Server_ConfigMapping</code> for
+ *     <code>Server</code>, and <code>Server_Ssl_ConfigMapping</code> for <code>Server.Ssl</code></li>
+ *     <li>declares a public constructor with a single {@link Config} parameter, positioned at the configuration path
+ *     of the mapping</li>
+ * </ul>
+ *
+ * <p>{@link Config#load(Class)} must use the generated implementation, if present, instead of a runtime mapping of
+ * the interface. The generated implementation loads each member value with {@link Config#load(Class)} of the (boxed)
+ * member type, at the configuration path of the member. The value of an <code>int</code>, <code>long</code>,
+ * <code>double</code> or <code>boolean</code> member is loaded with {@link Config#loadInt()},
+ * {@link Config#loadLong()}, {@link Config#loadDouble()} or {@link Config#loadBoolean()} instead, and is stored
+ * unboxed.</p>
+ *
  * @see Config#load(Class)
  * @see ConfigName
  * @see ConfigDefault
+ * @see ConfigConverter
  */
 @Target({ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
@@ -116,4 +140,28 @@ public @interface ConfigMapping {
      * @return a <code>String</code> array of configuration paths
      */
     String[] value() default {};
+
+    /**
+     * Whether the nested mapping, {@link java.util.Optional} and collection members of the mapping are resolved on
+     * first access, rather than when the mapping is {@linkplain Config#load(Class) loaded}.
+     *
+     * <p>A lazily resolved member is resolved from the configuration the mapping was loaded from, at most once per
+     * successful resolution, and is then cached in the mapping object. Its resolution is safe for concurrent use by
+     * multiple threads. A failure to resolve it, such as a {@link java.util.NoSuchElementException}, is thrown by the
+     * member method, and is not cached. Every other member is still resolved when the mapping is loaded.</p>
+     *
+     * <p>The {@link Object#equals(Object) equals} and {@link Object#hashCode() hashCode} methods of a lazy mapping
+     * compare the resolved state of its lazy members, which they resolve: a member that cannot be resolved because
+     * it is absent is equal to an absent member, rather than failing with a
+     * {@link java.util.NoSuchElementException}. Any other failure, such as a {@link ConfigException} of a value that
+     * cannot be converted, is thrown.</p>
+     *
+     * <p>The attribute applies to the members of the annotated interface only. A nested mapping interface is resolved
+     * lazily if it is annotated with a lazy {@link ConfigMapping} itself. Lazy mappings trade the fail-fast
+     * validation of eager mappings, the default, for a lower cost of loading mappings of which few members are
+     * read.</p>
+     *
+     * @return {@code true} to resolve the nested, optional and collection members on first access
+     */
+    boolean lazy() default false;
 }
@@ -16,6 +16,10 @@ public @interface ConfigName {
     /**
      * The name of the configuration member name. Must not be empty.
      *
+     * <p>The name is a <code>properties</code> key relative to the mapping, as parsed by
+     * {@link ConfigPath#parse(String)}: a dot which is not escaped separates two configuration keys, so that
+     * {@code @ConfigName("pool.size")} maps the member to the key {@code size} of the node {@code pool}.</p>
+     *
      * @return the configuration member name
      */
     String value();
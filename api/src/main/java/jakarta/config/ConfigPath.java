@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable <em>configuration path</em>: a sequence of <em>configuration keys</em> which identifies a descendant
+ * <em>configuration entry</em> within a configuration.
+ *
+ * <p>Configuration paths are interned: two equal configuration paths are always the same instance, and a
+ * configuration path shares its {@linkplain #parent() parent} with every other configuration path of the same
+ * parent. Equality is therefore identity, and the hash code is computed once, when the configuration path is first
+ * created. An implementation of {@link Config} may rely on this to resolve a child configuration path incrementally,
+ * from the configuration it has already resolved for the parent.</p>
+ *
+ * <blockquote><pre> {@linkplain ConfigPath} my = {@linkplain ConfigPath}.{@linkplain #of(String...) of("my")};
+ *{@linkplain ConfigPath} key = my.{@linkplain #child(String) child("configuration")}.{@linkplain #child(String) child("key")};
+ *assert key == {@linkplain ConfigPath}.{@linkplain #of(String...) of("my", "configuration", "key")};
+ *assert key.{@linkplain #parent() parent()}.{@linkplain #parent() parent()} == my;
+ *{@linkplain Config} configuration = {@linkplain Config}.{@linkplain Config#bootstrap() bootstrap()}.{@linkplain Config#path(ConfigPath) path(key.parent())};</pre></blockquote>
+ *
+ * <p>Every configuration key is normalized using Unicode Normalization Form C (NFC). An interned configuration path
+ * is weakly referenced by its parent, and is discarded once it, and every one of its descendants, is no longer
+ * referenced, for instance when the configuration tree that refers to it is replaced by a reload. A configuration
+ * path strongly references its parent, so the ancestors of a configuration path in use are never discarded.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ *
+ * @see Config#path(ConfigPath)
+ */
+public final class ConfigPath {
+    private static final VarHandle CHILDREN;
+    private static final ReferenceQueue<ConfigPath> QUEUE = new ReferenceQueue<>();
+    private static final ConfigPath ROOT = new ConfigPath(null, "");
+
+    static {
+        try {
+            CHILDREN = MethodHandles.lookup().findVarHandle(ConfigPath.class, "children", ConcurrentHashMap.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ConfigPath parent;
+    private final String key;
+    private final int depth;
+    private final int hash;
+    // created on the first child, as most configuration paths are leaves
+    private volatile ConcurrentHashMap<String, Child> children;
+
+    private ConfigPath(ConfigPath parent, String key) {
+        this.parent = parent;
+        this.key = key;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.hash = parent == null ? 0 : 31 * parent.hash + key.hashCode();
+    }
+
+    /**
+     * Returns the empty configuration path, which identifies the <em>root</em> of a configuration.
+     *
+     * @return the empty configuration path; never {@code null}
+     */
+    public static ConfigPath root() {
+        return ROOT;
+    }
+
+    /**
+     * Returns the configuration path of the supplied configuration keys.
+     *
+     * @param keys the configuration keys; must not be {@code null}; an empty array identifies the
+     *             {@linkplain #root() root}
+     * @return the configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code keys}, or any of its elements, was {@code null}
+     * @exception IllegalArgumentException if any of the supplied {@code keys} was not a valid configuration key
+     */
+    public static ConfigPath of(String... keys) {
+        return ROOT.append(keys);
+    }
+
+    /**
+     * Returns the configuration path of the supplied configuration keys.
+     *
+     * @param keys the configuration keys; must not be {@code null}; an empty list identifies the
+     *             {@linkplain #root() root}
+     * @return the configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code keys}, or any of its elements, was {@code null}
+     * @exception IllegalArgumentException if any of the supplied {@code keys} was not a valid configuration key
+     */
+    public static ConfigPath of(List<String> keys) {
+        ConfigPath path = ROOT;
+        for (String key : keys) {
+            path = path.child(key);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the configuration path of the supplied <code>properties</code> key.
+     *
+     * <p>The <code>properties</code> key is transformed into a configuration path as defined by the <em>Property key
+     * encoding</em> of the specification:</p>
+     * <ul>
+     *     <li>a backslash (<code>\</code>) is an <em>escape</em> for the next character, which is added to the
+     *     configuration key verbatim</li>
+     *     <li>a dot (<code>.</code>) which is not escaped separates two configuration keys</li>
+     * </ul>
+     *
+     * <p>An empty <code>properties</code> key identifies the {@linkplain #root() root}. This method is the inverse
+     * of {@link #toString()}.</p>
+     *
+     * @param key the <code>properties</code> key; must not be {@code null}
+     * @return the configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code key} was {@code null}
+     * @exception IllegalArgumentException if the supplied {@code key} ends with an escape, or contains an empty
+     *            configuration key
+     */
+    public static ConfigPath parse(String key) {
+        ConfigPath path = ROOT;
+        if (key.isEmpty()) {
+            return path;
+        }
+        StringBuilder builder = new StringBuilder(key.length());
+        boolean escape = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (escape) {
+                builder.append(c);
+                escape = false;
+            } else if (c == '\\') {
+                escape = true;
+            } else if (c == '.') {
+                path = path.child(builder.toString());
+                builder.setLength(0);
+            } else {
+                builder.append(c);
+            }
+        }
+        if (escape) {
+            throw new IllegalArgumentException("A properties key must not end with an escape: " + key);
+        }
+        return path.child(builder.toString());
+    }
+
+    /**
+     * Returns the configuration path of the supplied configuration key, relative to this configuration path.
+     *
+     * @param key the configuration key; must not be {@code null}
+     * @return the child configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code key} was {@code null}
+     * @exception IllegalArgumentException if the supplied {@code key} was empty or contained control characters
+     */
+    public ConfigPath child(String key) {
+        Objects.requireNonNull(key, "key");
+        ConcurrentHashMap<String, Child> map = children;
+        if (map != null) {
+            Child reference = map.get(key);
+            ConfigPath child = reference == null ? null : reference.get();
+            if (child != null) {
+                return child;
+            }
+        }
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("A configuration key must not be empty");
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.isISOControl(key.charAt(i))) {
+                throw new IllegalArgumentException("A configuration key must not contain control characters: " + key);
+            }
+        }
+        String normalized = Normalizer.normalize(key, Normalizer.Form.NFC);
+        if (!normalized.equals(key)) {
+            return child(normalized);
+        }
+        return intern(key);
+    }
+
+    private ConfigPath intern(String key) {
+        expunge();
+        ConcurrentHashMap<String, Child> map = children;
+        if (map == null) {
+            map = new ConcurrentHashMap<>(4);
+            if (!CHILDREN.compareAndSet(this, null, map)) {
+                map = children;
+            }
+        }
+        ConfigPath created = null;
+        while (true) {
+            Child existing = map.get(key);
+            ConfigPath child = existing == null ? null : existing.get();
+            if (child != null) {
+                return child;
+            }
+            if (created == null) {
+                created = new ConfigPath(this, key);
+            }
+            Child reference = new Child(created, map);
+            if (existing == null ? map.putIfAbsent(key, reference) == null : map.replace(key, existing, reference)) {
+                return created;
+            }
+        }
+    }
+
+    private static void expunge() {
+        Reference<? extends ConfigPath> reference;
+        while ((reference = QUEUE.poll()) != null) {
+            Child child = (Child) reference;
+            child.siblings.remove(child.key, child);
+        }
+    }
+
+    /**
+     * Returns the configuration path of the supplied configuration keys, relative to this configuration path.
+     *
+     * @param keys the configuration keys; must not be {@code null}
+     * @return the descendant configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code keys}, or any of its elements, was {@code null}
+     * @exception IllegalArgumentException if any of the supplied {@code keys} was not a valid configuration key
+     */
+    public ConfigPath append(String... keys) {
+        ConfigPath path = this;
+        for (String key : keys) {
+            path = path.child(key);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the supplied configuration path, relative to this configuration path.
+     *
+     * @param path the relative configuration path; must not be {@code null}
+     * @return the descendant configuration path; never {@code null}
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     */
+    public ConfigPath append(ConfigPath path) {
+        if (path.depth == 0) {
+            return this;
+        }
+        if (depth == 0) {
+            return path;
+        }
+        return append(path.toArray());
+    }
+
+    /**
+     * Returns the parent of this configuration path.
+     *
+     * @return the parent configuration path, or {@code null} if this configuration path is the
+     *         {@linkplain #root() root}
+     */
+    public ConfigPath parent() {
+        return parent;
+    }
+
+    /**
+     * Returns the last configuration key of this configuration path.
+     *
+     * @return the last configuration key, or an empty {@code String} if this configuration path is the
+     *         {@linkplain #root() root}; never {@code null}
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Returns the number of configuration keys of this configuration path.
+     *
+     * @return the number of configuration keys; {@code 0} for the {@linkplain #root() root}
+     */
+    public int size() {
+        return depth;
+    }
+
+    /**
+     * Returns whether this configuration path is the {@linkplain #root() root}.
+     *
+     * @return {@code true} if this configuration path has no configuration keys
+     */
+    public boolean isRoot() {
+        return depth == 0;
+    }
+
+    /**
+     * Returns whether this configuration path starts with the supplied configuration path.
+     *
+     * @param prefix the configuration path; must not be {@code null}
+     * @return {@code true} if this configuration path is the supplied configuration path, or one of its descendants
+     * @exception NullPointerException if the supplied {@code prefix} was {@code null}
+     */
+    public boolean startsWith(ConfigPath prefix) {
+        ConfigPath path = this;
+        while (path.depth > prefix.depth) {
+            path = path.parent;
+        }
+        return path == prefix;
+    }
+
+    /**
+     * Returns the configuration keys of this configuration path.
+     *
+     * @return a new array of the configuration keys; never {@code null}
+     */
+    public String[] toArray() {
+        String[] keys = new String[depth];
+        ConfigPath path = this;
+        for (int i = depth - 1; i >= 0; i--) {
+            keys[i] = path.key;
+            path = path.parent;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the configuration keys of this configuration path.
+     *
+     * @return an unmodifiable list of the configuration keys; never {@code null}
+     */
+    public List<String> keys() {
+        return List.of(toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        // configuration paths are interned
+        return this == obj;
+    }
+
+    /**
+     * Returns the <code>properties</code> key of this configuration path: the configuration keys, separated by dot
+     * (<code>.</code>) characters, with every dot and backslash (<code>\</code>) within a configuration key escaped
+     * with a backslash.
+     *
+     * @return the <code>properties</code> key; an empty {@code String} for the {@linkplain #root() root}
+     * @see #parse(String)
+     */
+    @Override
+    public String toString() {
+        if (depth == 0) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(depth * 8);
+        for (String k : toArray()) {
+            if (builder.length() > 0) {
+                builder.append('.');
+            }
+            for (int i = 0; i < k.length(); i++) {
+                char c = k.charAt(i);
+                if (c == '.' || c == '\\') {
+                    builder.append('\\');
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A weak reference to an interned child configuration path, which removes itself from the children of its
+     * parent once the child is discarded.
+     */
+    private static final class Child extends WeakReference<ConfigPath> {
+        private final String key;
+        private final ConcurrentHashMap<String, Child> siblings;
+
+        Child(ConfigPath child, ConcurrentHashMap<String, Child> siblings) {
+            super(child, QUEUE);
+            this.key = child.key;
+            this.siblings = siblings;
+        }
+    }
+}
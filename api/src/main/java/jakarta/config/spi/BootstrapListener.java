@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.spi;
+
+import java.util.function.Consumer;
+
+/**
+ * Observes the {@linkplain jakarta.config.Config#bootstrap(ClassLoader) bootstraps} of {@link jakarta.config.Config}
+ * instances, so that implementations can instrument them.
+ *
+ * <p>Listeners are located with the {@link java.util.ServiceLoader}, with the {@link ClassLoader} of the bootstrap,
+ * each time a {@link jakarta.config.Config} is located for a {@link ClassLoader}. A bootstrap that returns an
+ * already registered {@link jakarta.config.Config} is not observed.</p>
+ *
+ * <p>An implementation must be safe for concurrent use by multiple threads.</p>
+ */
+public interface BootstrapListener {
+    /**
+     * Starts observing the bootstrap of a {@link jakarta.config.Config} for the supplied {@link ClassLoader}.
+     *
+     * <p>The returned {@link Consumer} is invoked exactly once, by the bootstrapping thread, once the
+     * {@link jakarta.config.Config} is located, with {@code null}, or with the reason the bootstrap failed.</p>
+     *
+     * @param classLoader the {@link ClassLoader} of the bootstrap; never {@code null}
+     * @return the {@link Consumer} that ends the observation, or {@code null} if this bootstrap is not observed
+     */
+    Consumer<Throwable> bootstrap(ClassLoader classLoader);
+}
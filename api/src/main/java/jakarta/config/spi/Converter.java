@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.spi;
+
+/**
+ * Converts a <em>raw value</em> to a value of type {@code T}.
+ *
+ * <p>The default converters of the types documented by the specification are provided by implementations, such as
+ * the <code>Converters</code> of the implementation module. The conversion of a {@link jakarta.config.ConfigMapping}
+ * member may be overridden with {@link jakarta.config.ConfigConverter}, whose converter class must be public, and
+ * must declare a public constructor without parameters.</p>
+ *
+ * <p>An implementation must be safe for concurrent use by multiple threads, as a single instance is shared by every
+ * conversion.</p>
+ *
+ * @param <T> the type of the converted values
+ */
+@FunctionalInterface
+public interface Converter<T> {
+    /**
+     * Converts the supplied <em>raw value</em>.
+     *
+     * @param value the <em>raw value</em>; must not be {@code null}
+     * @return the converted value; never {@code null}
+     * @exception IllegalArgumentException if the supplied {@code value} cannot be converted
+     * @exception NullPointerException if the supplied {@code value} was {@code null}
+     */
+    T convert(String value);
+}
@@ -18,11 +18,14 @@
  */
 
 import jakarta.config.Config;
+import jakarta.config.spi.BootstrapListener;
 
 /**
  * Jakarta Config API.
  */
 module jakarta.config.api {
     exports jakarta.config;
+    exports jakarta.config.spi;
     uses Config;
+    uses BootstrapListener;
 }
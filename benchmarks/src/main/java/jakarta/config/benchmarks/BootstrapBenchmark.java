@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.config.Config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Config#bootstrap(ClassLoader)}, both when a {@link Config} is already bootstrapped for the
+ * {@link ClassLoader} and when it has to be located with the {@link java.util.ServiceLoader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class BootstrapBenchmark {
+    private ClassLoader classLoader;
+    private Config config;
+
+    /**
+     * Bootstraps the {@link Config} used by {@link #warm()}.
+     */
+    @Setup
+    public void setup() {
+        classLoader = Thread.currentThread().getContextClassLoader();
+        config = Config.bootstrap(classLoader);
+    }
+
+    /**
+     * Bootstraps a {@link Config} that is already bootstrapped for the {@link ClassLoader}.
+     *
+     * @return the {@link Config}
+     */
+    @Benchmark
+    public Config warm() {
+        return Config.bootstrap(classLoader);
+    }
+
+    /**
+     * Releases, then bootstraps a {@link Config}, including the {@link java.util.ServiceLoader} lookup and the
+     * instantiation of the provider.
+     *
+     * @return the {@link Config}
+     */
+    @Benchmark
+    public Config cold() {
+        Config.release(classLoader);
+        return Config.bootstrap(classLoader);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.config.Config;
+import jakarta.config.tck.common.TopLevelConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Config#load(Class)} and {@link Config#bootstrap()} from as many threads as there are available
+ * processors, all sharing the same {@link Config}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(Threads.MAX)
+public class ConcurrentLoadBenchmark {
+    /**
+     * Loads the TCK {@link TopLevelConfig} mapping.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public TopLevelConfig topLevel(ConfigProvider provider) {
+        return provider.config.load(TopLevelConfig.class);
+    }
+
+    /**
+     * Loads a mapping with <code>List</code> and <code>Map</code> members.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public Server collections(ConfigProvider provider) {
+        return provider.config.load(Server.class);
+    }
+
+    /**
+     * Bootstraps the {@link Config} registered for the context classloader.
+     *
+     * @return the {@link Config}
+     */
+    @Benchmark
+    public Config bootstrap() {
+        return Config.bootstrap();
+    }
+}
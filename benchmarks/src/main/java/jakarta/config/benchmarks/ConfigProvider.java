@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigException;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The {@link Config} under benchmark, selected with the <code>provider</code> parameter:
+ *
+ * <ul>
+ *     <li><code>reference</code>: an {@link InMemoryConfig} with the benchmark configuration</li>
+ *     <li><code>bootstrap</code>: the {@link Config} found by {@link Config#bootstrap()}</li>
+ *     <li>the fully qualified name of a {@link Config} class with a public no-argument constructor</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ConfigProvider {
+    /**
+     * The provider of the {@link Config} under benchmark.
+     */
+    @Param("reference")
+    public String provider;
+
+    Config config;
+
+    /**
+     * Creates the {@link Config} under benchmark.
+     */
+    @Setup
+    public void setup() {
+        config = create(provider);
+    }
+
+    static Config create(String provider) {
+        switch (provider) {
+        case "reference":
+            return new InMemoryConfig(InMemoryConfig.classpathProperties(ConfigProvider.class.getClassLoader()));
+        case "bootstrap":
+            return Config.bootstrap();
+        default:
+            try {
+                return Class.forName(provider, true, Thread.currentThread().getContextClassLoader())
+                            .asSubclass(Config.class)
+                            .getConstructor()
+                            .newInstance();
+            } catch (InvocationTargetException e) {
+                throw new ConfigException("Unable to create " + provider, e.getCause());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new ConfigException("Unable to create " + provider, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import jakarta.config.ConfigMapping;
+
+/**
+ * A mapping whose only value is nested six levels deep.
+ */
+@ConfigMapping("deep")
+public interface Deep {
+    Level1 level1();
+
+    interface Level1 {
+        Level2 level2();
+    }
+
+    interface Level2 {
+        Level3 level3();
+    }
+
+    interface Level3 {
+        Level4 level4();
+    }
+
+    interface Level4 {
+        Level5 level5();
+    }
+
+    interface Level5 {
+        Level6 level6();
+    }
+
+    interface Level6 {
+        String value();
+    }
+}
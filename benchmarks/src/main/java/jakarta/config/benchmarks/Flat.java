@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import jakarta.config.ConfigMapping;
+
+/**
+ * A flat mapping with members of the common value types.
+ */
+@ConfigMapping("flat")
+public interface Flat {
+    String name();
+    String host();
+    int port();
+    int ioThreads();
+    long timeout();
+    boolean enabled();
+    double ratio();
+    int retries();
+    int queueSize();
+    String user();
+    String realm();
+    boolean compression();
+    int maxConnections();
+    long idleTimeout();
+    int backlog();
+    String charset();
+}
@@ -0,0 +1,801 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigConverter;
+import jakarta.config.ConfigDefault;
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigMapping;
+import jakarta.config.ConfigName;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigInstrumentation;
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+import jakarta.config.impl.ConfigNode;
+import jakarta.config.impl.ConfigReferences;
+import jakarta.config.impl.Converters;
+import jakarta.config.spi.Converter;
+
+/**
+ * A reference {@link Config} backed by an in-memory map of <code>properties</code> keys, as described by the
+ * <em>Structure and format</em> section of the specification.
+ *
+ * <p>This implementation is deliberately straightforward: it resolves every {@link #load(Class) load} from scratch
+ * with reflection and dynamic proxies. It enumerates <code>List</code> and <code>Map</code> members with the
+ * {@linkplain ConfigNode#elements() element} and child indexes of a {@link ConfigNode} tree of the keys, in a
+ * time proportional to their size, and expands the {@linkplain ConfigReferences cross-references} of
+ * <em>raw values</em> once. It uses {@linkplain ConfigMapping generated implementations} when present. It serves as
+ * the baseline the benchmarks compare other implementations against.</p>
+ *
+ * <p>{@link #loadAll(Collection)} collects the <em>configuration paths</em> of the supplied types first, reads the
+ * expanded <em>raw values</em> of the union of their subtrees in a single pass over the configuration tree, and then
+ * builds every object from these values.</p>
+ *
+ * <p>{@link #loadAsync(Class, Executor)} and {@link #loadAsync(Class, Executor, Duration)} resolve the members of a
+ * mapping without a generated implementation concurrently, with tasks submitted to the supplied {@link Executor}.
+ * The load waits for its members by running the tasks that have not started yet itself, so that it completes even
+ * with an {@link Executor} of a single thread.</p>
+ */
+public final class InMemoryConfig implements Config {
+    private static final String PROPERTIES = "META-INF/jakarta-config.properties";
+    private static final ClassValue<Constructor<?>> GENERATED = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            String name = type.getName();
+            String packageName = type.getPackageName();
+            String simpleName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+            String generated = (packageName.isEmpty() ? "" : packageName + ".")
+                    + simpleName.replace('$', '_') + "_ConfigMapping";
+            try {
+                return Class.forName(generated, true, type.getClassLoader()).getConstructor(Config.class);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                return null;
+            }
+        }
+    };
+
+    private final Map<String, String> properties;
+    private final ConfigReferences references;
+    private final String[] path;
+    // the expanded raw values read by loadAll, by properties key, or null
+    private final Map<String, String> values;
+    // the executor of the members of the mappings of loadAsync, or null to resolve them in sequence
+    private final Executor executor;
+
+    /**
+     * Creates a new {@link InMemoryConfig} with every <em>META-INF/jakarta-config.properties</em> file found by the
+     * {@linkplain Thread#getContextClassLoader() context classloader}.
+     */
+    public InMemoryConfig() {
+        this(classpathProperties(Thread.currentThread().getContextClassLoader()));
+    }
+
+    /**
+     * Creates a new {@link InMemoryConfig}.
+     *
+     * @param properties the <code>properties</code> keys and their <em>raw values</em>; must not be {@code null}
+     */
+    public InMemoryConfig(Map<String, String> properties) {
+        this(Map.copyOf(properties), null, new String[0], null, null);
+    }
+
+    private InMemoryConfig(Map<String, String> properties, ConfigReferences references, String[] path,
+                           Map<String, String> values, Executor executor) {
+        this.properties = properties;
+        this.references = references == null ? ConfigReferences.of(tree(properties)) : references;
+        this.path = path;
+        this.values = values;
+        this.executor = executor;
+    }
+
+    @Override
+    public <T> T load(Class<T> type) {
+        Objects.requireNonNull(type, "type");
+        Probe probe = ConfigInstrumentation.isEnabled() ? ConfigInstrumentation.load(type, ConfigPath.of(path)) : null;
+        if (probe == null) {
+            return loadObject(type);
+        }
+        try {
+            T object = loadObject(type);
+            probe.end();
+            return object;
+        } catch (RuntimeException e) {
+            probe.end(e);
+            throw e;
+        }
+    }
+
+    private <T> T loadObject(Class<T> type) {
+        if (type.isInterface() && !type.getName().startsWith("java.")) {
+            ConfigMapping mapping = type.getAnnotation(ConfigMapping.class);
+            if (mapping == null) {
+                throw new ConfigException(type.getName() + " is not annotated with @ConfigMapping");
+            }
+            String[] prefix = path.length == 0 ? mapping.value() : path;
+            return type.cast(mapping(type, prefix));
+        }
+        return type.cast(resolve(type, path, null, null));
+    }
+
+    @Override
+    public <T> CompletionStage<T> loadAsync(Class<T> type, Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return new InMemoryConfig(properties, references, path, values, executor).loadAsyncWith(type, executor);
+    }
+
+    @Override
+    public <T> CompletionStage<T> loadAsync(Class<T> type, Executor executor, Duration timeout) {
+        Objects.requireNonNull(executor, "executor");
+        return new InMemoryConfig(properties, references, path, values, executor)
+                .loadAsyncWith(type, executor, timeout);
+    }
+
+    private <T> CompletionStage<T> loadAsyncWith(Class<T> type, Executor executor) {
+        return Config.super.loadAsync(type, executor);
+    }
+
+    private <T> CompletionStage<T> loadAsyncWith(Class<T> type, Executor executor, Duration timeout) {
+        return Config.super.loadAsync(type, executor, timeout);
+    }
+
+    @Override
+    public Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types) {
+        InMemoryConfig batch = batch(types);
+        return batch == this ? Config.super.loadAll(types) : batch.loadAll(types);
+    }
+
+    @Override
+    public Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types, Executor executor) {
+        InMemoryConfig batch = batch(types);
+        return batch == this ? Config.super.loadAll(types, executor) : batch.loadAll(types, executor);
+    }
+
+    /**
+     * Returns an {@link InMemoryConfig} of the expanded <em>raw values</em> of the union of the subtrees of the
+     * supplied types, or this {@link InMemoryConfig} if it already has them.
+     */
+    private InMemoryConfig batch(Collection<? extends Class<?>> types) {
+        if (values != null) {
+            return this;
+        }
+        List<ConfigPath> roots = new ArrayList<>();
+        for (Class<?> type : types) {
+            ConfigMapping mapping = Objects.requireNonNull(type, "type").getAnnotation(ConfigMapping.class);
+            roots.add(ConfigPath.of(mapping == null || path.length > 0 ? path : mapping.value()));
+        }
+        // a subtree nested in another one is read with it
+        roots.sort(Comparator.comparingInt(ConfigPath::size));
+        Map<String, String> read = new HashMap<>();
+        List<ConfigPath> visited = new ArrayList<>();
+        for (ConfigPath root : roots) {
+            if (visited.stream().noneMatch(root::startsWith)) {
+                visited.add(root);
+                ConfigNode node = references.tree().get(root);
+                if (node != null) {
+                    read(node, root.toArray(), read);
+                }
+            }
+        }
+        return new InMemoryConfig(properties, references, path, read, executor);
+    }
+
+    /**
+     * Reads the expanded <em>raw values</em> of the subtree of the supplied configuration entry.
+     */
+    private void read(ConfigNode node, String[] path, Map<String, String> read) {
+        if (node.value() != null) {
+            String value = value(path);
+            if (value != null) {
+                read.put(encode(path), value);
+            }
+        }
+        for (Map.Entry<String, ConfigNode> child : node.children().entrySet()) {
+            read(child.getValue(), append(path, child.getKey()), read);
+        }
+    }
+
+    @Override
+    public int loadInt() {
+        String value = rawValue();
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Unable to convert '" + value + "' to int", e);
+        }
+    }
+
+    @Override
+    public long loadLong() {
+        String value = rawValue();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Unable to convert '" + value + "' to long", e);
+        }
+    }
+
+    @Override
+    public double loadDouble() {
+        String value = rawValue();
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Unable to convert '" + value + "' to double", e);
+        }
+    }
+
+    @Override
+    public boolean loadBoolean() {
+        String value = rawValue();
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new ConfigException("Unable to convert '" + value + "' to boolean");
+    }
+
+    @Override
+    public Set<String> childKeys() {
+        return children(path);
+    }
+
+    @Override
+    public Config path(String... paths) {
+        String[] appended = Arrays.copyOf(path, path.length + paths.length);
+        System.arraycopy(paths, 0, appended, path.length, paths.length);
+        return new InMemoryConfig(properties, references, appended, values, executor);
+    }
+
+    /**
+     * Reads every <em>META-INF/jakarta-config.properties</em> file found by the supplied {@link ClassLoader}.
+     *
+     * @param classLoader the {@link ClassLoader}; may be {@code null} to indicate the system classloader
+     * @return the merged <code>properties</code>; never {@code null}
+     */
+    public static Map<String, String> classpathProperties(ClassLoader classLoader) {
+        Map<String, String> merged = new HashMap<>();
+        try {
+            Enumeration<URL> resources = classLoader == null
+                    ? ClassLoader.getSystemResources(PROPERTIES)
+                    : classLoader.getResources(PROPERTIES);
+            while (resources.hasMoreElements()) {
+                Properties properties = new Properties();
+                try (InputStream in = resources.nextElement().openStream();
+                        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                for (String key : properties.stringPropertyNames()) {
+                    merged.putIfAbsent(key, properties.getProperty(key));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return merged;
+    }
+
+    private Object mapping(Class<?> type, String[] prefix) {
+        Constructor<?> generated = GENERATED.get(type);
+        if (generated != null) {
+            try {
+                return generated.newInstance(new InMemoryConfig(properties, references, prefix, values, executor));
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new ConfigException(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new ConfigException(e);
+            }
+        }
+
+        ConfigMapping mapping = type.getAnnotation(ConfigMapping.class);
+        boolean lazy = mapping != null && mapping.lazy();
+        Map<Method, Object> values = new HashMap<>();
+        Map<Method, Member> members = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isDefault()) {
+                continue;
+            }
+            String[] memberPath = append(prefix, memberKeys(method));
+            Type memberType = method.getGenericReturnType();
+            String defaultValue = defaultValue(method);
+            ConfigConverter converter = method.getAnnotation(ConfigConverter.class);
+            Converter<?> memberConverter = converter == null ? null : Converters.instance(converter.value());
+            if (lazy && lazy(memberType)) {
+                values.put(method, new Lazy(() -> resolve(memberType, memberPath, defaultValue, memberConverter)));
+            } else if (executor == null) {
+                values.put(method, resolve(memberType, memberPath, defaultValue, memberConverter));
+            } else {
+                members.put(method, new Member(() -> resolve(memberType, memberPath, defaultValue, memberConverter)));
+            }
+        }
+        if (members.size() > 1) {
+            for (Member member : members.values()) {
+                try {
+                    executor.execute(member);
+                } catch (RejectedExecutionException e) {
+                    // resolved by this thread
+                }
+            }
+        }
+        // the first member that fails in the order of the methods is reported, as if resolved in sequence
+        for (Map.Entry<Method, Member> member : members.entrySet()) {
+            values.put(member.getKey(), member.getValue().join());
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new MappingHandler(type, values));
+    }
+
+    /**
+     * Resolves the value of the supplied type, converting <em>raw values</em> with the supplied converter, or with
+     * the {@linkplain Converters#of(Class) default converter} if it is {@code null}.
+     */
+    private Object resolve(Type type, String[] path, String defaultValue, Converter<?> converter) {
+        Class<?> raw = rawType(type);
+        if (raw == Optional.class) {
+            try {
+                return Optional.of(resolve(typeArgument(type, 0), path, defaultValue, converter));
+            } catch (NoSuchElementException e) {
+                return Optional.empty();
+            }
+        }
+        if (raw == List.class || raw == Collection.class || raw == Set.class) {
+            List<Object> elements = new ArrayList<>();
+            Type elementType = typeArgument(type, 0);
+            for (String key : elements(path)) {
+                elements.add(resolve(elementType, append(path, key), null, converter));
+            }
+            if (elements.isEmpty()) {
+                if (defaultValue == null) {
+                    throw new NoSuchElementException(encode(path));
+                }
+                for (String element : defaultValue.split(",")) {
+                    elements.add(convert(rawType(elementType), element.trim(), converter));
+                }
+            }
+            return raw == Set.class
+                    ? Collections.unmodifiableSet(new LinkedHashSet<>(elements))
+                    : Collections.unmodifiableList(elements);
+        }
+        if (raw == Map.class) {
+            Map<String, Object> entries = new TreeMap<>();
+            Type valueType = typeArgument(type, 1);
+            for (String key : children(path)) {
+                entries.put(key, resolve(valueType, append(path, key), null, converter));
+            }
+            if (entries.isEmpty()) {
+                throw new NoSuchElementException(encode(path));
+            }
+            return Collections.unmodifiableMap(entries);
+        }
+        if (converter == null && raw.isInterface() && !raw.getName().startsWith("java.")) {
+            return mapping(raw, path);
+        }
+
+        String value = value(path);
+        if (value == null) {
+            value = defaultValue;
+        }
+        if (value == null) {
+            throw new NoSuchElementException(encode(path));
+        }
+        return convert(raw, value, converter);
+    }
+
+    private static boolean lazy(Type type) {
+        Class<?> raw = rawType(type);
+        return raw == Optional.class
+                || raw == List.class
+                || raw == Collection.class
+                || raw == Set.class
+                || raw == Map.class
+                || (raw.isInterface() && !raw.getName().startsWith("java."));
+    }
+
+    private String rawValue() {
+        String value = value(path);
+        if (value == null) {
+            throw new NoSuchElementException(encode(path));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the <em>raw value</em> of the supplied <em>configuration path</em>, with its cross-references expanded.
+     */
+    private String value(String[] path) {
+        String key = encode(path);
+        if (values != null) {
+            String read = values.get(key);
+            if (read != null) {
+                return read;
+            }
+        }
+        String value = properties.get(key);
+        if (value == null || value.indexOf('$') < 0) {
+            return value;
+        }
+        String expanded = references.value(ConfigPath.of(path));
+        // a key that is not a valid properties key is not in the tree
+        return expanded == null ? value : expanded;
+    }
+
+    private static String defaultValue(Method method) {
+        List<String> values = new ArrayList<>(1);
+        Class<?> typed = null;
+        ConfigDefault value = method.getAnnotation(ConfigDefault.class);
+        if (value != null) {
+            values.add(value.value());
+        }
+        ConfigDefault.OfInt intValue = method.getAnnotation(ConfigDefault.OfInt.class);
+        if (intValue != null) {
+            values.add(Integer.toString(intValue.value()));
+            typed = int.class;
+        }
+        ConfigDefault.OfLong longValue = method.getAnnotation(ConfigDefault.OfLong.class);
+        if (longValue != null) {
+            values.add(Long.toString(longValue.value()));
+            typed = long.class;
+        }
+        ConfigDefault.OfDouble doubleValue = method.getAnnotation(ConfigDefault.OfDouble.class);
+        if (doubleValue != null) {
+            values.add(Double.toString(doubleValue.value()));
+            typed = double.class;
+        }
+        ConfigDefault.OfBoolean booleanValue = method.getAnnotation(ConfigDefault.OfBoolean.class);
+        if (booleanValue != null) {
+            values.add(Boolean.toString(booleanValue.value()));
+            typed = boolean.class;
+        }
+        if (values.size() > 1) {
+            throw new ConfigException(method + " declares more than one default value");
+        }
+        if (typed != null) {
+            Type type = method.getGenericReturnType();
+            Class<?> raw = rawType(type) == Optional.class ? rawType(typeArgument(type, 0)) : rawType(type);
+            // unwrap() maps a wrapper type to its primitive type
+            if (MethodType.methodType(raw).unwrap().returnType() != typed) {
+                throw new ConfigException(method + " declares a default value of type " + typed
+                        + ", which does not match its type");
+            }
+        }
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Returns the index keys of the elements of the list of the supplied <em>configuration path</em>, such as
+     * <code>0</code> of <code>endpoints.0</code>, in index order.
+     */
+    private Set<String> elements(String[] path) {
+        ConfigNode node = references.tree().get(ConfigPath.of(path));
+        return node == null ? Set.of() : node.elements().keySet();
+    }
+
+    private Set<String> children(String[] path) {
+        ConfigNode node = references.tree().get(ConfigPath.of(path));
+        return node == null ? Set.of() : node.children().keySet();
+    }
+
+    /**
+     * Builds the configuration tree of the supplied <code>properties</code> keys; a key that is not a valid
+     * <code>properties</code> key is only found by its <em>raw value</em>.
+     */
+    private static ConfigNode tree(Map<String, String> properties) {
+        ConfigNode.Builder builder = ConfigNode.builder();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            try {
+                builder.put(ConfigPath.parse(entry.getKey()), entry.getValue());
+            } catch (IllegalArgumentException e) {
+                // not a properties key of the specification
+            }
+        }
+        return builder.build();
+    }
+
+    private static Object convert(Class<?> type, String value, Converter<?> converter) {
+        Probe probe = ConfigInstrumentation.conversion(type);
+        if (probe == null) {
+            return convertValue(type, value, converter);
+        }
+        try {
+            Object converted = convertValue(type, value, converter);
+            probe.end();
+            return converted;
+        } catch (RuntimeException e) {
+            probe.end(e);
+            throw e;
+        }
+    }
+
+    private static Object convertValue(Class<?> type, String value, Converter<?> converter) {
+        // a type without a conversion is a programming error, not a conversion failure
+        Converter<?> resolved = converter == null ? Converters.of(type) : converter;
+        try {
+            return resolved.convert(value);
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("Unable to convert '" + value + "' to " + type.getName(), e);
+        }
+    }
+
+    private static String[] memberKeys(Method method) {
+        ConfigName name = method.getAnnotation(ConfigName.class);
+        if (name != null) {
+            // a properties key, of which a dot that is not escaped separates two configuration keys
+            return ConfigPath.parse(name.value()).toArray();
+        }
+        String property = method.getName();
+        Class<?> returnType = method.getReturnType();
+        if (property.length() > 3 && property.startsWith("get") && Character.isUpperCase(property.charAt(3))) {
+            property = decapitalize(property.substring(3));
+        } else if (property.length() > 2 && property.startsWith("is") && Character.isUpperCase(property.charAt(2))
+                && (returnType == boolean.class || returnType == Boolean.class)) {
+            property = decapitalize(property.substring(2));
+        }
+        return new String[] {kebabCase(property)};
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String kebabCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c)) {
+                char previous = name.charAt(i - 1);
+                if (Character.isLowerCase(previous) || Character.isDigit(previous)
+                        || (Character.isUpperCase(previous) && i + 1 < name.length()
+                                && Character.isLowerCase(name.charAt(i + 1)))) {
+                    builder.append('-');
+                }
+            }
+            builder.append(Character.toLowerCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Encodes a <em>configuration path</em> as a <code>properties</code> key, escaping dots and backslashes.
+     */
+    private static String encode(String[] path) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) {
+                builder.append('.');
+            }
+            String key = path[i];
+            for (int j = 0; j < key.length(); j++) {
+                char c = key.charAt(j);
+                if (c == '.' || c == '\\') {
+                    builder.append('\\');
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String[] append(String[] path, String... elements) {
+        String[] appended = Arrays.copyOf(path, path.length + elements.length);
+        System.arraycopy(elements, 0, appended, path.length, elements.length);
+        return appended;
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        throw new IllegalArgumentException("Unsupported member type " + type);
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (!(type instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("Raw member type " + type);
+        }
+        return ((ParameterizedType) type).getActualTypeArguments()[index];
+    }
+
+    private static final class MappingHandler implements InvocationHandler {
+        private final Class<?> type;
+        private final Map<Method, Object> values;
+
+        MappingHandler(Class<?> type, Map<Method, Object> values) {
+            this.type = type;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object value = values.get(method);
+            if (value instanceof Lazy) {
+                return ((Lazy) value).get();
+            }
+            if (value != null) {
+                return value;
+            }
+            switch (method.getName()) {
+            case "equals":
+                if (args != null && args.length == 1) {
+                    return args[0] != null
+                            && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof MappingHandler
+                            && ((MappingHandler) Proxy.getInvocationHandler(args[0])).type == type
+                            && ((MappingHandler) Proxy.getInvocationHandler(args[0])).values.equals(values);
+                }
+                break;
+            case "hashCode":
+                if (args == null) {
+                    return values.hashCode();
+                }
+                break;
+            case "toString":
+                if (args == null) {
+                    return type.getName() + "@" + Integer.toHexString(values.hashCode());
+                }
+                break;
+            default:
+                break;
+            }
+            if (method.isDefault()) {
+                return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                                    .unreflectSpecial(method, type)
+                                    .bindTo(proxy)
+                                    .invokeWithArguments(args);
+            }
+            throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    /**
+     * A member of a mapping, resolved once by the first thread that runs it: a task of the executor of
+     * {@link #loadAsync(Class, Executor)}, or the thread that joins it.
+     */
+    private static final class Member extends CompletableFuture<Object> implements Runnable {
+        private final Supplier<Object> resolver;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Member(Supplier<Object> resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                try {
+                    complete(resolver.get());
+                } catch (Throwable e) {
+                    completeExceptionally(e);
+                }
+            }
+        }
+
+        @Override
+        public Object join() {
+            // a member that has not started is resolved by the joining thread, so that a busy executor cannot
+            // deadlock the load
+            run();
+            try {
+                return super.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A member of a {@linkplain ConfigMapping#lazy() lazy} mapping, resolved on first access.
+     */
+    private static final class Lazy {
+        private final Supplier<Object> resolver;
+        private volatile Object value;
+
+        Lazy(Supplier<Object> resolver) {
+            this.resolver = resolver;
+        }
+
+        Object get() {
+            Object resolved = value;
+            if (resolved == null) {
+                // a concurrent resolution yields an equal value
+                resolved = resolver.get();
+                value = resolved;
+            }
+            return resolved;
+        }
+
+        /**
+         * Returns the value, or {@code null} if it is absent.
+         */
+        Object state() {
+            try {
+                return get();
+            } catch (NoSuchElementException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Lazy && Objects.equals(state(), ((Lazy) obj).state());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(state());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.config.Config;
+import jakarta.config.tck.common.My;
+import jakarta.config.tck.common.TopLevelConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Config#load(Class)} of flat, nested and deeply nested mappings, and of mappings with
+ * <code>List</code> and <code>Map</code> members, and {@link Config#loadAll(java.util.Collection)} of all of them.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class LoadBenchmark {
+    private static final List<Class<?>> MAPPINGS = List.of(Flat.class,
+                                                           My.class,
+                                                           TopLevelConfig.class,
+                                                           Deep.class,
+                                                           Server.class);
+
+    /**
+     * Loads a mapping with sixteen value members.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public Flat flat(ConfigProvider provider) {
+        return provider.config.load(Flat.class);
+    }
+
+    /**
+     * Loads the TCK {@link My} mapping, with one nested mapping.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public My nested(ConfigProvider provider) {
+        return provider.config.load(My.class);
+    }
+
+    /**
+     * Loads the TCK {@link TopLevelConfig} mapping, with two levels of nested mappings.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public TopLevelConfig topLevel(ConfigProvider provider) {
+        return provider.config.load(TopLevelConfig.class);
+    }
+
+    /**
+     * Loads a mapping whose value is nested six levels deep.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public Deep deep(ConfigProvider provider) {
+        return provider.config.load(Deep.class);
+    }
+
+    /**
+     * Loads a mapping with a <code>List</code> of 32 nested mappings and a <code>Map</code> of 64 entries.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mapping
+     */
+    @Benchmark
+    public Server collections(ConfigProvider provider) {
+        return provider.config.load(Server.class);
+    }
+
+    /**
+     * Loads the {@link LazyServer} mapping, and reads a single value member.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the value
+     */
+    @Benchmark
+    public String lazyCollections(ConfigProvider provider) {
+        return provider.config.load(LazyServer.class).host();
+    }
+
+    /**
+     * Loads every benchmark mapping with {@link Config#loadAll(java.util.Collection)}.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mappings
+     */
+    @Benchmark
+    public Map<Class<?>, Object> batch(ConfigProvider provider) {
+        return provider.config.loadAll(MAPPINGS);
+    }
+
+    /**
+     * Loads every benchmark mapping with {@link Config#loadAll(java.util.Collection, java.util.concurrent.Executor)}
+     * on the common {@link ForkJoinPool}.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the mappings
+     */
+    @Benchmark
+    public Map<Class<?>, Object> parallelBatch(ConfigProvider provider) {
+        return provider.config.loadAll(MAPPINGS, ForkJoinPool.commonPool());
+    }
+}
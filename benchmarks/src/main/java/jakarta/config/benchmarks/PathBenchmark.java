@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures navigation with {@link Config#path(String...)} and {@link Config#path(ConfigPath)} to a value six levels
+ * deep, and loading that value.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PathBenchmark {
+    private static final String[] DEEP = {
+        "deep", "level1", "level2", "level3", "level4", "level5", "level6", "value"
+    };
+    private static final ConfigPath DEEP_PATH = ConfigPath.of(DEEP);
+
+    /**
+     * Navigates with a single {@link Config#path(String...)} invocation.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the navigated {@link Config}
+     */
+    @Benchmark
+    public Config varargs(ConfigProvider provider) {
+        return provider.config.path(DEEP);
+    }
+
+    /**
+     * Navigates with a single {@link Config#path(ConfigPath)} invocation.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the navigated {@link Config}
+     */
+    @Benchmark
+    public Config interned(ConfigProvider provider) {
+        return provider.config.path(DEEP_PATH);
+    }
+
+    /**
+     * Navigates with one chained {@link Config#path(String)} invocation per <em>configuration path</em> element.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the navigated {@link Config}
+     */
+    @Benchmark
+    public Config chained(ConfigProvider provider) {
+        Config config = provider.config;
+        for (String path : DEEP) {
+            config = config.path(path);
+        }
+        return config;
+    }
+
+    /**
+     * Navigates with chained {@link Config#path(String)} invocations, then loads the value.
+     *
+     * @param provider the {@link Config} under benchmark
+     * @return the value
+     */
+    @Benchmark
+    public String chainedLoad(ConfigProvider provider) {
+        return chained(provider).load(String.class);
+    }
+}
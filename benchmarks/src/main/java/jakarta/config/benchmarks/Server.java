@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import jakarta.config.ConfigMapping;
+
+/**
+ * The {@link ConfigMapping} example, with <code>List</code>, <code>Map</code> and <code>Optional</code> members.
+ */
+@ConfigMapping("server")
+public interface Server {
+    String host();
+    int port();
+    int ioThreads();
+    List<Endpoint> endpoints();
+    Optional<Ssl> ssl();
+    Map<String, String> form();
+
+    interface Ssl {
+        int port();
+        String certificate();
+        List<String> protocols();
+    }
+
+    interface Endpoint {
+        String path();
+        List<String> methods();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.cdi;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigMapping;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.AfterBeanDiscovery;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.enterprise.inject.spi.ProcessAnnotatedType;
+import jakarta.enterprise.inject.spi.ProcessInjectionPoint;
+import jakarta.enterprise.inject.spi.WithAnnotations;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+
+/**
+ * The portable extension that makes every {@link ConfigMapping} type injectable with {@code @Inject}.
+ *
+ * <p>During bean discovery, this extension collects the {@link ConfigMapping} interfaces of the bean archives, and the
+ * {@link ConfigMapping} interfaces of the injection points of the discovered beans, including those of
+ * {@link Instance} and {@link Provider} injection points, which may be declared by an archive that is not a bean
+ * archive. Once bean discovery completes, it loads an object of every collected type at once, as if by
+ * {@link Config#loadAll(java.util.Collection, java.util.concurrent.Executor)} with the
+ * {@linkplain Config#bootstrap() bootstrapped} {@link Config} of the deployment, and registers each object as a
+ * {@linkplain Singleton singleton} bean with the {@code @Default} qualifier:</p>
+ *
+ * <blockquote><pre> &#064;{@linkplain jakarta.enterprise.context.RequestScoped RequestScoped}
+ *public class Greeter {
+ *    &#064;{@linkplain jakarta.inject.Inject Inject}
+ *    MyConfigMapping myConfigMapping;
+ *}</pre></blockquote>
+ *
+ * <p>Every injection of a {@link ConfigMapping} type, however often its bean is instantiated, is the assignment of
+ * the object loaded at deployment. A singleton has no client proxy, so the invocations of its members are not
+ * indirected either. An object is not loaded again when the configuration changes. A {@link ConfigMapping} type that
+ * cannot be loaded is a definition error, which fails the deployment with the exception of every such type.</p>
+ *
+ * <p>The objects are loaded concurrently in the {@linkplain ForkJoinPool#commonPool() common pool}. Every load runs
+ * with the {@linkplain Thread#getContextClassLoader() context class loader} of the deployment, which the container
+ * sets on the thread that completes bean discovery, rather than that of the pooled thread.</p>
+ *
+ * <p>This extension is registered with {@link java.util.ServiceLoader}, and requires no configuration.</p>
+ */
+public class ConfigExtension implements Extension {
+    private final Set<Class<?>> types = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates the extension. Invoked by the container.
+     */
+    public ConfigExtension() {
+    }
+
+    void mapping(@Observes @WithAnnotations(ConfigMapping.class) ProcessAnnotatedType<?> event) {
+        collect(event.getAnnotatedType().getJavaClass());
+    }
+
+    void injectionPoint(@Observes ProcessInjectionPoint<?, ?> event) {
+        Type type = event.getInjectionPoint().getType();
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            // Instance is a Provider
+            if (parameterized.getRawType() == Instance.class || parameterized.getRawType() == Provider.class) {
+                type = parameterized.getActualTypeArguments()[0];
+            }
+        }
+        if (type instanceof Class) {
+            collect((Class<?>) type);
+        }
+    }
+
+    void register(@Observes AfterBeanDiscovery event) {
+        if (types.isEmpty()) {
+            return;
+        }
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        Map<Class<?>, Object> mappings;
+        try {
+            mappings = Config.bootstrap(loader).loadAll(types, task -> ForkJoinPool.commonPool().execute(() -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader previous = thread.getContextClassLoader();
+                thread.setContextClassLoader(loader);
+                try {
+                    task.run();
+                } finally {
+                    thread.setContextClassLoader(previous);
+                }
+            }));
+        } catch (RuntimeException e) {
+            event.addDefinitionError(e);
+            return;
+        }
+        for (Map.Entry<Class<?>, Object> mapping : mappings.entrySet()) {
+            Object instance = mapping.getValue();
+            event.addBean()
+                    .beanClass(mapping.getKey())
+                    .types(mapping.getKey(), Object.class)
+                    .scope(Singleton.class)
+                    .createWith(context -> instance);
+        }
+    }
+
+    private void collect(Class<?> type) {
+        if (type.isInterface() && type.isAnnotationPresent(ConfigMapping.class)) {
+            types.add(type);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.cdi;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigMapping;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.se.SeContainer;
+import jakarta.enterprise.inject.se.SeContainerInitializer;
+import jakarta.enterprise.inject.spi.DefinitionException;
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigExtensionTest {
+    @AfterEach
+    void release() {
+        Config.release(Thread.currentThread().getContextClassLoader());
+        TestConfig.LOADERS.clear();
+    }
+
+    @Test
+    void injectsMappings() {
+        try (SeContainer container = container(Greeter.class)) {
+            Greeter greeter = container.select(Greeter.class).get();
+
+            assertEquals("localhost", greeter.server.host());
+            assertEquals(8080, greeter.server.port());
+            assertSame(greeter.server, container.select(Greeter.class).get().server);
+            assertSame(greeter.server, container.select(Server.class).get());
+        }
+    }
+
+    @Test
+    void injectsMappingsOfInstancesAndProviders() {
+        try (SeContainer container = container(Lookup.class)) {
+            Lookup lookup = container.select(Lookup.class).get();
+
+            assertEquals("greeter", lookup.client.get().name());
+            assertEquals("localhost", lookup.server.get().host());
+            assertSame(lookup.server.get(), lookup.server.get());
+        }
+    }
+
+    @Test
+    void loadsWithContextClassLoader() throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader deployment = new URLClassLoader(new URL[0], previous)) {
+            thread.setContextClassLoader(deployment);
+            try (SeContainer container = container(Lookup.class)) {
+                assertEquals("greeter", container.select(Lookup.class).get().client.get().name());
+            } finally {
+                Config.release(deployment);
+                thread.setContextClassLoader(previous);
+            }
+            assertEquals(Set.of(deployment), TestConfig.LOADERS);
+        }
+    }
+
+    @Test
+    void failsOnUnloadableMapping() {
+        DefinitionException e = assertThrows(DefinitionException.class, () -> container(Broken.class).close());
+
+        assertTrue(e.getMessage().contains(Missing.class.getName()), e.getMessage());
+    }
+
+    private static SeContainer container(Class<?>... beanClasses) {
+        return SeContainerInitializer.newInstance()
+                .disableDiscovery()
+                .addExtensions(new ConfigExtension())
+                .addBeanClasses(beanClasses)
+                .initialize();
+    }
+
+    @ConfigMapping("server")
+    public interface Server {
+        String host();
+
+        int port();
+    }
+
+    @ConfigMapping("client")
+    public interface Client {
+        String name();
+    }
+
+    @ConfigMapping("missing")
+    public interface Missing {
+        String name();
+    }
+
+    public static class Greeter {
+        @Inject
+        Server server;
+    }
+
+    public static class Lookup {
+        @Inject
+        Instance<Client> client;
+
+        @Inject
+        Provider<Server> server;
+    }
+
+    public static class Broken {
+        @Inject
+        Missing missing;
+    }
+}
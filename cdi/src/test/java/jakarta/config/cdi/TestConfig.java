@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.cdi;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigMapping;
+
+/**
+ * A {@link Config} of fixed <code>properties</code> keys, which loads {@link ConfigMapping} interfaces of
+ * {@code String} and {@code int} members as proxies, and records the context class loader of every load.
+ */
+public final class TestConfig implements Config {
+    static final Set<ClassLoader> LOADERS = ConcurrentHashMap.newKeySet();
+
+    private static final Map<String, String> PROPERTIES = Map.of("server.host", "localhost",
+                                                                 "server.port", "8080",
+                                                                 "client.name", "greeter");
+
+    private final String prefix;
+
+    /**
+     * Creates the bootstrapped {@link Config}. Invoked by the {@link java.util.ServiceLoader}.
+     */
+    public TestConfig() {
+        this("");
+    }
+
+    private TestConfig(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public <T> T load(Class<T> type) {
+        LOADERS.add(Thread.currentThread().getContextClassLoader());
+        ConfigMapping mapping = type.getAnnotation(ConfigMapping.class);
+        if (mapping == null) {
+            throw new IllegalArgumentException(type.getName());
+        }
+        String path = prefix + String.join(".", mapping.value());
+        Map<String, Object> members = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            String value = PROPERTIES.get(path + "." + method.getName());
+            if (value == null) {
+                throw new NoSuchElementException(path + "." + method.getName());
+            }
+            members.put(method.getName(), method.getReturnType() == int.class ? Integer.valueOf(value) : value);
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.getName().equals("equals") ? proxy == args[0] : method.invoke(members, args);
+            }
+            return members.get(method.getName());
+        }));
+    }
+
+    @Override
+    public Config path(String... paths) {
+        StringBuilder path = new StringBuilder(prefix);
+        for (String key : paths) {
+            path.append(key).append('.');
+        }
+        return new TestConfig(path.toString());
+    }
+
+    @Override
+    public Set<String> childKeys() {
+        Set<String> keys = new HashSet<>();
+        for (String key : PROPERTIES.keySet()) {
+            if (key.startsWith(prefix)) {
+                keys.add(key.substring(prefix.length()).split("\\.", 2)[0]);
+            }
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.config.ConfigException;
+import jakarta.config.impl.ConfigImage;
+import jakarta.config.impl.ConfigNode;
+import jakarta.config.impl.ConfigSource;
+import jakarta.config.impl.ConfigSources;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Writes a {@linkplain ConfigImage configuration image} of the <code>properties</code> and YAML files of a project,
+ * of which a later file overrides an earlier one:
+ *
+ * <blockquote><pre> &lt;plugin&gt;
+ *    &lt;groupId&gt;jakarta.config&lt;/groupId&gt;
+ *    &lt;artifactId&gt;jakarta.config-image-maven-plugin&lt;/artifactId&gt;
+ *    &lt;executions&gt;
+ *        &lt;execution&gt;
+ *            &lt;goals&gt;
+ *                &lt;goal&gt;image&lt;/goal&gt;
+ *            &lt;/goals&gt;
+ *            &lt;configuration&gt;
+ *                &lt;sources&gt;
+ *                    &lt;source&gt;src/main/config/application.properties&lt;/source&gt;
+ *                    &lt;source&gt;src/main/config/application.yaml&lt;/source&gt;
+ *                &lt;/sources&gt;
+ *            &lt;/configuration&gt;
+ *        &lt;/execution&gt;
+ *    &lt;/executions&gt;
+ *&lt;/plugin&gt;</pre></blockquote>
+ *
+ * <p>A file whose name ends with <code>.yaml</code> or <code>.yml</code> is parsed as YAML, any other file as
+ * <code>properties</code>.</p>
+ *
+ * <p>The configuration image is memory-mapped at runtime, so it is written to the file system, by default to
+ * <code>target/config.image</code>, rather than packaged as a classpath resource. It is deployed with the
+ * application, and opened by {@link ConfigSources#load(ClassLoader)} with the
+ * <code>jakarta.config.image</code> system property set to its path:</p>
+ *
+ * <blockquote><pre> java -Djakarta.config.image=/opt/application/config.image -jar application.jar</pre></blockquote>
+ *
+ * <p>or opened with {@link ConfigImage#open(Path, int)} and combined with other sources by
+ * {@link ConfigSources#of(java.util.Collection)}.</p>
+ */
+@Mojo(name = "image", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, threadSafe = true)
+public class ImageMojo extends AbstractMojo {
+    /**
+     * The <code>properties</code> and YAML files, of which a later file overrides an earlier one.
+     */
+    @Parameter(required = true)
+    List<File> sources;
+
+    /**
+     * The configuration image, which is replaced if it exists; not a classpath resource, since a configuration image
+     * is memory-mapped from the file system.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/config.image", required = true)
+    File image;
+
+    /**
+     * Creates the goal. Invoked by Maven.
+     */
+    public ImageMojo() {
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        ConfigNode.Builder builder = ConfigNode.builder();
+        try {
+            for (File source : sources) {
+                builder.merge(ConfigSources.file(source.toPath(), ConfigSource.DEFAULT_ORDINAL).tree());
+            }
+            Path file = image.toPath();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            ConfigImage.write(builder.build(), file);
+        } catch (ConfigException | IOException e) {
+            throw new MojoExecutionException("Unable to write the configuration image " + image, e);
+        }
+        getLog().info("Wrote the configuration image " + image + " of " + sources.size() + " source(s)");
+    }
+}
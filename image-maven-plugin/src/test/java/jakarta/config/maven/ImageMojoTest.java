@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigImage;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImageMojoTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesImage() throws IOException, MojoExecutionException {
+        File properties = Files.writeString(directory.resolve("application.properties"),
+                                            "server.host=localhost\nserver.port=8080\n").toFile();
+        File yaml = Files.writeString(directory.resolve("application.yaml"), "server:\n  port: 9090\n").toFile();
+        ImageMojo mojo = new ImageMojo();
+        mojo.sources = List.of(properties, yaml);
+        mojo.image = directory.resolve("target/config.image").toFile();
+
+        mojo.execute();
+
+        ConfigImage image = ConfigImage.open(mojo.image.toPath(), 100);
+        assertEquals("localhost", image.value(ConfigPath.of("server", "host")));
+        assertEquals(9090, image.value(ConfigPath.of("server", "port"), int.class));
+    }
+
+    @Test
+    void failsOnMissingSource() {
+        ImageMojo mojo = new ImageMojo();
+        mojo.sources = List.of(directory.resolve("missing.properties").toFile());
+        mojo.image = directory.resolve("config.image").toFile();
+
+        assertThrows(MojoExecutionException.class, mojo::execute);
+        assertFalse(Files.exists(mojo.image.toPath()));
+    }
+}
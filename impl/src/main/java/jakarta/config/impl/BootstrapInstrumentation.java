@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.function.Consumer;
+
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+import jakarta.config.spi.BootstrapListener;
+
+/**
+ * The {@link BootstrapListener} that measures the {@linkplain jakarta.config.Config#bootstrap(ClassLoader)
+ * bootstraps} of {@link jakarta.config.Config} instances with {@link ConfigInstrumentation}. It is provided as a
+ * service by this module, and is not used by applications directly.
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class BootstrapInstrumentation implements BootstrapListener {
+    /**
+     * Creates a new {@link BootstrapInstrumentation}, as located by the {@link java.util.ServiceLoader}.
+     */
+    public BootstrapInstrumentation() {
+    }
+
+    @Override
+    public Consumer<Throwable> bootstrap(ClassLoader classLoader) {
+        Probe probe = ConfigInstrumentation.bootstrap(classLoader);
+        return probe == null ? null : probe::end;
+    }
+}
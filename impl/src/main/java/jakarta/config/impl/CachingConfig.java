@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigMapping;
+import jakarta.config.ConfigPath;
+
+/**
+ * A {@link Config} that memoizes the objects {@linkplain #load(Class) loaded} by another {@link Config}, per
+ * <em>configuration path</em> and type.
+ *
+ * <p>A {@link CachingConfig} is opt-in:</p>
+ *
+ * <blockquote><pre> {@linkplain CachingConfig} config = {@linkplain CachingConfig}.{@linkplain #of(Config, int) of}({@linkplain Config}.{@linkplain Config#bootstrap() bootstrap()}, 1024);
+ *Other other = config.{@linkplain #path(String) path("my")}.{@linkplain #load(Class) load(Other.class)}; // loaded
+ *other = config.{@linkplain #path(String) path("my")}.{@linkplain #load(Class) load(Other.class)}; // memoized</pre></blockquote>
+ *
+ * <p>Every {@link CachingConfig} {@linkplain #path(String...) derived} from a {@link CachingConfig} shares its cache.
+ * A memoized object is returned without consulting the wrapped {@link Config}, so the objects must be immutable, as
+ * {@link ConfigMapping} objects are. Failures, such as a {@link java.util.NoSuchElementException}, are not
+ * memoized.</p>
+ *
+ * <p>The cache holds at most the maximum number of objects it was created with. When it is full, objects that were
+ * not requested since the previous eviction are evicted first. Memoized objects are discarded with
+ * {@link #invalidate()}, or with {@link #invalidate(Collection)} for the objects of the changed subtrees only, which
+ * must be invoked when the configuration of the wrapped {@link Config} changes.</p>
+ *
+ * <p>Lookups of memoized objects do not block. This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class CachingConfig implements Config {
+    private final Cache cache;
+    private final ConfigPath path;
+
+    private CachingConfig(Cache cache, ConfigPath path) {
+        this.cache = cache;
+        this.path = path;
+    }
+
+    /**
+     * Creates a new {@link CachingConfig}.
+     *
+     * @param config the {@link Config} to memoize the objects of; must not be {@code null}
+     * @param maximumSize the maximum number of memoized objects; must be positive
+     * @return a new {@link CachingConfig}; never {@code null}
+     * @exception NullPointerException if the supplied {@code config} was {@code null}
+     * @exception IllegalArgumentException if the supplied {@code maximumSize} was not positive
+     */
+    public static CachingConfig of(Config config, int maximumSize) {
+        Objects.requireNonNull(config, "config");
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        return new CachingConfig(new Cache(config, maximumSize), ConfigPath.root());
+    }
+
+    /**
+     * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>, or
+     * returns the object memoized for the <em>configuration path</em> and {@code type}.
+     *
+     * @param <T> the type of object to load
+     * @param type the type of object to load; must not be {@code null}
+     * @return the loaded object; never {@code null}
+     * @exception java.util.NoSuchElementException if the requested object is not found.
+     * @exception IllegalArgumentException if the supplied {@code type} was invalid for any reason
+     * @exception NullPointerException if the supplied {@code type} was {@code null}
+     */
+    @Override
+    public <T> T load(Class<T> type) {
+        Objects.requireNonNull(type, "type");
+        return type.cast(cache.load(path, type));
+    }
+
+    /**
+     * Return a new instance of a {@link CachingConfig} with the <em>configuration path</em> set, which shares the
+     * cache of this {@link CachingConfig}.
+     *
+     * @param paths a <code>String</code> array of configuration paths
+     * @return a new instance of the {@link CachingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public CachingConfig path(String... paths) {
+        return new CachingConfig(cache, path.append(paths));
+    }
+
+    /**
+     * Return a new instance of a {@link CachingConfig} with the <em>configuration path</em> set, which shares the
+     * cache of this {@link CachingConfig}.
+     *
+     * @param path a <code>String</code> of a configuration path
+     * @return a new instance of the {@link CachingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public CachingConfig path(String path) {
+        return new CachingConfig(cache, this.path.child(path));
+    }
+
+    /**
+     * Return a new instance of a {@link CachingConfig} with the <em>configuration path</em> set, which shares the
+     * cache of this {@link CachingConfig}.
+     *
+     * @param path a {@link ConfigPath}; must not be {@code null}
+     * @return a new instance of the {@link CachingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public CachingConfig path(ConfigPath path) {
+        return new CachingConfig(cache, this.path.append(path));
+    }
+
+    /**
+     * Returns the <em>configuration keys</em> of the child configuration entries of the current
+     * <em>configuration path</em>, of the wrapped {@link Config}. The keys are not memoized.
+     *
+     * @return an unmodifiable set of the child configuration keys; never {@code null}
+     */
+    @Override
+    public Set<String> childKeys() {
+        return (path.isRoot() ? cache.config : cache.config.path(path)).childKeys();
+    }
+
+    /**
+     * Returns a {@link Config} of an immutable, point-in-time view of the configuration of the wrapped
+     * {@link Config}, with the <em>configuration path</em> of this {@link CachingConfig}.
+     *
+     * <p>If the configuration of the wrapped {@link Config} never changes, this {@link CachingConfig} is returned.
+     * Otherwise the memoized objects may have been loaded from different configurations, so the returned
+     * {@link Config} is a snapshot of the wrapped {@link Config}, which does not memoize objects.</p>
+     *
+     * @return a {@link Config} of the current configuration; never {@code null}
+     */
+    @Override
+    public Config snapshot() {
+        Config snapshot = cache.config.snapshot();
+        if (snapshot == cache.config) {
+            return this;
+        }
+        return path.isRoot() ? snapshot : snapshot.path(path);
+    }
+
+    /**
+     * Discards every memoized object of the cache shared by this {@link CachingConfig}.
+     *
+     * <p>An object that is being loaded concurrently with this method is not memoized.</p>
+     */
+    public void invalidate() {
+        cache.invalidate();
+    }
+
+    /**
+     * Discards the memoized objects of the cache shared by this {@link CachingConfig} whose subtree contains any of the
+     * supplied changed <em>configuration paths</em>: the objects loaded at one of the supplied paths or at one of their
+     * ancestors. Every other memoized object is kept.
+     *
+     * <p>The supplied paths are relative to the root of the wrapped {@link Config}, as are the paths reported to a
+     * {@link ConfigListener} of a {@link ReloadingConfig}:</p>
+     *
+     * <blockquote><pre> reloadingConfig.{@linkplain ReloadingConfig#addListener(ConfigListener) addListener}(cachingConfig::{@linkplain #invalidate(Collection) invalidate});</pre></blockquote>
+     *
+     * <p>An object whose <em>raw values</em> refer to <em>raw values</em> outside of its subtree must be discarded
+     * with {@link #invalidate()} instead. An object that is being loaded concurrently with this method is not
+     * memoized.</p>
+     *
+     * @param paths the changed <em>configuration paths</em>; must not be {@code null} or contain {@code null}
+     * @exception NullPointerException if the supplied {@code paths}, or any of its elements, was {@code null}
+     */
+    public void invalidate(Collection<ConfigPath> paths) {
+        cache.invalidate(paths);
+    }
+
+    /**
+     * The cache shared by every {@link CachingConfig} derived from the same {@link CachingConfig#of(Config, int)}.
+     */
+    private static final class Cache {
+        private final Config config;
+        private final int maximumSize;
+        private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+        private final ReentrantLock evictionLock = new ReentrantLock();
+        private final AtomicLong generation = new AtomicLong();
+
+        Cache(Config config, int maximumSize) {
+            this.config = config;
+            this.maximumSize = maximumSize;
+        }
+
+        Object load(ConfigPath path, Class<?> type) {
+            Key key = new Key(path, type);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.referenced) {
+                    // avoid a write, and the cache line invalidation, on every hit
+                    entry.referenced = true;
+                }
+                ConfigInstrumentation.cacheHit(type);
+                return entry.value;
+            }
+            ConfigInstrumentation.cacheMiss(type);
+
+            long loadGeneration = generation.get();
+            Object value = (path.isRoot() ? config : config.path(path)).load(type);
+            if (loadGeneration == generation.get()) {
+                entry = new Entry(value);
+                Entry existing = entries.putIfAbsent(key, entry);
+                if (existing != null) {
+                    return existing.value;
+                }
+                if (generation.get() != loadGeneration) {
+                    // invalidated concurrently; the object may be stale, but an entry put since is not
+                    entries.remove(key, entry);
+                } else if (entries.size() > maximumSize) {
+                    evict();
+                }
+            }
+            return value;
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+
+        void invalidate(Collection<ConfigPath> paths) {
+            Set<ConfigPath> affected = new HashSet<>();
+            for (ConfigPath path : paths) {
+                ConfigPath ancestor = path;
+                // the ancestors of a path that is already affected are already affected
+                while (affected.add(ancestor) && !ancestor.isRoot()) {
+                    ancestor = ancestor.parent();
+                }
+            }
+            if (affected.isEmpty()) {
+                return;
+            }
+            generation.incrementAndGet();
+            entries.keySet().removeIf(key -> affected.contains(key.path));
+        }
+
+        /**
+         * Evicts objects with a second-chance sweep: an object requested since the previous sweep is kept, and
+         * becomes a candidate of the next sweep.
+         */
+        private void evict() {
+            if (!evictionLock.tryLock()) {
+                // another thread is already evicting
+                return;
+            }
+            try {
+                Iterator<Entry> iterator = entries.values().iterator();
+                while (entries.size() > maximumSize) {
+                    if (!iterator.hasNext()) {
+                        iterator = entries.values().iterator();
+                        if (!iterator.hasNext()) {
+                            break;
+                        }
+                    }
+                    Entry entry = iterator.next();
+                    if (entry.referenced) {
+                        entry.referenced = false;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final ConfigPath path;
+        private final Class<?> type;
+        private final int hash;
+
+        Key(ConfigPath path, Class<?> type) {
+            this.path = path;
+            this.type = type;
+            this.hash = 31 * path.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return path == other.path && type == other.type;
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private volatile boolean referenced;
+
+        Entry(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * {@link ConfigMetrics} that count loads, cache hits and misses, and reloads, and record a histogram of the load
+ * latencies.
+ *
+ * <blockquote><pre> {@linkplain ConfigCounters} counters = new {@linkplain ConfigCounters}();
+ *{@linkplain ConfigInstrumentation}.{@linkplain ConfigInstrumentation#register(ConfigMetrics) register}(counters);
+ *...
+ *double hitRatio = (double) counters.{@linkplain #cacheHits() cacheHits()} / (counters.{@linkplain #cacheHits() cacheHits()} + counters.{@linkplain #cacheMisses() cacheMisses()});</pre></blockquote>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigCounters implements ConfigMetrics {
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final AtomicLongArray loadLatencies = new AtomicLongArray(Long.SIZE);
+
+    /**
+     * Creates new {@link ConfigCounters}, of which every count is zero.
+     */
+    public ConfigCounters() {
+    }
+
+    @Override
+    public void loaded(Class<?> type, ConfigPath path, long nanos, boolean failed) {
+        loads.increment();
+        if (failed) {
+            loadFailures.increment();
+        }
+        loadLatencies.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+    }
+
+    @Override
+    public void cacheHit(Class<?> type) {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void cacheMiss(Class<?> type) {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void reloaded(int changes, long nanos, boolean failed) {
+        reloads.increment();
+    }
+
+    /**
+     * Returns the number of loads, including the failed loads.
+     *
+     * @return the number of loads
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * Returns the number of failed loads.
+     *
+     * @return the number of failed loads
+     */
+    public long loadFailures() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * Returns the number of loads served from a cache.
+     *
+     * @return the number of cache hits
+     */
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns the number of loads not served from a cache.
+     *
+     * @return the number of cache misses
+     */
+    public long cacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Returns the number of reloads, including the failed reloads.
+     *
+     * @return the number of reloads
+     */
+    public long reloads() {
+        return reloads.sum();
+    }
+
+    /**
+     * Returns the histogram of the load latencies: the element at index {@code i} is the number of loads that took
+     * at least 2<sup>i</sup> nanoseconds and less than 2<sup>i+1</sup> nanoseconds.
+     *
+     * @return a new array of 64 counts; never {@code null}
+     */
+    public long[] loadLatencies() {
+        long[] histogram = new long[loadLatencies.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = loadLatencies.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigCounters[loads=" + loads() + ", loadFailures=" + loadFailures() + ", cacheHits=" + cacheHits()
+                + ", cacheMisses=" + cacheMisses() + ", reloads=" + reloads() + "]";
+    }
+}
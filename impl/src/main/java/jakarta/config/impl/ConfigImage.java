@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+
+/**
+ * An immutable {@link ConfigSource} of a precompiled configuration image: a binary file of the <em>raw values</em> of
+ * a configuration tree, which is memory-mapped, and read without being parsed.
+ *
+ * <p>A configuration image is written at build time, for instance from the <code>properties</code> and YAML files of
+ * an application, with {@link #write(ConfigNode, Path)} or with the <code>image</code> goal of the
+ * <code>jakarta.config-image-maven-plugin</code>. Since a configuration image is memory-mapped, it must be a file of
+ * the file system rather than a classpath resource. It is either opened by {@link ConfigSources#load(ClassLoader)},
+ * if the {@value ConfigSources#IMAGE_PROPERTY} system property is set to its path, or combined with other sources
+ * explicitly:</p>
+ *
+ * <blockquote><pre> {@linkplain ConfigSources} sources = {@linkplain ConfigSources}.{@linkplain ConfigSources#of(java.util.Collection) of}(List.of({@linkplain ConfigSources}.{@linkplain ConfigSources#systemProperties() systemProperties()},
+ *        {@linkplain ConfigImage}.{@linkplain #open(Path, int) open}(Path.of("target/config.image"), {@linkplain ConfigSource#DEFAULT_ORDINAL ConfigSource.DEFAULT_ORDINAL})));</pre></blockquote>
+ *
+ * <p>A configuration image contains a sorted table of every configuration key and <em>raw value</em>, each stored
+ * once, and a sorted index of the <em>configuration paths</em> of the <em>raw values</em>, by string table index. A
+ * lookup is a binary search of the string table for every configuration key, and a binary search of the index. The
+ * cost of opening a configuration image does not depend on its size, and a <em>raw value</em> is decoded the first
+ * time it is looked up.</p>
+ *
+ * <p>The index also holds the pre-converted value of every <em>raw value</em> that is a <code>boolean</code>, a
+ * <code>long</code> or a <code>double</code>, which {@link #value(ConfigPath, Class)} returns without decoding or
+ * converting the <em>raw value</em>.</p>
+ *
+ * <p>A corrupt configuration image is detected when it is opened, or when the corrupt part is read, and is thrown as a
+ * {@link ConfigException}.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigImage implements ConfigSource {
+    private static final int MAGIC = 0x4A434647;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    // the path offset, the string table index of the raw value, the kind and the pre-converted value
+    private static final int ENTRY_SIZE = 20;
+    private static final int NONE = 0;
+    private static final int BOOLEAN = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+
+    private final String name;
+    private final int ordinal;
+    private final ByteBuffer image;
+    private final int stringCount;
+    private final int entryCount;
+    private final int pathsLength;
+    private final int stringsLength;
+    private final int stringOffsets;
+    private final int entries;
+    private final int paths;
+    private final int strings;
+    private final Map<Integer, String> decoded = new ConcurrentHashMap<>();
+    private volatile ConfigNode tree;
+
+    private ConfigImage(String name, int ordinal, ByteBuffer image) {
+        this.name = name;
+        this.ordinal = ordinal;
+        this.image = image;
+        if (image.limit() < HEADER_SIZE || image.getInt(0) != MAGIC || image.getInt(4) != VERSION) {
+            throw new ConfigException("Not a configuration image: " + name);
+        }
+        this.stringCount = image.getInt(8);
+        this.entryCount = image.getInt(12);
+        this.pathsLength = image.getInt(16);
+        if (stringCount < 0 || entryCount < 0 || pathsLength < 0) {
+            throw corrupt();
+        }
+        long entries = HEADER_SIZE + 4L * (stringCount + 1);
+        long paths = entries + (long) ENTRY_SIZE * entryCount;
+        long strings = paths + 4L * pathsLength;
+        if (strings > image.limit()) {
+            throw corrupt();
+        }
+        this.stringOffsets = HEADER_SIZE;
+        this.entries = (int) entries;
+        this.paths = (int) paths;
+        this.strings = (int) strings;
+        this.stringsLength = image.getInt(stringOffsets + 4 * stringCount);
+        if (image.getInt(stringOffsets) != 0 || stringsLength < 0 || strings + stringsLength > image.limit()) {
+            throw corrupt();
+        }
+    }
+
+    /**
+     * Opens the supplied configuration image, which is memory-mapped.
+     *
+     * @param file the configuration image; must not be {@code null}
+     * @param ordinal the ordinal of the source
+     * @return the source of the configuration image; never {@code null}
+     * @exception NullPointerException if the supplied {@code file} was {@code null}
+     * @exception ConfigException if the file could not be read, or is not a configuration image
+     */
+    public static ConfigImage open(Path file, int ordinal) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ConfigException("Not a configuration image: " + file);
+            }
+            // the mapping remains valid after the channel is closed
+            return new ConfigImage(file.toString(), ordinal, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new ConfigException(e);
+        }
+    }
+
+    /**
+     * Writes every <em>raw value</em> of the supplied configuration tree to a configuration image.
+     *
+     * @param tree the root of the configuration tree; must not be {@code null}
+     * @param file the configuration image, which is replaced if it exists; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code tree} or {@code file} was {@code null}
+     * @exception IOException if the file could not be written
+     */
+    public static void write(ConfigNode tree, Path file) throws IOException {
+        Objects.requireNonNull(file, "file");
+        List<String[]> keys = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        collect(tree, List.of(), keys, values);
+
+        // the string table, sorted by UTF-8 bytes
+        Map<String, byte[]> encoded = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            for (String key : keys.get(i)) {
+                encoded.computeIfAbsent(key, k -> k.getBytes(StandardCharsets.UTF_8));
+            }
+            encoded.computeIfAbsent(values.get(i), v -> v.getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> table = new ArrayList<>(encoded.keySet());
+        table.sort((a, b) -> Arrays.compareUnsigned(encoded.get(a), encoded.get(b)));
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < table.size(); i++) {
+            ids.put(table.get(i), i);
+        }
+
+        // the index, sorted by the string table indexes of the configuration keys
+        int[][] index = new int[keys.size()][];
+        int pathsLength = 0;
+        for (int i = 0; i < index.length; i++) {
+            String[] path = keys.get(i);
+            int[] entry = new int[path.length + 1];
+            for (int j = 0; j < path.length; j++) {
+                entry[j] = ids.get(path[j]);
+            }
+            entry[path.length] = ids.get(values.get(i));
+            index[i] = entry;
+            pathsLength += path.length + 1;
+        }
+        Arrays.sort(index, (a, b) -> Arrays.compare(a, 0, a.length - 1, b, 0, b.length - 1));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.size());
+            out.writeInt(index.length);
+            out.writeInt(pathsLength);
+            int offset = 0;
+            out.writeInt(offset);
+            for (String string : table) {
+                offset += encoded.get(string).length;
+                out.writeInt(offset);
+            }
+            int pathOffset = 0;
+            for (int[] entry : index) {
+                String value = table.get(entry[entry.length - 1]);
+                out.writeInt(pathOffset);
+                out.writeInt(entry[entry.length - 1]);
+                if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                    out.writeInt(BOOLEAN);
+                    out.writeLong("true".equalsIgnoreCase(value) ? 1 : 0);
+                } else if (isLong(value)) {
+                    out.writeInt(LONG);
+                    out.writeLong(Long.parseLong(value));
+                } else if (isDouble(value)) {
+                    out.writeInt(DOUBLE);
+                    out.writeLong(Double.doubleToRawLongBits(Double.parseDouble(value)));
+                } else {
+                    out.writeInt(NONE);
+                    out.writeLong(0);
+                }
+                pathOffset += entry.length;
+            }
+            for (int[] entry : index) {
+                out.writeInt(entry.length - 1);
+                for (int i = 0; i < entry.length - 1; i++) {
+                    out.writeInt(entry[i]);
+                }
+            }
+            for (String string : table) {
+                out.write(encoded.get(string));
+            }
+        }
+    }
+
+    private static void collect(ConfigNode node, List<String> path, List<String[]> keys, List<String> values) {
+        if (node.value() != null) {
+            keys.add(path.toArray(new String[0]));
+            values.add(node.value());
+        }
+        for (Map.Entry<String, ConfigNode> child : node.children().entrySet()) {
+            List<String> childPath = new ArrayList<>(path.size() + 1);
+            childPath.addAll(path);
+            childPath.add(child.getKey());
+            collect(child.getValue(), childPath, keys, values);
+        }
+    }
+
+    private static boolean isLong(String value) {
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDouble(String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    public String value(ConfigPath path) {
+        int entry = entry(path);
+        return entry < 0 ? null : string(image.getInt(entries + ENTRY_SIZE * entry + 4));
+    }
+
+    /**
+     * Returns the value of the supplied <em>configuration path</em>, converted to the supplied type.
+     *
+     * <p>A <code>boolean</code>, <code>byte</code>, <code>short</code>, <code>int</code>, <code>long</code> or
+     * <code>double</code> value, or a value of their wrapper types, is the value pre-converted when the configuration
+     * image was written, if the <em>raw value</em> has one. Any other value is the <em>raw value</em> converted with
+     * {@link Converters#convert(Class, String)}, which also throws the conversion failure of a <em>raw value</em>
+     * that cannot be converted.</p>
+     *
+     * @param <T> the type
+     * @param path the <em>configuration path</em>; must not be {@code null}
+     * @param type the type; must not be {@code null}
+     * @return the converted value, or {@code null} if this configuration image has no <em>raw value</em> for the
+     *         supplied {@code path}
+     * @exception IllegalArgumentException if there is no conversion to the supplied {@code type}, or if the
+     *            <em>raw value</em> cannot be converted
+     * @exception NullPointerException if any of the supplied arguments was {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T value(ConfigPath path, Class<T> type) {
+        Objects.requireNonNull(type, "type");
+        int entry = entry(path);
+        if (entry < 0) {
+            return null;
+        }
+        int position = entries + ENTRY_SIZE * entry;
+        Object value = preconverted(image.getInt(position + 8), image.getLong(position + 12), type);
+        return value == null ? Converters.convert(type, string(image.getInt(position + 4))) : (T) value;
+    }
+
+    /**
+     * Returns the configuration tree of this configuration image, which is built the first time this method is
+     * called.
+     */
+    @Override
+    public ConfigNode tree() {
+        ConfigNode tree = this.tree;
+        if (tree == null) {
+            ConfigNode.Builder builder = ConfigNode.builder();
+            for (int i = 0; i < entryCount; i++) {
+                int path = path(i);
+                ConfigPath configPath = ConfigPath.root();
+                for (int j = 0, length = image.getInt(path); j < length; j++) {
+                    configPath = configPath.child(string(image.getInt(path + 4 * (j + 1))));
+                }
+                builder.put(configPath, string(image.getInt(entries + ENTRY_SIZE * i + 4)));
+            }
+            tree = builder.build();
+            this.tree = tree;
+        }
+        return tree;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Returns the pre-converted value of the supplied kind and bits as the supplied type, or {@code null} if there is
+     * none.
+     */
+    private Object preconverted(int kind, long bits, Class<?> type) {
+        switch (kind) {
+        case NONE:
+            return null;
+        case BOOLEAN:
+            return type == boolean.class || type == Boolean.class ? Boolean.valueOf(bits != 0) : null;
+        case LONG:
+            if (type == long.class || type == Long.class) {
+                return bits;
+            } else if ((type == int.class || type == Integer.class) && bits == (int) bits) {
+                return (int) bits;
+            } else if ((type == short.class || type == Short.class) && bits == (short) bits) {
+                return (short) bits;
+            } else if ((type == byte.class || type == Byte.class) && bits == (byte) bits) {
+                return (byte) bits;
+            }
+            // out of range, or another type, converted from the raw value
+            return null;
+        case DOUBLE:
+            return type == double.class || type == Double.class ? Double.longBitsToDouble(bits) : null;
+        default:
+            throw corrupt();
+        }
+    }
+
+    /**
+     * Returns the index of the entry of the supplied <em>configuration path</em>, or {@code -1} if there is none.
+     */
+    private int entry(ConfigPath path) {
+        Objects.requireNonNull(path, "path");
+        int[] ids = new int[path.size()];
+        ConfigPath current = path;
+        for (int i = ids.length - 1; i >= 0; i--) {
+            int id = find(current.key());
+            if (id < 0) {
+                return -1;
+            }
+            ids[i] = id;
+            current = current.parent();
+        }
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(middle, ids);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the path of the supplied entry: its length, followed by the string table index of
+     * every configuration key.
+     */
+    private int path(int entry) {
+        int offset = image.getInt(entries + ENTRY_SIZE * entry);
+        if (offset < 0 || offset >= pathsLength) {
+            throw corrupt();
+        }
+        int length = image.getInt(paths + 4 * offset);
+        if (length < 0 || offset + 1L + length > pathsLength) {
+            throw corrupt();
+        }
+        return paths + 4 * offset;
+    }
+
+    /**
+     * Compares the path of the supplied entry to the supplied string table indexes.
+     */
+    private int compare(int entry, int[] ids) {
+        int path = path(entry);
+        int length = image.getInt(path);
+        for (int i = 0; i < Math.min(length, ids.length); i++) {
+            int comparison = Integer.compare(image.getInt(path + 4 * (i + 1)), ids[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, ids.length);
+    }
+
+    /**
+     * Returns the string table index of the supplied string, or {@code -1} if it is not in the string table.
+     */
+    private int find(String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = stringCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareString(middle, bytes);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private int compareString(int id, byte[] bytes) {
+        int start = start(id);
+        int length = end(id) - start;
+        for (int i = 0; i < Math.min(length, bytes.length); i++) {
+            int comparison = Integer.compare(image.get(start + i) & 0xFF, bytes[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, bytes.length);
+    }
+
+    private String string(int id) {
+        String string = decoded.get(id);
+        if (string == null) {
+            int start = start(id);
+            byte[] bytes = new byte[end(id) - start];
+            image.duplicate().position(start).get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            // a racing thread decodes an equal string
+            decoded.put(id, string);
+        }
+        return string;
+    }
+
+    /**
+     * Returns the position of the first byte of the supplied string.
+     */
+    private int start(int id) {
+        if (id < 0 || id >= stringCount) {
+            throw corrupt();
+        }
+        int offset = image.getInt(stringOffsets + 4 * id);
+        if (offset < 0 || offset > stringsLength) {
+            throw corrupt();
+        }
+        return strings + offset;
+    }
+
+    /**
+     * Returns the position after the last byte of the supplied string, which follows its first byte.
+     */
+    private int end(int id) {
+        int offset = image.getInt(stringOffsets + 4 * (id + 1));
+        if (offset < image.getInt(stringOffsets + 4 * id) || offset > stringsLength) {
+            throw corrupt();
+        }
+        return strings + offset;
+    }
+
+    private ConfigException corrupt() {
+        return new ConfigException("Corrupt configuration image: " + name);
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * The instrumentation of bootstraps, loads, source reads, conversions, caches and reloads, which reports to the
+ * {@linkplain #register(ConfigMetrics) registered} {@link ConfigMetrics}, and emits JDK Flight Recorder events while a
+ * recording is running.
+ *
+ * <p>An operation is measured with a {@link Probe}, which is {@code null} while the instrumentation is disabled, so
+ * that a disabled instrumentation costs a single volatile read:</p>
+ *
+ * <blockquote><pre> {@linkplain Probe} probe = {@linkplain ConfigInstrumentation}.{@linkplain #load(Class, ConfigPath) load}(type, path);
+ *try {
+ *    T object = ...;
+ *    if (probe != null) {
+ *        probe.{@linkplain Probe#end() end()};
+ *    }
+ *    return object;
+ *} catch (RuntimeException e) {
+ *    if (probe != null) {
+ *        probe.{@linkplain Probe#end(Throwable) end(e)};
+ *    }
+ *    throw e;
+ *}</pre></blockquote>
+ *
+ * <p>The bootstraps of {@link jakarta.config.Config} instances are measured by {@link BootstrapInstrumentation}, the
+ * {@link jakarta.config.spi.BootstrapListener} of this module.</p>
+ *
+ * <p>The Flight Recorder events are named <code>jakarta.config.Bootstrap</code>, <code>jakarta.config.Load</code>,
+ * <code>jakarta.config.SourceRead</code>, <code>jakarta.config.Conversion</code> and
+ * <code>jakarta.config.Reload</code>. They are only emitted once requested, with {@link #enableFlightRecorder()} or
+ * the <code>jakarta.config.jfr</code> system property set to <code>true</code>, and if the <code>jdk.jfr</code>
+ * module is in the boot layer; until then, no Flight Recorder class is loaded. Cache hits and misses are only
+ * reported to the {@link ConfigMetrics}.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigInstrumentation {
+    private static volatile State state = State.DISABLED;
+    private static boolean flightRecorder;
+
+    static {
+        if (Boolean.getBoolean("jakarta.config.jfr")) {
+            enableFlightRecorder();
+        }
+    }
+
+    private ConfigInstrumentation() {
+    }
+
+    /**
+     * Registers the supplied {@link ConfigMetrics}.
+     *
+     * @param receiver the {@link ConfigMetrics}; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code receiver} was {@code null}
+     */
+    public static synchronized void register(ConfigMetrics receiver) {
+        Objects.requireNonNull(receiver, "receiver");
+        ConfigMetrics[] current = state.metrics;
+        ConfigMetrics[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = receiver;
+        state = new State(updated, state.recording);
+    }
+
+    /**
+     * Unregisters the supplied {@link ConfigMetrics}, if it is registered.
+     *
+     * @param receiver the {@link ConfigMetrics}; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code receiver} was {@code null}
+     */
+    public static synchronized void unregister(ConfigMetrics receiver) {
+        Objects.requireNonNull(receiver, "receiver");
+        ConfigMetrics[] current = state.metrics;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == receiver) {
+                ConfigMetrics[] updated = new ConfigMetrics[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                state = new State(updated, state.recording);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Requests the emission of Flight Recorder events while a recording is running, if the <code>jdk.jfr</code>
+     * module is in the boot layer. Invoking this method more than once has no further effect.
+     *
+     * @return {@code true} if Flight Recorder events are emitted while a recording is running, {@code false} if the
+     *         <code>jdk.jfr</code> module is not in the boot layer
+     */
+    public static synchronized boolean enableFlightRecorder() {
+        if (!flightRecorder) {
+            Optional<Module> jfr = ModuleLayer.boot().findModule("jdk.jfr");
+            if (jfr.isEmpty()) {
+                return false;
+            }
+            // the dependency is optional, so it may not have been resolved for this module
+            ConfigInstrumentation.class.getModule().addReads(jfr.get());
+            flightRecorder = true;
+            JfrEvents.install();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the instrumentation is enabled: a {@link ConfigMetrics} is registered, or a Flight Recorder
+     * recording is running.
+     *
+     * <p>A caller uses this method to avoid computing the arguments of a {@link Probe} while the instrumentation is
+     * disabled.</p>
+     *
+     * @return {@code true} if the instrumentation is enabled
+     */
+    public static boolean isEnabled() {
+        return state.enabled;
+    }
+
+    /**
+     * Starts measuring the bootstrap of a {@link jakarta.config.Config}.
+     *
+     * @param classLoader the {@link ClassLoader} of the bootstrap; may be {@code null}
+     * @return a {@link Probe}, or {@code null} if the instrumentation is disabled
+     */
+    public static Probe bootstrap(ClassLoader classLoader) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new Probe(Probe.BOOTSTRAP, null, null, String.valueOf(classLoader));
+    }
+
+    /**
+     * Starts measuring the load of an object.
+     *
+     * @param type the type of the object; must not be {@code null}
+     * @param path the <em>configuration path</em> of the object; must not be {@code null}
+     * @return a {@link Probe}, or {@code null} if the instrumentation is disabled
+     */
+    public static Probe load(Class<?> type, ConfigPath path) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new Probe(Probe.LOAD, type, path, null);
+    }
+
+    /**
+     * Starts measuring the read of a {@link ConfigSource}.
+     *
+     * @param source the name of the source; must not be {@code null}
+     * @return a {@link Probe}, or {@code null} if the instrumentation is disabled
+     */
+    public static Probe sourceRead(String source) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new Probe(Probe.SOURCE_READ, null, null, source);
+    }
+
+    /**
+     * Starts measuring the conversion of a <em>raw value</em>.
+     *
+     * @param type the type the <em>raw value</em> is converted to; must not be {@code null}
+     * @return a {@link Probe}, or {@code null} if the instrumentation is disabled
+     */
+    public static Probe conversion(Class<?> type) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new Probe(Probe.CONVERSION, type, null, null);
+    }
+
+    /**
+     * Starts measuring the reload of a configuration. The number of changed <em>configuration paths</em> is
+     * supplied to {@link Probe#changes(int)}.
+     *
+     * @return a {@link Probe}, or {@code null} if the instrumentation is disabled
+     */
+    public static Probe reload() {
+        if (!isEnabled()) {
+            return null;
+        }
+        return new Probe(Probe.RELOAD, null, null, null);
+    }
+
+    /**
+     * Reports a load that was served from a cache.
+     *
+     * @param type the type of the object; must not be {@code null}
+     */
+    public static void cacheHit(Class<?> type) {
+        for (ConfigMetrics receiver : state.metrics) {
+            receiver.cacheHit(type);
+        }
+    }
+
+    /**
+     * Reports a load that was not served from a cache.
+     *
+     * @param type the type of the object; must not be {@code null}
+     */
+    public static void cacheMiss(Class<?> type) {
+        for (ConfigMetrics receiver : state.metrics) {
+            receiver.cacheMiss(type);
+        }
+    }
+
+    static synchronized void recording(boolean running) {
+        state = new State(state.metrics, running);
+    }
+
+    /**
+     * The registered {@link ConfigMetrics} and the Flight Recorder state, which are replaced together, so that
+     * {@link #isEnabled()} costs a single volatile read.
+     */
+    private static final class State {
+        static final State DISABLED = new State(new ConfigMetrics[0], false);
+
+        final ConfigMetrics[] metrics;
+        final boolean recording;
+        final boolean enabled;
+
+        State(ConfigMetrics[] metrics, boolean recording) {
+            this.metrics = metrics;
+            this.recording = recording;
+            this.enabled = recording || metrics.length != 0;
+        }
+    }
+
+    /**
+     * The measurement of a single operation, started by a {@link ConfigInstrumentation} method, and ended exactly
+     * once by the thread that started it.
+     *
+     * <p>This class is not safe for concurrent use by multiple threads.</p>
+     */
+    public static final class Probe {
+        static final int BOOTSTRAP = 0;
+        static final int LOAD = 1;
+        static final int SOURCE_READ = 2;
+        static final int CONVERSION = 3;
+        static final int RELOAD = 4;
+
+        private final int kind;
+        private final Class<?> type;
+        private final ConfigPath path;
+        private final String name;
+        private final Object event;
+        private final long start;
+        private int changes;
+
+        Probe(int kind, Class<?> type, ConfigPath path, String name) {
+            this.kind = kind;
+            this.type = type;
+            this.path = path;
+            this.name = name;
+            this.event = state.recording ? JfrEvents.begin(kind, type, path, name) : null;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Sets the number of changed <em>configuration paths</em> of a reload.
+         *
+         * @param count the number of changed <em>configuration paths</em>
+         */
+        public void changes(int count) {
+            this.changes = count;
+        }
+
+        /**
+         * Ends the measurement of a successful operation.
+         */
+        public void end() {
+            end(null);
+        }
+
+        /**
+         * Ends the measurement of an operation.
+         *
+         * @param failure the reason the operation failed, or {@code null} if it succeeded
+         */
+        public void end(Throwable failure) {
+            long nanos = System.nanoTime() - start;
+            boolean failed = failure != null;
+            for (ConfigMetrics receiver : state.metrics) {
+                switch (kind) {
+                case BOOTSTRAP:
+                    receiver.bootstrapped(nanos, failed);
+                    break;
+                case LOAD:
+                    receiver.loaded(type, path, nanos, failed);
+                    break;
+                case SOURCE_READ:
+                    receiver.sourceRead(name, nanos, failed);
+                    break;
+                case CONVERSION:
+                    receiver.converted(type, nanos, failed);
+                    break;
+                default:
+                    receiver.reloaded(changes, nanos, failed);
+                    break;
+                }
+            }
+            if (event != null) {
+                JfrEvents.commit(event, failure, changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.Set;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * A listener of changes of the configuration of a {@link ReloadingConfig}.
+ *
+ * @see ReloadingConfig#addListener(ConfigListener)
+ */
+@FunctionalInterface
+public interface ConfigListener {
+    /**
+     * Invoked after the configuration has changed.
+     *
+     * <p>The new configuration is already visible to every reader when this method is invoked. This method is
+     * invoked by the thread that reloaded the configuration, so it should return quickly.</p>
+     *
+     * @param paths the <em>configuration paths</em> whose <em>raw value</em> was added, removed or changed; never
+     *              {@code null} or empty
+     */
+    void changed(Set<ConfigPath> paths);
+}
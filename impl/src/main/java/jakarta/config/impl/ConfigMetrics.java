@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * A receiver of the measurements of {@link ConfigInstrumentation}, which an application bridges to its own metrics
+ * registry, and {@linkplain ConfigInstrumentation#register(ConfigMetrics) registers}.
+ *
+ * <p>Every method has an empty default implementation, so a receiver only overrides the measurements it records.
+ * {@link ConfigCounters} records the common measurements.</p>
+ *
+ * <p>The methods are called by the thread that performed the measured operation, while it performs it. They must
+ * be fast, must not block, and must not throw. Implementations of the methods in this interface must be safe for
+ * concurrent use by multiple threads.</p>
+ */
+public interface ConfigMetrics {
+    /**
+     * Records the {@linkplain jakarta.config.Config#bootstrap(ClassLoader) bootstrap} of a
+     * {@link jakarta.config.Config}.
+     *
+     * @param nanos the duration of the bootstrap, in nanoseconds
+     * @param failed whether the bootstrap failed
+     */
+    default void bootstrapped(long nanos, boolean failed) {
+    }
+
+    /**
+     * Records the {@linkplain jakarta.config.Config#load(Class) load} of an object.
+     *
+     * @param type the type of the object; never {@code null}
+     * @param path the <em>configuration path</em> of the object; never {@code null}
+     * @param nanos the duration of the load, in nanoseconds
+     * @param failed whether the load failed
+     */
+    default void loaded(Class<?> type, ConfigPath path, long nanos, boolean failed) {
+    }
+
+    /**
+     * Records the read of a {@link ConfigSource}.
+     *
+     * @param source the name of the source; never {@code null}
+     * @param nanos the duration of the read, in nanoseconds
+     * @param failed whether the read failed
+     */
+    default void sourceRead(String source, long nanos, boolean failed) {
+    }
+
+    /**
+     * Records the conversion of a <em>raw value</em>.
+     *
+     * @param type the type the <em>raw value</em> was converted to; never {@code null}
+     * @param nanos the duration of the conversion, in nanoseconds
+     * @param failed whether the conversion failed
+     */
+    default void converted(Class<?> type, long nanos, boolean failed) {
+    }
+
+    /**
+     * Records a load that was served from a cache.
+     *
+     * @param type the type of the object; never {@code null}
+     */
+    default void cacheHit(Class<?> type) {
+    }
+
+    /**
+     * Records a load that was not served from a cache.
+     *
+     * @param type the type of the object; never {@code null}
+     */
+    default void cacheMiss(Class<?> type) {
+    }
+
+    /**
+     * Records the reload of a configuration.
+     *
+     * @param changes the number of changed <em>configuration paths</em>
+     * @param nanos the duration of the reload, in nanoseconds
+     * @param failed whether the reload failed
+     */
+    default void reloaded(int changes, long nanos, boolean failed) {
+    }
+}
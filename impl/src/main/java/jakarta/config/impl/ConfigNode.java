@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * An immutable <em>configuration entry</em> of a configuration tree: an optional <em>raw value</em>, and the child
+ * configuration entries, by <em>configuration key</em>.
+ *
+ * <p>A configuration tree is built with a {@link Builder}, for instance from a <code>properties</code> file:</p>
+ *
+ * <blockquote><pre> {@linkplain Builder} builder = {@linkplain ConfigNode}.{@linkplain #builder() builder()};
+ *{@linkplain PropertiesParser}.{@linkplain PropertiesParser#parse(java.nio.file.Path, java.util.function.BiConsumer) parse}(file, builder::{@linkplain Builder#put(ConfigPath, String) put});
+ *{@linkplain ConfigNode} root = builder.{@linkplain Builder#build() build()};</pre></blockquote>
+ *
+ * <p>The elements of a list are the child configuration entries whose <em>configuration keys</em> are their indexes,
+ * as defined by the specification. They are indexed when a configuration entry is created, so that
+ * {@link #elements()} takes a time proportional to the number of elements.</p>
+ *
+ * <p>Every configuration entry has a 64-bit {@linkplain #hash() content hash} of its subtree, which is computed
+ * from the hashes of its children when it is created, Merkle-style. {@link #changes(ConfigNode, ConfigNode)} skips
+ * the subtrees whose hashes are equal, so that it takes a time proportional to the changes.</p>
+ *
+ * <p>A configuration tree is never modified. {@link #with(ConfigPath, String)} returns a new configuration tree,
+ * which shares every configuration entry that is not an ancestor of the modified configuration entry with this
+ * configuration tree. Likewise, {@link #overlay(ConfigNode)} returns a configuration tree that shares every
+ * configuration entry that an overriding configuration tree does not modify.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigNode {
+    private static final ConfigNode EMPTY = new ConfigNode(null, Map.of());
+
+    private final String value;
+    private final Map<String, ConfigNode> children;
+    private final Map<String, ConfigNode> elements;
+    private final long hash;
+
+    private ConfigNode(String value, Map<String, ConfigNode> children) {
+        this.value = value;
+        this.children = children;
+        this.elements = elements(children);
+        this.hash = hash(value, children);
+    }
+
+    /**
+     * Returns the configuration entry without a <em>raw value</em> and without children.
+     *
+     * @return the empty configuration entry; never {@code null}
+     */
+    public static ConfigNode empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a new {@link Builder} of a configuration tree.
+     *
+     * @return a new {@link Builder}; never {@code null}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the <em>raw value</em> of this configuration entry.
+     *
+     * @return the <em>raw value</em>, or {@code null} if this configuration entry has no <em>raw value</em>
+     */
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Returns the child configuration entries of this configuration entry.
+     *
+     * @return an unmodifiable map of the child configuration entries, by <em>configuration key</em>; never
+     *         {@code null}
+     */
+    public Map<String, ConfigNode> children() {
+        return children;
+    }
+
+    /**
+     * Returns the child configuration entry of the supplied <em>configuration key</em>.
+     *
+     * @param key the <em>configuration key</em>; must not be {@code null}
+     * @return the child configuration entry, or {@code null} if there is none
+     */
+    public ConfigNode child(String key) {
+        return children.get(key);
+    }
+
+    /**
+     * Returns the descendant configuration entry of the supplied <em>configuration path</em>, relative to this
+     * configuration entry.
+     *
+     * @param path the <em>configuration path</em>; must not be {@code null}
+     * @return the descendant configuration entry, this configuration entry if the supplied {@code path} is the
+     *         {@linkplain ConfigPath#root() root}, or {@code null} if there is none
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     */
+    public ConfigNode get(ConfigPath path) {
+        if (path.isRoot()) {
+            return this;
+        }
+        ConfigNode parent = get(path.parent());
+        return parent == null ? null : parent.children.get(path.key());
+    }
+
+    /**
+     * Returns the child configuration entries whose <em>configuration key</em> is an index, such as the elements of a
+     * YAML sequence, or of the <code>properties</code> keys <code>key.0</code>, <code>key.1</code>, ..., ordered by
+     * index.
+     *
+     * <p>An index is a non-negative decimal <code>int</code>, without leading zeros. A missing index is skipped.</p>
+     *
+     * @return an unmodifiable map of the elements, by <em>configuration key</em>, in index order; never {@code null}
+     */
+    public Map<String, ConfigNode> elements() {
+        return elements;
+    }
+
+    /**
+     * Returns the content hash of the subtree of this configuration entry: of its <em>raw value</em>, and of the
+     * <em>configuration keys</em> and content hashes of its children, regardless of their order.
+     *
+     * <p>Configuration entries with the same content have the same content hash, in every Java virtual machine.
+     * Configuration entries with different content have different content hashes, except for a collision, whose
+     * probability is that of a 64-bit hash. The empty configuration entry has the content hash {@code 0}.</p>
+     *
+     * @return the content hash
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Returns whether this configuration entry has neither a <em>raw value</em> nor children.
+     *
+     * @return {@code true} if this configuration entry is empty
+     */
+    public boolean isEmpty() {
+        return value == null && children.isEmpty();
+    }
+
+    /**
+     * Returns a configuration tree that is identical to this configuration tree, except for the <em>raw value</em>
+     * of the supplied <em>configuration path</em>.
+     *
+     * <p>Only the configuration entries of the supplied {@code path} and of its ancestors are copied. A configuration
+     * entry that is left empty by the removal of its <em>raw value</em> is removed from the returned configuration
+     * tree, unless it is the root.</p>
+     *
+     * @param path the <em>configuration path</em>, relative to this configuration entry; must not be {@code null}
+     * @param value the new <em>raw value</em>; may be {@code null} to remove the <em>raw value</em>
+     * @return the new configuration tree, or this configuration tree if it already had the supplied {@code value};
+     *         never {@code null}
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     */
+    public ConfigNode with(ConfigPath path, String value) {
+        return with(path.toArray(), 0, value);
+    }
+
+    private ConfigNode with(String[] keys, int index, String value) {
+        if (index == keys.length) {
+            return Objects.equals(this.value, value) ? this : new ConfigNode(value, children);
+        }
+        ConfigNode child = children.get(keys[index]);
+        ConfigNode updated = (child == null ? EMPTY : child).with(keys, index + 1, value);
+        if (updated == child || (child == null && updated.isEmpty())) {
+            return this;
+        }
+        Map<String, ConfigNode> copy = new LinkedHashMap<>(children);
+        if (updated.isEmpty()) {
+            copy.remove(keys[index]);
+        } else {
+            copy.put(keys[index], updated);
+        }
+        return new ConfigNode(this.value, copy.isEmpty() ? Map.of() : Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Returns a configuration tree of every <em>raw value</em> of this configuration tree and of the supplied
+     * overriding configuration tree, which takes precedence, as if by {@link Builder#merge(ConfigNode)} of this
+     * configuration tree and then of the overriding configuration tree.
+     *
+     * <p>The returned configuration tree is an overlay: it shares every configuration entry of this configuration
+     * tree that the overriding configuration tree does not modify, and every configuration entry of the overriding
+     * configuration tree that this configuration tree does not have, so that it only copies the modified
+     * configuration entries and their ancestors. The <em>configuration keys</em> and <em>raw values</em> of the
+     * copies are those of this configuration tree, where they are equal. A large configuration tree may therefore be
+     * shared by many small overriding configuration trees, at a cost proportional to the overrides:</p>
+     *
+     * <blockquote><pre> {@linkplain ConfigNode} tenant = base.{@linkplain #overlay(ConfigNode) overlay}(overrides);</pre></blockquote>
+     *
+     * <p>A copied configuration entry copies the map of its children, though not the children themselves. The cost of
+     * an override is therefore also proportional to the number of children of every modified configuration entry, so
+     * that overriding one of the thousand children of a configuration entry copies a thousand references.</p>
+     *
+     * @param overrides the root of the overriding configuration tree; must not be {@code null}
+     * @return the overlay, this configuration tree if the overriding configuration tree does not modify it, or the
+     *         overriding configuration tree if this configuration tree is empty; never {@code null}
+     * @exception NullPointerException if the supplied {@code overrides} was {@code null}
+     */
+    public ConfigNode overlay(ConfigNode overrides) {
+        if (overrides == this || overrides.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return overrides;
+        }
+        String overlaid = overrides.value == null || overrides.value.equals(value) ? value : overrides.value;
+        Map<String, ConfigNode> copy = null;
+        for (Map.Entry<String, ConfigNode> entry : overrides.children.entrySet()) {
+            ConfigNode child = children.get(entry.getKey());
+            ConfigNode updated = child == null ? entry.getValue() : child.overlay(entry.getValue());
+            if (updated != child) {
+                if (copy == null) {
+                    copy = new LinkedHashMap<>(children);
+                }
+                // an existing configuration key keeps its instance
+                copy.put(entry.getKey(), updated);
+            }
+        }
+        if (copy == null) {
+            return overlaid == value ? this : new ConfigNode(overlaid, children);
+        }
+        return new ConfigNode(overlaid, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Returns the <em>configuration paths</em> whose <em>raw value</em> differs between the supplied configuration
+     * trees: the <em>raw value</em> was added, removed or changed.
+     *
+     * <p>Configuration entries that are shared by both configuration trees, or that have the same
+     * {@linkplain #hash() content hash}, are not compared.</p>
+     *
+     * @param previous the previous configuration tree; must not be {@code null}
+     * @param current the current configuration tree; must not be {@code null}
+     * @return an unmodifiable set of the changed <em>configuration paths</em>; never {@code null}
+     * @exception NullPointerException if any of the supplied configuration trees was {@code null}
+     */
+    public static Set<ConfigPath> changes(ConfigNode previous, ConfigNode current) {
+        Objects.requireNonNull(previous, "previous");
+        Objects.requireNonNull(current, "current");
+        Set<ConfigPath> changes = new LinkedHashSet<>();
+        changes(ConfigPath.root(), previous, current, changes);
+        return Collections.unmodifiableSet(changes);
+    }
+
+    private static void changes(ConfigPath path, ConfigNode previous, ConfigNode current, Set<ConfigPath> changes) {
+        if (previous == current || previous.hash == current.hash) {
+            return;
+        }
+        if (!Objects.equals(previous.value, current.value)) {
+            changes.add(path);
+        }
+        for (Map.Entry<String, ConfigNode> entry : previous.children.entrySet()) {
+            ConfigNode child = current.children.get(entry.getKey());
+            changes(path.child(entry.getKey()), entry.getValue(), child == null ? EMPTY : child, changes);
+        }
+        for (Map.Entry<String, ConfigNode> entry : current.children.entrySet()) {
+            if (!previous.children.containsKey(entry.getKey())) {
+                changes(path.child(entry.getKey()), EMPTY, entry.getValue(), changes);
+            }
+        }
+    }
+
+    private static long hash(String value, Map<String, ConfigNode> children) {
+        long hash = value == null ? 0 : mix(hash(value) + 1);
+        for (Map.Entry<String, ConfigNode> entry : children.entrySet()) {
+            // a sum, so that the order of the children does not matter
+            hash += mix(hash(entry.getKey()) ^ mix(entry.getValue().hash + 0x9E3779B97F4A7C15L));
+        }
+        return hash;
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the characters of the supplied {@code String}.
+     */
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, which spreads every bit of the supplied value to every bit of the result.
+     */
+    private static long mix(long value) {
+        long z = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Indexes the supplied children whose <em>configuration key</em> is an index.
+     */
+    private static Map<String, ConfigNode> elements(Map<String, ConfigNode> children) {
+        String[] keys = null;
+        int[] indexes = null;
+        int size = 0;
+        for (String key : children.keySet()) {
+            int index = index(key);
+            if (index < 0) {
+                continue;
+            }
+            if (keys == null) {
+                keys = new String[children.size()];
+                indexes = new int[children.size()];
+            }
+            keys[size] = key;
+            indexes[size] = index;
+            size++;
+        }
+        if (size == 0) {
+            return Map.of();
+        }
+
+        // sort the elements by index, in a single pass over a permutation
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        int[] sortIndexes = indexes;
+        Arrays.sort(order, (a, b) -> Integer.compare(sortIndexes[a], sortIndexes[b]));
+        Map<String, ConfigNode> elements = new LinkedHashMap<>();
+        for (Integer i : order) {
+            elements.put(keys[i], children.get(keys[i]));
+        }
+        return Collections.unmodifiableMap(elements);
+    }
+
+    /**
+     * Parses the supplied <em>configuration key</em> as an index.
+     *
+     * @return the index, or {@code -1} if it is not a non-negative decimal {@code int} without leading zeros
+     */
+    private static int index(String key) {
+        int length = key.length();
+        if (length == 0 || length > 10 || (length > 1 && key.charAt(0) == '0')) {
+            return -1;
+        }
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+
+    @Override
+    public String toString() {
+        if (children.isEmpty()) {
+            return String.valueOf(value);
+        }
+        return value == null ? children.toString() : value + children;
+    }
+
+    /**
+     * A builder of a configuration tree.
+     *
+     * <p>This class is not safe for concurrent use by multiple threads.</p>
+     */
+    public static final class Builder {
+        private String value;
+        private Map<String, Builder> children;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the <em>raw value</em> of the supplied <em>configuration path</em>, replacing any previous
+         * <em>raw value</em>.
+         *
+         * @param path the <em>configuration path</em>; must not be {@code null}
+         * @param value the <em>raw value</em>; must not be {@code null}
+         * @return this {@link Builder}; never {@code null}
+         * @exception NullPointerException if the supplied {@code path} or {@code value} was {@code null}
+         */
+        public Builder put(ConfigPath path, String value) {
+            Objects.requireNonNull(value, "value");
+            builder(path).value = value;
+            return this;
+        }
+
+        /**
+         * Sets every <em>raw value</em> of the supplied configuration tree, replacing any previous
+         * <em>raw value</em> of the same <em>configuration path</em>.
+         *
+         * @param tree the root of the configuration tree; must not be {@code null}
+         * @return this {@link Builder}; never {@code null}
+         * @exception NullPointerException if the supplied {@code tree} was {@code null}
+         */
+        public Builder merge(ConfigNode tree) {
+            if (tree.value != null) {
+                value = tree.value;
+            }
+            if (!tree.children.isEmpty()) {
+                if (children == null) {
+                    children = new LinkedHashMap<>();
+                }
+                for (Map.Entry<String, ConfigNode> entry : tree.children.entrySet()) {
+                    children.computeIfAbsent(entry.getKey(), k -> new Builder()).merge(entry.getValue());
+                }
+            }
+            return this;
+        }
+
+        private Builder builder(ConfigPath path) {
+            if (path.isRoot()) {
+                return this;
+            }
+            Builder parent = builder(path.parent());
+            if (parent.children == null) {
+                parent.children = new LinkedHashMap<>();
+            }
+            return parent.children.computeIfAbsent(path.key(), k -> new Builder());
+        }
+
+        /**
+         * Builds the configuration tree.
+         *
+         * @return the root configuration entry of the configuration tree; never {@code null}
+         */
+        public ConfigNode build() {
+            if (children == null) {
+                return value == null ? EMPTY : new ConfigNode(value, Map.of());
+            }
+            Map<String, ConfigNode> nodes = new LinkedHashMap<>((int) (children.size() / 0.75f) + 1);
+            for (Map.Entry<String, Builder> entry : children.entrySet()) {
+                nodes.put(entry.getKey(), entry.getValue().build());
+            }
+            return new ConfigNode(value, Collections.unmodifiableMap(nodes));
+        }
+    }
+}
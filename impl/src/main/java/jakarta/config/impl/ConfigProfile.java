@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+
+/**
+ * The profile of the configuration work of an application: the types of the objects it
+ * {@linkplain Config#load(Class) loads}, the <em>configuration paths</em> it loads them from, and the types it
+ * converts <em>raw values</em> to.
+ *
+ * <p>A profile is recorded during a training run of the application, and written to a file. On a later start, the
+ * application opts in to {@linkplain #prewarm(Config, ClassLoader, Executor) prewarm} its configuration from the
+ * profile on background threads, so that the classes of the profile are loaded and initialized, its
+ * <em>configuration paths</em> are resolved and its {@linkplain Converters converters} are built before the
+ * application asks for them:</p>
+ *
+ * <blockquote><pre> // training run
+ *try ({@linkplain Recorder} recorder = {@linkplain ConfigProfile}.{@linkplain #record() record()}) {
+ *    runApplication();
+ *    recorder.{@linkplain Recorder#profile() profile()}.{@linkplain #write(Path) write}(Path.of("config.profile"));
+ *}
+ *{@linkplain ConfigProfile}.{@linkplain #read(Path) read}(Path.of("config.profile")).{@linkplain #prewarm(Config, ClassLoader, Executor) prewarm}({@linkplain Config}.{@linkplain Config#bootstrap() bootstrap()}, classLoader, ForkJoinPool.commonPool()); // on a later start</pre></blockquote>
+ *
+ * <p>A profile is recorded from the loads and conversions reported to {@link ConfigInstrumentation}. A profile file
+ * is a UTF-8 text file, with a <code>load</code> line of the type name and <code>properties</code> key of every
+ * load, and a <code>convert</code> line of the type name of every conversion. Within a <code>properties</code> key,
+ * every backslash (<code>\</code>) is doubled, and every control character, surrogate, Unicode separator and
+ * character that is not {@linkplain Character#isDefined(char) defined} is written as a <code>&#92;uXXXX</code>
+ * escape, so that every key is read back as written.</p>
+ *
+ * <p>This class is immutable, and is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigProfile {
+    private static final String HEADER = "# Jakarta Config profile";
+    private static final String LOAD = "load";
+    private static final String CONVERT = "convert";
+
+    private final Map<String, Set<ConfigPath>> loads;
+    private final Set<String> conversions;
+
+    private ConfigProfile(Map<String, Set<ConfigPath>> loads, Set<String> conversions) {
+        this.loads = loads;
+        this.conversions = conversions;
+    }
+
+    /**
+     * Starts recording a profile, until the returned {@link Recorder} is {@linkplain Recorder#close() closed}.
+     *
+     * <p>Only the work reported to {@link ConfigInstrumentation} is recorded: the loads of a {@link Config} provider
+     * that calls {@link ConfigInstrumentation#load(Class, ConfigPath)}, and the conversions of a provider that calls
+     * {@link ConfigInstrumentation#conversion(Class)}. A provider that does not report its loads contributes no load to
+     * the profile, so that none of its loads are prewarmed.</p>
+     *
+     * @return the {@link Recorder}, which is {@linkplain ConfigInstrumentation#register(ConfigMetrics) registered};
+     *         never {@code null}
+     */
+    public static Recorder record() {
+        Recorder recorder = new Recorder();
+        ConfigInstrumentation.register(recorder);
+        return recorder;
+    }
+
+    /**
+     * Reads the supplied profile file.
+     *
+     * @param file the profile file; must not be {@code null}
+     * @return the profile; never {@code null}
+     * @exception NullPointerException if the supplied {@code file} was {@code null}
+     * @exception ConfigException if the file could not be read, or is not a profile file
+     */
+    public static ConfigProfile read(Path file) {
+        Map<String, Set<ConfigPath>> loads = new TreeMap<>();
+        Set<String> conversions = new TreeSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new ConfigException("Not a configuration profile: " + file);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // a properties key may contain spaces, but a type name may not
+                String[] fields = line.split(" ", 3);
+                if (fields.length == 3 && fields[0].equals(LOAD)) {
+                    loads.computeIfAbsent(fields[1], k -> new TreeSet<>(ConfigProfile::compare))
+                            .add(ConfigPath.parse(unescape(fields[2])));
+                } else if (fields.length == 2 && fields[0].equals(CONVERT)) {
+                    conversions.add(fields[1]);
+                } else if (!line.isEmpty()) {
+                    throw new ConfigException("Corrupt configuration profile: " + file + ": " + line);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("Corrupt configuration profile: " + file, e);
+        } catch (IOException e) {
+            throw new ConfigException(e);
+        }
+        return of(loads, conversions);
+    }
+
+    /**
+     * Writes this profile to a profile file.
+     *
+     * @param file the profile file, which is replaced if it exists; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code file} was {@code null}
+     * @exception IOException if the file could not be written
+     */
+    public void write(Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Objects.requireNonNull(file, "file"),
+                                                             StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Set<ConfigPath>> load : loads.entrySet()) {
+                for (ConfigPath path : load.getValue()) {
+                    writer.write(LOAD + ' ' + load.getKey() + ' ' + escape(path.toString()));
+                    writer.newLine();
+                }
+            }
+            for (String conversion : conversions) {
+                writer.write(CONVERT + ' ' + conversion);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the <em>configuration paths</em> of the loads of this profile, by the name of the type of the loaded
+     * objects.
+     *
+     * @return an unmodifiable map of unmodifiable sets of <em>configuration paths</em>, by type name; never
+     *         {@code null}
+     */
+    public Map<String, Set<ConfigPath>> loads() {
+        return loads;
+    }
+
+    /**
+     * Returns the names of the types of the conversions of this profile.
+     *
+     * @return an unmodifiable set of type names; never {@code null}
+     */
+    public Set<String> conversions() {
+        return conversions;
+    }
+
+    /**
+     * Prewarms the configuration work of this profile, with tasks submitted to the supplied {@link Executor}.
+     *
+     * <p>The type of every conversion is loaded and initialized, and its {@linkplain Converters#of(Class) default
+     * converter} is built. The type of every load is loaded and initialized, and an object of it is loaded from each
+     * of its <em>configuration paths</em> of the supplied {@link Config}, as if by
+     * <code>config.{@linkplain Config#path(ConfigPath) path}(path).{@linkplain Config#load(Class) load}(type)</code>,
+     * which populates the cache of a {@link CachingConfig}.</p>
+     *
+     * <p>Prewarming is an optimization: a type that cannot be found, or an object that cannot be loaded, for instance
+     * because the application or its configuration changed since the profile was recorded, is ignored. The
+     * application observes the failure on its own load.</p>
+     *
+     * @param config the {@link Config} to load the objects from; must not be {@code null}
+     * @param classLoader the {@link ClassLoader} of the types; may be {@code null} for the bootstrap class loader
+     * @param executor the {@link Executor} to prewarm with; must not be {@code null}
+     * @return a {@link CompletionStage} that completes normally once every task has completed; never {@code null}
+     * @exception NullPointerException if the supplied {@code config} or {@code executor} was {@code null}
+     */
+    public CompletionStage<Void> prewarm(Config config, ClassLoader classLoader, Executor executor) {
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(executor, "executor");
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(conversions.size() + loads.size());
+        for (String conversion : conversions) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                Class<?> type = type(conversion, classLoader);
+                if (type != null) {
+                    try {
+                        Converters.of(type);
+                    } catch (IllegalArgumentException e) {
+                        // no longer convertible
+                    }
+                }
+            }, executor));
+        }
+        for (Map.Entry<String, Set<ConfigPath>> load : loads.entrySet()) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                Class<?> type = type(load.getKey(), classLoader);
+                if (type != null) {
+                    for (ConfigPath path : load.getValue()) {
+                        try {
+                            config.path(path).load(type);
+                        } catch (RuntimeException e) {
+                            // reported to the application by its own load
+                        }
+                    }
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigProfile[loads=" + loads + ", conversions=" + conversions + "]";
+    }
+
+    private static ConfigProfile of(Map<String, Set<ConfigPath>> loads, Set<String> conversions) {
+        Map<String, Set<ConfigPath>> sorted = new TreeMap<>();
+        for (Map.Entry<String, Set<ConfigPath>> load : loads.entrySet()) {
+            Set<ConfigPath> paths = new TreeSet<>(ConfigProfile::compare);
+            paths.addAll(load.getValue());
+            sorted.put(load.getKey(), Collections.unmodifiableSet(paths));
+        }
+        return new ConfigProfile(Collections.unmodifiableMap(sorted),
+                                 Collections.unmodifiableSet(new TreeSet<>(conversions)));
+    }
+
+    private static String escape(String key) {
+        StringBuilder builder = null;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean plain = c != '\\' && !Character.isISOControl(c) && !Character.isSurrogate(c)
+                    && Character.isDefined(c)
+                    && Character.getType(c) != Character.LINE_SEPARATOR
+                    && Character.getType(c) != Character.PARAGRAPH_SEPARATOR;
+            if (plain && builder == null) {
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(key.length() + 16).append(key, 0, i);
+            }
+            if (c == '\\') {
+                builder.append("\\\\");
+            } else if (plain) {
+                builder.append(c);
+            } else {
+                builder.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return builder == null ? key : builder.toString();
+    }
+
+    private static String unescape(String key) {
+        if (key.indexOf('\\') < 0) {
+            return key;
+        }
+        StringBuilder builder = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+            } else if (key.startsWith("\\", i + 1)) {
+                builder.append('\\');
+                i++;
+            } else if (key.startsWith("u", i + 1) && i + 6 <= key.length() && hex(key, i + 2, i + 6)) {
+                builder.append((char) Integer.parseInt(key.substring(i + 2, i + 6), 16));
+                i += 5;
+            } else {
+                throw new IllegalArgumentException("Invalid escape in " + key);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean hex(String key, int start, int end) {
+        // Integer.parseInt would accept a sign
+        for (int i = start; i < end; i++) {
+            if (Character.digit(key.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(ConfigPath a, ConfigPath b) {
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static Class<?> type(String name, ClassLoader classLoader) {
+        try {
+            return Class.forName(name, true, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * The {@link ConfigMetrics} that record a {@link ConfigProfile}, created by {@link ConfigProfile#record()}. Only
+     * the successful loads and conversions are recorded.
+     *
+     * <p>This class is safe for concurrent use by multiple threads.</p>
+     */
+    public static final class Recorder implements ConfigMetrics, AutoCloseable {
+        private final Map<String, Set<ConfigPath>> loads = new ConcurrentHashMap<>();
+        private final Set<String> conversions = ConcurrentHashMap.newKeySet();
+
+        private Recorder() {
+        }
+
+        @Override
+        public void loaded(Class<?> type, ConfigPath path, long nanos, boolean failed) {
+            if (!failed) {
+                Set<ConfigPath> paths = loads.get(type.getName());
+                if (paths == null) {
+                    paths = loads.computeIfAbsent(type.getName(), k -> ConcurrentHashMap.newKeySet());
+                }
+                paths.add(path);
+            }
+        }
+
+        @Override
+        public void converted(Class<?> type, long nanos, boolean failed) {
+            // the converters of the primitive types are built in
+            if (!failed && !type.isPrimitive()) {
+                conversions.add(type.getName());
+            }
+        }
+
+        /**
+         * Returns the profile recorded so far.
+         *
+         * @return the profile; never {@code null}
+         */
+        public ConfigProfile profile() {
+            return of(loads, conversions);
+        }
+
+        /**
+         * Stops recording, by {@linkplain ConfigInstrumentation#unregister(ConfigMetrics) unregistering} this
+         * {@link Recorder}. The recorded profile remains available.
+         */
+        @Override
+        public void close() {
+            ConfigInstrumentation.unregister(this);
+        }
+    }
+}
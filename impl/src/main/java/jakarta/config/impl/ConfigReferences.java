@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+
+/**
+ * The expansion of the cross-references of the <em>raw values</em> of a configuration tree.
+ *
+ * <p>A <em>raw value</em> may refer to the <em>raw value</em> of another <em>configuration path</em> of the same
+ * configuration tree, as defined by the <em>Cross-references</em> section of the specification:</p>
+ *
+ * <ul>
+ *     <li><code>${key}</code> is replaced by the expanded <em>raw value</em> of the configuration path of the
+ *     <code>properties</code> key <code>key</code>, relative to the root</li>
+ *     <li><code>${key:default}</code> is replaced by <code>default</code>, verbatim, if there is no such
+ *     <em>raw value</em></li>
+ *     <li><code>$${</code> is replaced by <code>${</code>, and any other <code>$</code> is kept verbatim</li>
+ * </ul>
+ *
+ * <p>The expanded value of a configuration path is computed the first time it is looked up, and is cached along with
+ * the configuration paths it depends on. A <em>raw value</em> without a <code>$</code> is not cached.
+ * {@link #update(ConfigNode)} returns the expansion of a new configuration tree, which keeps every cached value whose
+ * dependencies, transitively, are unchanged:</p>
+ *
+ * <blockquote><pre> AtomicReference&lt;{@linkplain ConfigReferences}&gt; references = new AtomicReference&lt;&gt;({@linkplain ConfigReferences}.{@linkplain #of(ConfigNode) of}({@linkplain ConfigNode}.{@linkplain ConfigNode#empty() empty()}));
+ *{@linkplain ReloadingConfig} config = {@linkplain ReloadingConfig}.{@linkplain ReloadingConfig#of(java.util.function.Function, ClassLoader) of}(tree -&gt; new MyConfig(references.updateAndGet(r -&gt; r.{@linkplain #update(ConfigNode) update}(tree))), classLoader);</pre></blockquote>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigReferences {
+    private final ConfigNode tree;
+    private final Map<ConfigPath, Expansion> expansions;
+
+    private ConfigReferences(ConfigNode tree) {
+        this.tree = tree;
+        this.expansions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the expansion of the supplied configuration tree. No <em>raw value</em> is expanded by this method.
+     *
+     * @param tree the root of the configuration tree; must not be {@code null}
+     * @return the expansion of the supplied configuration tree; never {@code null}
+     * @exception NullPointerException if the supplied {@code tree} was {@code null}
+     */
+    public static ConfigReferences of(ConfigNode tree) {
+        return new ConfigReferences(Objects.requireNonNull(tree, "tree"));
+    }
+
+    /**
+     * Returns the configuration tree of this expansion.
+     *
+     * @return the root of the configuration tree, whose <em>raw values</em> are not expanded; never {@code null}
+     */
+    public ConfigNode tree() {
+        return tree;
+    }
+
+    /**
+     * Returns the expanded <em>raw value</em> of the supplied <em>configuration path</em>.
+     *
+     * @param path the <em>configuration path</em>; must not be {@code null}
+     * @return the expanded <em>raw value</em>, or {@code null} if there is no <em>raw value</em>
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     * @exception ConfigException if the <em>raw value</em>, or a <em>raw value</em> it refers to, has a malformed
+     *            reference, a reference without a <em>raw value</em> or a default value, or a cyclic reference; the
+     *            message names the configuration paths involved
+     */
+    public String value(ConfigPath path) {
+        return value(path, null);
+    }
+
+    /**
+     * Returns the expansion of the supplied configuration tree, which keeps the cached values of this expansion that
+     * do not depend, transitively, on a <em>raw value</em> that differs between the configuration tree of this
+     * expansion and the supplied configuration tree.
+     *
+     * @param current the root of the new configuration tree; must not be {@code null}
+     * @return the expansion of the supplied configuration tree, or this expansion if it has the same configuration
+     *         tree; never {@code null}
+     * @exception NullPointerException if the supplied {@code current} tree was {@code null}
+     */
+    public ConfigReferences update(ConfigNode current) {
+        if (current == tree) {
+            return this;
+        }
+        // the dependents are computed from a copy of the expansions, so that an expansion published concurrently is
+        // either copied along with its dependencies, or not copied at all
+        Map<ConfigPath, Expansion> copy = new HashMap<>(expansions);
+        Map<ConfigPath, List<ConfigPath>> dependents = new HashMap<>();
+        for (Map.Entry<ConfigPath, Expansion> entry : copy.entrySet()) {
+            for (ConfigPath dependency : entry.getValue().dependencies) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>(2)).add(entry.getKey());
+            }
+        }
+        Set<ConfigPath> invalid = new HashSet<>();
+        Deque<ConfigPath> pending = new ArrayDeque<>(ConfigNode.changes(tree, current));
+        while (!pending.isEmpty()) {
+            ConfigPath path = pending.poll();
+            if (invalid.add(path)) {
+                pending.addAll(dependents.getOrDefault(path, List.of()));
+            }
+        }
+
+        ConfigReferences updated = new ConfigReferences(current);
+        copy.keySet().removeAll(invalid);
+        updated.expansions.putAll(copy);
+        return updated;
+    }
+
+    private String value(ConfigPath path, Set<ConfigPath> expanding) {
+        ConfigNode node = tree.get(path);
+        String raw = node == null ? null : node.value();
+        if (raw == null || raw.indexOf('$') < 0) {
+            return raw;
+        }
+        Expansion expansion = expansions.get(path);
+        if (expansion != null) {
+            return expansion.value;
+        }
+
+        Set<ConfigPath> stack = expanding == null ? new LinkedHashSet<>() : expanding;
+        if (!stack.add(path)) {
+            StringBuilder cycle = new StringBuilder("Cyclic reference: ");
+            boolean found = false;
+            for (ConfigPath element : stack) {
+                found |= element.equals(path);
+                if (found) {
+                    cycle.append(element).append(" -> ");
+                }
+            }
+            throw new ConfigException(cycle.append(path).toString());
+        }
+        try {
+            expansion = expand(path, raw, stack);
+        } finally {
+            stack.remove(path);
+        }
+        Expansion existing = expansions.putIfAbsent(path, expansion);
+        return existing == null ? expansion.value : existing.value;
+    }
+
+    private Expansion expand(ConfigPath path, String raw, Set<ConfigPath> stack) {
+        StringBuilder builder = new StringBuilder(raw.length() + 16);
+        List<ConfigPath> dependencies = new ArrayList<>(2);
+        int length = raw.length();
+        int i = 0;
+        while (i < length) {
+            char c = raw.charAt(i);
+            if (c != '$' || i + 1 == length) {
+                builder.append(c);
+                i++;
+            } else if (raw.startsWith("${", i)) {
+                int end = i + 2;
+                int colon = -1;
+                while (end < length && raw.charAt(end) != '}') {
+                    if (colon < 0 && raw.charAt(end) == '\\') {
+                        end++;
+                    } else if (colon < 0 && raw.charAt(end) == ':') {
+                        colon = end;
+                    }
+                    end++;
+                }
+                if (end >= length) {
+                    throw new ConfigException("Unterminated reference in the value of " + path + ": " + raw);
+                }
+                String key = raw.substring(i + 2, colon < 0 ? end : colon);
+                ConfigPath reference;
+                try {
+                    reference = key.isEmpty() ? null : ConfigPath.parse(key);
+                } catch (IllegalArgumentException e) {
+                    reference = null;
+                }
+                if (reference == null) {
+                    throw new ConfigException("Invalid reference '${" + key + "}' in the value of " + path);
+                }
+                dependencies.add(reference);
+                String value = value(reference, stack);
+                if (value == null) {
+                    if (colon < 0) {
+                        throw new ConfigException("Unresolved reference '${" + key + "}' in the value of " + path);
+                    }
+                    value = raw.substring(colon + 1, end);
+                }
+                builder.append(value);
+                i = end + 1;
+            } else if (raw.startsWith("$${", i)) {
+                builder.append("${");
+                i += 3;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return new Expansion(builder.toString(), dependencies.toArray(new ConfigPath[0]));
+    }
+
+    @Override
+    public String toString() {
+        return tree.toString();
+    }
+
+    private static final class Expansion {
+        private final String value;
+        private final ConfigPath[] dependencies;
+
+        Expansion(String value, ConfigPath[] dependencies) {
+            this.value = value;
+            this.dependencies = dependencies;
+        }
+    }
+}
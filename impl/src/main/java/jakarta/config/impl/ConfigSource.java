@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * A source of <em>raw values</em>, such as a <code>properties</code> file, the system properties or the environment
+ * variables.
+ *
+ * <p>Configuration sources are layered by {@linkplain #ordinal() ordinal}: the <em>raw value</em> of a
+ * <em>configuration path</em> is taken from the source of the highest ordinal which has one. Configuration sources
+ * are discovered with the {@link java.util.ServiceLoader}, or supplied explicitly, and combined with
+ * {@link ConfigSources}.</p>
+ *
+ * <p>A source declares whether it is {@linkplain #isImmutable() immutable}. The content of immutable sources is read
+ * once, and merged with the content of the other immutable sources into a single configuration tree. Only mutable
+ * sources are consulted on every lookup.</p>
+ *
+ * <p>Implementations of the methods in this interface must be safe for concurrent use by multiple threads.</p>
+ *
+ * @see ConfigSources
+ */
+public interface ConfigSource {
+    /**
+     * The ordinal of a source that does not declare one, and of the <em>META-INF/jakarta-config.properties</em>
+     * files.
+     */
+    int DEFAULT_ORDINAL = 100;
+
+    /**
+     * Returns the name of this source, for diagnostics.
+     *
+     * @return the name of this source; never {@code null}
+     */
+    default String name() {
+        return getClass().getName();
+    }
+
+    /**
+     * Returns the ordinal of this source; a source of a higher ordinal overrides the <em>raw values</em> of a source
+     * of a lower ordinal.
+     *
+     * @return the ordinal of this source
+     */
+    default int ordinal() {
+        return DEFAULT_ORDINAL;
+    }
+
+    /**
+     * Returns whether the content of this source never changes, so that it can be read once and cached.
+     *
+     * @return {@code true} if the content of this source never changes; {@code false} by default
+     */
+    default boolean isImmutable() {
+        return false;
+    }
+
+    /**
+     * Returns the current content of this source.
+     *
+     * @return the root of the configuration tree of this source; never {@code null}
+     */
+    ConfigNode tree();
+
+    /**
+     * Returns the <em>raw value</em> of the supplied <em>configuration path</em>.
+     *
+     * <p>The default implementation looks the <em>configuration path</em> up in the {@linkplain #tree()
+     * configuration tree}. Mutable sources should override this method with a direct lookup.</p>
+     *
+     * @param path the <em>configuration path</em>; must not be {@code null}
+     * @return the <em>raw value</em>, or {@code null} if this source has none for the supplied {@code path}
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     */
+    default String value(ConfigPath path) {
+        ConfigNode node = tree().get(path);
+        return node == null ? null : node.value();
+    }
+}
@@ -0,0 +1,756 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+
+/**
+ * The combination of {@link ConfigSource}s, layered by {@linkplain ConfigSource#ordinal() ordinal}.
+ *
+ * <p>The content of every run of {@linkplain ConfigSource#isImmutable() immutable} sources that are not separated by
+ * a mutable source is read once, and merged into a single configuration tree. A lookup therefore consults every
+ * mutable source, and one configuration tree per run of immutable sources, rather than every source:</p>
+ *
+ * <blockquote><pre> {@linkplain ConfigSources} sources = {@linkplain ConfigSources}.{@linkplain #load(ClassLoader) load}(classLoader);
+ *String value = sources.{@linkplain #value(ConfigPath) value}({@linkplain ConfigPath}.{@linkplain ConfigPath#of(String...) of}("server", "port"));</pre></blockquote>
+ *
+ * <p>A run of immutable sources is merged into an {@linkplain ConfigNode#overlay(ConfigNode) overlay} of the
+ * configuration tree of its source of the lowest ordinal, which is shared rather than copied. Many combinations, such
+ * as those of the deployments of an application server, may therefore share a large immutable base source, at a cost
+ * proportional to the size of their own sources:</p>
+ *
+ * <blockquote><pre> {@linkplain ConfigSource} base = {@linkplain ConfigSources}.{@linkplain #of(String, int, ConfigNode) of}("base", 100, baseTree);
+ *{@linkplain ConfigSources} tenant = {@linkplain ConfigSources}.{@linkplain #of(Collection) of}({@linkplain List}.of(base, {@linkplain ConfigSources}.{@linkplain #of(String, int, ConfigNode) of}("tenant", 200, tenantTree)));</pre></blockquote>
+ *
+ * <p>The files of many combinations are parsed once with a {@link Cache} of their owner, such as the application
+ * server, which holds the configuration trees parsed from the files for as long as it is referenced.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ConfigSources {
+    /**
+     * The ordinal of the {@linkplain #systemProperties() system properties}.
+     */
+    public static final int SYSTEM_PROPERTIES_ORDINAL = 400;
+
+    /**
+     * The ordinal of the {@linkplain #environmentVariables() environment variables}.
+     */
+    public static final int ENVIRONMENT_VARIABLES_ORDINAL = 300;
+
+    /**
+     * The system property of the path of the {@linkplain ConfigImage configuration image} of the application, which
+     * {@link #load(ClassLoader)} opens if it is set.
+     */
+    public static final String IMAGE_PROPERTY = "jakarta.config.image";
+
+    private static final String RESOURCE = "META-INF/jakarta-config.properties";
+
+    private final List<ConfigSource> sources;
+    private final List<Layer> layers;
+
+    private ConfigSources(List<ConfigSource> sources, List<Layer> layers) {
+        this.sources = sources;
+        this.layers = layers;
+    }
+
+    /**
+     * Combines the supplied sources.
+     *
+     * <p>Of two sources of the same ordinal, the source that comes first in the supplied collection takes
+     * precedence. The immutable sources are read by this method.</p>
+     *
+     * @param sources the sources; must not be {@code null} or contain {@code null}
+     * @return the combination of the supplied sources; never {@code null}
+     * @exception NullPointerException if the supplied {@code sources}, or any of its elements, was {@code null}
+     */
+    public static ConfigSources of(Collection<? extends ConfigSource> sources) {
+        List<ConfigSource> ordered = new ArrayList<>(sources.size());
+        for (ConfigSource source : sources) {
+            ordered.add(Objects.requireNonNull(source, "source"));
+        }
+        // stable, so the order of the supplied collection breaks ties
+        ordered.sort(Comparator.comparingInt(ConfigSource::ordinal).reversed());
+
+        List<Layer> layers = new ArrayList<>();
+        List<ConfigSource> run = new ArrayList<>();
+        for (ConfigSource source : ordered) {
+            if (source.isImmutable()) {
+                run.add(source);
+            } else {
+                if (!run.isEmpty()) {
+                    layers.add(new ImmutableLayer(run));
+                    run.clear();
+                }
+                layers.add(new MutableLayer(source));
+            }
+        }
+        if (!run.isEmpty()) {
+            layers.add(new ImmutableLayer(run));
+        }
+        return new ConfigSources(Collections.unmodifiableList(ordered), List.copyOf(layers));
+    }
+
+    /**
+     * Combines the {@linkplain #classpath(ClassLoader) classpath <code>properties</code> files}, the
+     * {@linkplain #systemProperties() system properties}, the {@linkplain #environmentVariables() environment
+     * variables}, and every {@link ConfigSource} located by the
+     * {@link ServiceLoader} with the supplied {@link ClassLoader}.
+     *
+     * <p>If the {@value #IMAGE_PROPERTY} system property is set, the {@linkplain ConfigImage configuration image} of
+     * its path is opened as well, with the {@linkplain ConfigSource#DEFAULT_ORDINAL default ordinal}, and takes
+     * precedence over the classpath <code>properties</code> files:</p>
+     *
+     * <blockquote><pre> java -Djakarta.config.image=target/config.image -jar application.jar</pre></blockquote>
+     *
+     * @param classLoader the {@link ClassLoader} used to locate the sources; may be {@code null} to indicate the
+     *                    system classloader
+     * @return the combination of the sources; never {@code null}
+     * @exception java.util.ServiceConfigurationError if a {@link ServiceLoader} problem occurred
+     * @exception ConfigException if a source could not be read, or the configuration image could not be opened
+     */
+    public static ConfigSources load(ClassLoader classLoader) {
+        List<ConfigSource> sources = new ArrayList<>();
+        sources.add(systemProperties());
+        sources.add(environmentVariables());
+        for (ConfigSource source : ServiceLoader.load(ConfigSource.class, classLoader)) {
+            sources.add(source);
+        }
+        String image = System.getProperty(IMAGE_PROPERTY);
+        if (image != null) {
+            // of two sources of the same ordinal, the first one takes precedence
+            sources.add(ConfigImage.open(Path.of(image), ConfigSource.DEFAULT_ORDINAL));
+        }
+        sources.add(classpath(classLoader));
+        return of(sources);
+    }
+
+    /**
+     * Returns an immutable source of every <em>META-INF/jakarta-config.properties</em> file found by the supplied
+     * {@link ClassLoader}, of the {@linkplain ConfigSource#DEFAULT_ORDINAL default ordinal}. Of two files with the
+     * same key, the file found first takes precedence.
+     *
+     * <p>The files are read and parsed by this method.</p>
+     *
+     * @param classLoader the {@link ClassLoader}; may be {@code null} to indicate the system classloader
+     * @return a source of the classpath <code>properties</code> files; never {@code null}
+     * @exception ConfigException if a file could not be read or parsed
+     */
+    public static ConfigSource classpath(ClassLoader classLoader) {
+        return classpathSource(classLoader, null);
+    }
+
+    /**
+     * Returns an immutable source of every <em>META-INF/jakarta-config.properties</em> file found by the supplied
+     * {@link ClassLoader}, as {@link #classpath(ClassLoader)} does, whose configuration trees are parsed with the
+     * supplied {@link Cache}.
+     *
+     * @param classLoader the {@link ClassLoader}; may be {@code null} to indicate the system classloader
+     * @param cache the {@link Cache} of the configuration trees of the files; must not be {@code null}
+     * @return a source of the classpath <code>properties</code> files; never {@code null}
+     * @exception NullPointerException if the supplied {@code cache} was {@code null}
+     * @exception ConfigException if a file could not be read or parsed
+     */
+    public static ConfigSource classpath(ClassLoader classLoader, Cache cache) {
+        return classpathSource(classLoader, Objects.requireNonNull(cache, "cache"));
+    }
+
+    private static ConfigSource classpathSource(ClassLoader classLoader, Cache cache) {
+        ClassLoader loader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        List<URL> resources = new ArrayList<>();
+        Probe probe = ConfigInstrumentation.sourceRead("classpath:" + RESOURCE);
+        try {
+            Enumeration<URL> found = loader.getResources(RESOURCE);
+            while (found.hasMoreElements()) {
+                resources.add(found.nextElement());
+            }
+            ConfigNode tree = ConfigNode.empty();
+            // the file found first overlays the others, so it is overlaid last
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                URL resource = resources.get(i);
+                tree = tree.overlay(cache == null ? parse(read(resource), resource.toString(), false)
+                                                  : cache.resource(resource));
+            }
+            if (probe != null) {
+                probe.end();
+            }
+            return new TreeSource("classpath:" + RESOURCE, ConfigSource.DEFAULT_ORDINAL, tree);
+        } catch (IOException e) {
+            ConfigException exception = new ConfigException(e);
+            if (probe != null) {
+                probe.end(exception);
+            }
+            throw exception;
+        } catch (RuntimeException e) {
+            if (probe != null) {
+                probe.end(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns an immutable source of the supplied file. A file whose name ends with <code>.yaml</code> or
+     * <code>.yml</code> is parsed by the {@link YamlParser}, any other file by the {@link PropertiesParser}.
+     *
+     * <p>The file is read and parsed by this method.</p>
+     *
+     * @param file the file; must not be {@code null}
+     * @param ordinal the ordinal of the source
+     * @return a source of the file; never {@code null}
+     * @exception NullPointerException if the supplied {@code file} was {@code null}
+     * @exception ConfigException if the file could not be read or parsed
+     */
+    public static ConfigSource file(Path file, int ordinal) {
+        return fileSource(file, ordinal, null);
+    }
+
+    /**
+     * Returns an immutable source of the supplied file, as {@link #file(Path, int)} does, whose configuration tree is
+     * parsed with the supplied {@link Cache}.
+     *
+     * @param file the file; must not be {@code null}
+     * @param ordinal the ordinal of the source
+     * @param cache the {@link Cache} of the configuration trees of the files; must not be {@code null}
+     * @return a source of the file; never {@code null}
+     * @exception NullPointerException if the supplied {@code file} or {@code cache} was {@code null}
+     * @exception ConfigException if the file could not be read or parsed
+     */
+    public static ConfigSource file(Path file, int ordinal, Cache cache) {
+        return fileSource(file, ordinal, Objects.requireNonNull(cache, "cache"));
+    }
+
+    private static ConfigSource fileSource(Path file, int ordinal, Cache cache) {
+        String fileName = String.valueOf(file.getFileName());
+        Probe probe = ConfigInstrumentation.sourceRead(file.toString());
+        ConfigNode tree;
+        try {
+            boolean yaml = fileName.endsWith(".yaml") || fileName.endsWith(".yml");
+            tree = cache == null ? parse(Files.readAllBytes(file), file.toString(), yaml)
+                                 : cache.file(file, file.toString(), yaml);
+        } catch (IOException e) {
+            ConfigException exception = new ConfigException(e);
+            if (probe != null) {
+                probe.end(exception);
+            }
+            throw exception;
+        } catch (RuntimeException e) {
+            if (probe != null) {
+                probe.end(e);
+            }
+            throw e;
+        }
+        if (probe != null) {
+            probe.end();
+        }
+        return new TreeSource(file.toString(), ordinal, tree);
+    }
+
+    /**
+     * Returns a mutable source of the {@linkplain System#getProperties() system properties}, of the
+     * {@linkplain #SYSTEM_PROPERTIES_ORDINAL system properties ordinal}. The keys of the system properties are
+     * <code>properties</code> keys; a key that is not a valid <code>properties</code> key is ignored.
+     *
+     * @return a source of the system properties; never {@code null}
+     */
+    public static ConfigSource systemProperties() {
+        return SystemPropertiesSource.INSTANCE;
+    }
+
+    /**
+     * Returns a source of the {@linkplain System#getenv() environment variables}, of the
+     * {@linkplain #ENVIRONMENT_VARIABLES_ORDINAL environment variables ordinal}.
+     *
+     * <p>The <em>raw value</em> of a <em>configuration path</em> is the value of the first of these environment
+     * variables that is defined:</p>
+     * <ol>
+     *     <li>the variable named after the <code>properties</code> key of the path, such as
+     *     <code>server.io-threads</code></li>
+     *     <li>a variable whose <em>normalized name</em> is equal to the normalized name of the path, such as
+     *     <code>SERVER_IO_THREADS</code> or <code>server_io_threads</code></li>
+     * </ol>
+     *
+     * <p>The normalized name of a configuration path is its configuration keys, separated by underscores
+     * (<code>_</code>), with every character that is not an ASCII letter or digit replaced by an underscore, and every
+     * letter converted to upper case. A dot or a backslash within a configuration key is therefore replaced by an
+     * underscore, as the separator of the keys; distinct paths may share a normalized name. Of two environment
+     * variables with the same normalized name, the variable whose name is already normalized takes precedence, and
+     * then the variable whose name comes first in lexicographic order.</p>
+     *
+     * <p>The environment variables are read, and indexed by normalized name, once, so that a lookup does not
+     * depend on the number of environment variables. The source is not {@linkplain ConfigSource#isImmutable()
+     * immutable}, so that its lookups by normalized name are not replaced by a merged tree.</p>
+     *
+     * <p>A normalized name does not determine a configuration path, since distinct paths share it. The lookups by
+     * normalized name are therefore lookup-only overrides: the {@linkplain ConfigSource#tree() tree} of the source
+     * contains each environment variable whose name is a valid <code>properties</code> key, at the path of that
+     * key, but not <code>SERVER_IO_THREADS</code>. Such a variable overrides the <em>raw value</em> of a
+     * configuration path that is looked up by {@link #value(ConfigPath)}, and does not add a configuration key to
+     * the {@linkplain #tree() merged tree}.</p>
+     *
+     * @return a source of the environment variables; never {@code null}
+     */
+    public static ConfigSource environmentVariables() {
+        return EnvironmentSource.INSTANCE;
+    }
+
+    /**
+     * Returns a source of the supplied environment variables, as {@link #environmentVariables()} does.
+     */
+    static ConfigSource environmentVariables(Map<String, String> variables) {
+        return new EnvironmentSource(Map.copyOf(variables));
+    }
+
+    /**
+     * Returns an immutable source of the supplied configuration tree.
+     *
+     * @param name the name of the source; must not be {@code null}
+     * @param ordinal the ordinal of the source
+     * @param tree the content of the source; must not be {@code null}
+     * @return an immutable source; never {@code null}
+     * @exception NullPointerException if the supplied {@code name} or {@code tree} was {@code null}
+     */
+    public static ConfigSource of(String name, int ordinal, ConfigNode tree) {
+        return new TreeSource(Objects.requireNonNull(name, "name"), ordinal, Objects.requireNonNull(tree, "tree"));
+    }
+
+    /**
+     * Returns the combined sources, in order of precedence.
+     *
+     * @return an unmodifiable list of the sources; never {@code null}
+     */
+    public List<ConfigSource> sources() {
+        return sources;
+    }
+
+    /**
+     * Returns the <em>raw value</em> of the supplied <em>configuration path</em>, of the source of the highest
+     * ordinal which has one.
+     *
+     * @param path the <em>configuration path</em>; must not be {@code null}
+     * @return the <em>raw value</em>, or {@code null} if no source has one
+     * @exception NullPointerException if the supplied {@code path} was {@code null}
+     */
+    public String value(ConfigPath path) {
+        Objects.requireNonNull(path, "path");
+        for (Layer layer : layers) {
+            String value = layer.value(path);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the current content of the combined sources, merged into a single configuration tree.
+     *
+     * <p>The merged tree does not contain the lookup-only overrides of the sources, such as the
+     * {@linkplain #environmentVariables() environment variables} of a normalized name.</p>
+     *
+     * @return the root of the merged configuration tree; never {@code null}
+     */
+    public ConfigNode tree() {
+        if (layers.size() == 1) {
+            return layers.get(0).tree();
+        }
+        ConfigNode tree = ConfigNode.empty();
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            tree = tree.overlay(layers.get(i).tree());
+        }
+        return tree;
+    }
+
+    private static ConfigNode parse(byte[] content, String name, boolean yaml) throws IOException {
+        ConfigNode.Builder builder = ConfigNode.builder();
+        if (yaml) {
+            YamlParser.parse(content, name, builder::put);
+        } else {
+            PropertiesParser.parse(content, name, builder::put);
+        }
+        return builder.build();
+    }
+
+    private static byte[] read(URL resource) throws IOException {
+        try (InputStream in = resource.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * A cache of the configuration trees parsed from files, which parses a file again only if it changed.
+     *
+     * <p>A file is considered unchanged if its size and last modification time are those it was last parsed with;
+     * an unchanged file is not read. A classpath file that is not a file of the default file system, such as an
+     * entry of a JAR file, is read, and considered unchanged if its content has the SHA-256 digest of the content it
+     * was last parsed from. The cache holds the configuration trees, but not the content they were parsed from.</p>
+     *
+     * <p>A {@link Cache} is owned by its creator: the configuration trees are held until the {@link Cache} is
+     * {@linkplain #clear() cleared} or is no longer referenced, so that many {@linkplain ConfigSources combinations}
+     * of the same owner share the configuration trees of the files they have in common:</p>
+     *
+     * <blockquote><pre> {@linkplain Cache} cache = new {@linkplain Cache}();
+     *{@linkplain ConfigSource} base = {@linkplain ConfigSources}.{@linkplain ConfigSources#file(Path, int, Cache) file}(Path.of("base.yaml"), 100, cache);
+     *{@linkplain ConfigSource} deployment = {@linkplain ConfigSources}.{@linkplain ConfigSources#classpath(ClassLoader, Cache) classpath}(deploymentLoader, cache);</pre></blockquote>
+     *
+     * <p>This class is safe for concurrent use by multiple threads.</p>
+     */
+    public static final class Cache {
+        // the configuration trees last parsed, and the stamps of the content they were parsed from, by path or URL
+        private final Map<Object, Parsed> parsed = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a new, empty {@link Cache}.
+         */
+        public Cache() {
+        }
+
+        /**
+         * Discards every configuration tree of this {@link Cache}.
+         */
+        public void clear() {
+            parsed.clear();
+        }
+
+        ConfigNode file(Path file, String name, boolean yaml) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Object stamp = List.of(attributes.size(), attributes.lastModifiedTime());
+            Object key = file.toAbsolutePath().normalize();
+            Parsed last = parsed.get(key);
+            if (last != null && last.stamp.equals(stamp)) {
+                return last.tree;
+            }
+            // the content is read after the stamp, so that a racing change is parsed again; a racing thread parses an
+            // equal configuration tree
+            ConfigNode tree = parse(Files.readAllBytes(file), name, yaml);
+            parsed.put(key, new Parsed(stamp, tree));
+            return tree;
+        }
+
+        ConfigNode resource(URL resource) throws IOException {
+            if ("file".equals(resource.getProtocol())) {
+                try {
+                    return file(Path.of(resource.toURI()), resource.toString(), false);
+                } catch (URISyntaxException | IllegalArgumentException e) {
+                    // not a file of the default file system
+                }
+            }
+            byte[] content = read(resource);
+            Object stamp = ByteBuffer.wrap(digest(content));
+            Object key = resource.toString();
+            Parsed last = parsed.get(key);
+            if (last != null && last.stamp.equals(stamp)) {
+                return last.tree;
+            }
+            ConfigNode tree = parse(content, resource.toString(), false);
+            parsed.put(key, new Parsed(stamp, tree));
+            return tree;
+        }
+
+        private static byte[] digest(byte[] content) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(content);
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform supports SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private interface Layer {
+        String value(ConfigPath path);
+
+        ConfigNode tree();
+    }
+
+    /**
+     * A run of immutable sources, merged once into an {@linkplain ConfigNode#overlay(ConfigNode) overlay} of the
+     * source of the lowest ordinal, which shares its configuration entries. A single immutable source, such as a
+     * {@link ConfigImage}, is not read until it is looked up.
+     */
+    private static final class ImmutableLayer implements Layer {
+        private final ConfigSource source;
+        private final ConfigNode tree;
+
+        ImmutableLayer(List<ConfigSource> sources) {
+            if (sources.size() == 1) {
+                source = sources.get(0);
+                tree = null;
+            } else {
+                ConfigNode merged = ConfigNode.empty();
+                for (int i = sources.size() - 1; i >= 0; i--) {
+                    merged = merged.overlay(sources.get(i).tree());
+                }
+                source = null;
+                tree = merged;
+            }
+        }
+
+        @Override
+        public String value(ConfigPath path) {
+            if (source != null) {
+                return source.value(path);
+            }
+            ConfigNode node = tree.get(path);
+            return node == null ? null : node.value();
+        }
+
+        @Override
+        public ConfigNode tree() {
+            return source == null ? tree : source.tree();
+        }
+    }
+
+    private static final class MutableLayer implements Layer {
+        private final ConfigSource source;
+
+        MutableLayer(ConfigSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public String value(ConfigPath path) {
+            return source.value(path);
+        }
+
+        @Override
+        public ConfigNode tree() {
+            return source.tree();
+        }
+    }
+
+    private static final class Parsed {
+        private final Object stamp;
+        private final ConfigNode tree;
+
+        Parsed(Object stamp, ConfigNode tree) {
+            this.stamp = stamp;
+            this.tree = tree;
+        }
+    }
+
+    private static final class TreeSource implements ConfigSource {
+        private final String name;
+        private final int ordinal;
+        private final ConfigNode tree;
+
+        TreeSource(String name, int ordinal, ConfigNode tree) {
+            this.name = name;
+            this.ordinal = ordinal;
+            this.tree = tree;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+        @Override
+        public boolean isImmutable() {
+            return true;
+        }
+
+        @Override
+        public ConfigNode tree() {
+            return tree;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class SystemPropertiesSource implements ConfigSource {
+        private static final SystemPropertiesSource INSTANCE = new SystemPropertiesSource();
+
+        @Override
+        public String name() {
+            return "system properties";
+        }
+
+        @Override
+        public int ordinal() {
+            return SYSTEM_PROPERTIES_ORDINAL;
+        }
+
+        @Override
+        public ConfigNode tree() {
+            ConfigNode.Builder builder = ConfigNode.builder();
+            Properties properties = System.getProperties();
+            for (Map.Entry<Object, Object> entry : new ArrayList<>(properties.entrySet())) {
+                if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                    try {
+                        builder.put(ConfigPath.parse((String) entry.getKey()), (String) entry.getValue());
+                    } catch (IllegalArgumentException e) {
+                        // not a properties key of the specification
+                    }
+                }
+            }
+            return builder.build();
+        }
+
+        @Override
+        public String value(ConfigPath path) {
+            return System.getProperty(path.toString());
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+    }
+
+    private static final class EnvironmentSource implements ConfigSource {
+        private static final EnvironmentSource INSTANCE = read();
+
+        private final Map<String, String> variables;
+        private final Map<String, String> normalized;
+
+        EnvironmentSource(Map<String, String> variables) {
+            this.variables = variables;
+            Map<String, String> names = new HashMap<>((int) (variables.size() / 0.75f) + 1);
+            for (String name : variables.keySet()) {
+                names.merge(normalize(name), name, EnvironmentSource::precedence);
+            }
+            Map<String, String> normalized = new HashMap<>((int) (names.size() / 0.75f) + 1);
+            for (Map.Entry<String, String> entry : names.entrySet()) {
+                normalized.put(entry.getKey(), variables.get(entry.getValue()));
+            }
+            this.normalized = normalized;
+        }
+
+        private static EnvironmentSource read() {
+            Probe probe = ConfigInstrumentation.sourceRead("environment variables");
+            try {
+                EnvironmentSource source = new EnvironmentSource(Map.copyOf(System.getenv()));
+                if (probe != null) {
+                    probe.end();
+                }
+                return source;
+            } catch (RuntimeException e) {
+                if (probe != null) {
+                    probe.end(e);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public String name() {
+            return "environment variables";
+        }
+
+        @Override
+        public int ordinal() {
+            return ENVIRONMENT_VARIABLES_ORDINAL;
+        }
+
+        @Override
+        public ConfigNode tree() {
+            ConfigNode.Builder builder = ConfigNode.builder();
+            for (Map.Entry<String, String> entry : variables.entrySet()) {
+                try {
+                    builder.put(ConfigPath.parse(entry.getKey()), entry.getValue());
+                } catch (IllegalArgumentException e) {
+                    // not a properties key of the specification
+                }
+            }
+            return builder.build();
+        }
+
+        @Override
+        public String value(ConfigPath path) {
+            String value = variables.get(path.toString());
+            return value != null ? value : normalized.get(normalize(path));
+        }
+
+        @Override
+        public String toString() {
+            return name();
+        }
+
+        private static String precedence(String name, String other) {
+            boolean normalized = name.equals(normalize(name));
+            if (normalized != other.equals(normalize(other))) {
+                return normalized ? name : other;
+            }
+            return name.compareTo(other) <= 0 ? name : other;
+        }
+
+        private static String normalize(ConfigPath path) {
+            StringBuilder builder = new StringBuilder(path.size() * 8);
+            for (String key : path.toArray()) {
+                if (builder.length() > 0) {
+                    builder.append('_');
+                }
+                normalize(key, builder);
+            }
+            return builder.toString();
+        }
+
+        private static String normalize(String name) {
+            return normalize(name, new StringBuilder(name.length())).toString();
+        }
+
+        private static StringBuilder normalize(String name, StringBuilder builder) {
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c >= 'a' && c <= 'z') {
+                    builder.append((char) (c - 'a' + 'A'));
+                } else if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                    builder.append(c);
+                } else {
+                    builder.append('_');
+                }
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Period;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import jakarta.config.spi.Converter;
+
+/**
+ * The registry of the default {@linkplain Converter converters}, which convert a <em>raw value</em> to the type of a
+ * {@link jakarta.config.ConfigMapping} member, or to the type passed to {@link jakarta.config.Config#load(Class)}.
+ *
+ * <p>The converter of a type is resolved once, and is then shared by every conversion to that type. It is, in order
+ * of precedence:</p>
+ *
+ * <ol>
+ *     <li>the raw value itself, for {@link String}, {@link CharSequence} and {@link Object}</li>
+ *     <li>a built-in converter, for the primitive types and their wrapper types, {@link BigInteger},
+ *     {@link BigDecimal}, {@link Duration}, {@link Period}, {@link Instant}, {@link LocalDate}, {@link LocalTime},
+ *     {@link LocalDateTime}, {@link URI}, {@link Path} and {@link UUID}</li>
+ *     <li>{@link Enum#valueOf(Class, String)}, for an enum type</li>
+ *     <li>the first public static method of the type named <code>valueOf</code>, <code>of</code> or
+ *     <code>parse</code>, in that order, with a single {@link String} or {@link CharSequence} parameter, that
+ *     returns the type</li>
+ *     <li>the public constructor of the type with a single {@link String} parameter</li>
+ * </ol>
+ *
+ * <p>A <code>boolean</code> raw value must be equal, ignoring case, to <code>true</code> or <code>false</code>; any
+ * other raw value, such as a misspelling, is a conversion failure rather than {@code false}. A <code>char</code> raw
+ * value must be a single character. A conversion failure is thrown as
+ * an {@link IllegalArgumentException} whose message names the raw value and the type.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class Converters {
+    private static final Map<Class<?>, Converter<?>> BUILT_IN = Map.ofEntries(
+            Map.entry(String.class, value -> value),
+            Map.entry(CharSequence.class, value -> value),
+            Map.entry(Object.class, value -> value),
+            Map.entry(boolean.class, Converters::bool),
+            Map.entry(Boolean.class, Converters::bool),
+            Map.entry(byte.class, Byte::valueOf),
+            Map.entry(Byte.class, Byte::valueOf),
+            Map.entry(short.class, Short::valueOf),
+            Map.entry(Short.class, Short::valueOf),
+            Map.entry(int.class, Integer::valueOf),
+            Map.entry(Integer.class, Integer::valueOf),
+            Map.entry(long.class, Long::valueOf),
+            Map.entry(Long.class, Long::valueOf),
+            Map.entry(float.class, Float::valueOf),
+            Map.entry(Float.class, Float::valueOf),
+            Map.entry(double.class, Double::valueOf),
+            Map.entry(Double.class, Double::valueOf),
+            Map.entry(char.class, Converters::character),
+            Map.entry(Character.class, Converters::character),
+            Map.entry(BigInteger.class, BigInteger::new),
+            Map.entry(BigDecimal.class, BigDecimal::new),
+            Map.entry(Duration.class, Duration::parse),
+            Map.entry(Period.class, Period::parse),
+            Map.entry(Instant.class, Instant::parse),
+            Map.entry(LocalDate.class, LocalDate::parse),
+            Map.entry(LocalTime.class, LocalTime::parse),
+            Map.entry(LocalDateTime.class, LocalDateTime::parse),
+            Map.entry(URI.class, URI::create),
+            Map.entry(Path.class, Path::of),
+            Map.entry(UUID.class, UUID::fromString));
+    private static final String[] FACTORIES = {"valueOf", "of", "parse"};
+    private static final MethodType CONVERSION = MethodType.methodType(Object.class, String.class);
+
+    private static final ClassValue<Converter<?>> CONVERTERS = new ClassValue<>() {
+        @Override
+        protected Converter<?> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+    private static final ClassValue<Converter<?>> INSTANCES = new ClassValue<>() {
+        @Override
+        protected Converter<?> computeValue(Class<?> type) {
+            return instantiate(type);
+        }
+    };
+
+    private Converters() {
+    }
+
+    /**
+     * Returns the default converter of the supplied type.
+     *
+     * <p>The converter of a primitive type converts to its wrapper type.</p>
+     *
+     * @param <T> the type
+     * @param type the type; must not be {@code null}
+     * @return the converter; never {@code null}
+     * @exception IllegalArgumentException if there is no conversion to the supplied {@code type}
+     * @exception NullPointerException if the supplied {@code type} was {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Converter<T> of(Class<T> type) {
+        Converter<?> converter = CONVERTERS.get(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("No conversion to " + type.getName());
+        }
+        return (Converter<T>) converter;
+    }
+
+    /**
+     * Converts the supplied <em>raw value</em> with the {@linkplain #of(Class) default converter} of the supplied
+     * type.
+     *
+     * @param <T> the type
+     * @param type the type; must not be {@code null}
+     * @param value the <em>raw value</em>; must not be {@code null}
+     * @return the converted value; never {@code null}
+     * @exception IllegalArgumentException if there is no conversion to the supplied {@code type}, or if the supplied
+     *            {@code value} cannot be converted
+     * @exception NullPointerException if any of the supplied arguments was {@code null}
+     */
+    public static <T> T convert(Class<T> type, String value) {
+        return of(type).convert(value);
+    }
+
+    /**
+     * Returns the instance of the supplied converter type, such as the value of
+     * {@link jakarta.config.ConfigConverter}, which is created once with its public constructor without parameters.
+     *
+     * @param <T> the type of the converted values
+     * @param converterType the converter type; must not be {@code null}
+     * @return the shared instance of the converter type; never {@code null}
+     * @exception IllegalArgumentException if the supplied {@code converterType} cannot be instantiated
+     * @exception NullPointerException if the supplied {@code converterType} was {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Converter<T> instance(Class<? extends Converter<? extends T>> converterType) {
+        return (Converter<T>) INSTANCES.get(converterType);
+    }
+
+    private static Converter<?> resolve(Class<?> type) {
+        Converter<?> builtIn = BUILT_IN.get(type);
+        if (builtIn != null) {
+            return checked(type, builtIn);
+        }
+        if (type.isEnum()) {
+            return checked(type, value -> enumValue(type, value));
+        }
+        if (type.isPrimitive() || type.isArray()) {
+            return null;
+        }
+        MethodHandle handle = factory(type);
+        if (handle == null) {
+            try {
+                handle = MethodHandles.publicLookup()
+                                      .findConstructor(type, MethodType.methodType(void.class, String.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+        MethodHandle conversion = handle.asType(CONVERSION);
+        return checked(type, value -> {
+            try {
+                return (Object) conversion.invokeExact(value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(e);
+            }
+        });
+    }
+
+    private static MethodHandle factory(Class<?> type) {
+        for (String name : FACTORIES) {
+            for (Class<?> parameter : new Class<?>[] {String.class, CharSequence.class}) {
+                Method method;
+                try {
+                    method = type.getMethod(name, parameter);
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                if (Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                    try {
+                        return MethodHandles.publicLookup().unreflect(method);
+                    } catch (IllegalAccessException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Converter<?> instantiate(Class<?> converterType) {
+        if (!Converter.class.isAssignableFrom(converterType)) {
+            throw new IllegalArgumentException(converterType.getName() + " is not a " + Converter.class.getName());
+        }
+        try {
+            MethodHandle constructor = MethodHandles.publicLookup()
+                    .findConstructor(converterType, MethodType.methodType(void.class));
+            return (Converter<?>) constructor.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(converterType.getName()
+                    + " does not declare a public constructor without parameters", e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Unable to instantiate " + converterType.getName(), e);
+        }
+    }
+
+    /**
+     * Wraps the supplied converter, to report a failed conversion consistently.
+     */
+    private static <T> Converter<T> checked(Class<?> type, Converter<T> converter) {
+        return value -> {
+            Objects.requireNonNull(value, "value");
+            try {
+                return converter.convert(value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unable to convert '" + value + "' to " + type.getName(), e);
+            }
+        };
+    }
+
+    private static Boolean bool(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Neither true nor false");
+    }
+
+    private static Character character(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Not a single character");
+        }
+        return value.charAt(0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String value) {
+        return Enum.valueOf((Class) type, value);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import jakarta.config.ConfigPath;
+
+/**
+ * The JDK Flight Recorder events of {@link ConfigInstrumentation}. This class is only loaded once the events are
+ * {@linkplain ConfigInstrumentation#enableFlightRecorder() requested}, and if the <code>jdk.jfr</code> module is in
+ * the boot layer.
+ */
+final class JfrEvents {
+    private JfrEvents() {
+    }
+
+    /**
+     * Tracks whether a recording is running.
+     */
+    static void install() {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                update(recorder);
+            }
+
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                update(FlightRecorder.getFlightRecorder());
+            }
+        });
+    }
+
+    private static void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording recording : recorder.getRecordings()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        ConfigInstrumentation.recording(running);
+    }
+
+    static Object begin(int kind, Class<?> type, ConfigPath path, String name) {
+        ConfigEvent event;
+        switch (kind) {
+        case ConfigInstrumentation.Probe.BOOTSTRAP:
+            BootstrapEvent bootstrap = new BootstrapEvent();
+            bootstrap.classLoader = name;
+            event = bootstrap;
+            break;
+        case ConfigInstrumentation.Probe.LOAD:
+            LoadEvent load = new LoadEvent();
+            load.type = type;
+            load.path = path.toString();
+            event = load;
+            break;
+        case ConfigInstrumentation.Probe.SOURCE_READ:
+            SourceReadEvent sourceRead = new SourceReadEvent();
+            sourceRead.source = name;
+            event = sourceRead;
+            break;
+        case ConfigInstrumentation.Probe.CONVERSION:
+            ConversionEvent conversion = new ConversionEvent();
+            conversion.type = type;
+            event = conversion;
+            break;
+        default:
+            event = new ReloadEvent();
+            break;
+        }
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commit(Object event, Throwable failure, int changes) {
+        ConfigEvent configEvent = (ConfigEvent) event;
+        configEvent.end();
+        if (configEvent.shouldCommit()) {
+            if (failure != null) {
+                configEvent.failure = failure.toString();
+            }
+            if (configEvent instanceof ReloadEvent) {
+                ((ReloadEvent) configEvent).changes = changes;
+            }
+            configEvent.commit();
+        }
+    }
+
+    @Category("Jakarta Config")
+    abstract static class ConfigEvent extends Event {
+        @Label("Failure")
+        @Description("The reason the operation failed, if it failed")
+        String failure;
+    }
+
+    @Name("jakarta.config.Bootstrap")
+    @Label("Config Bootstrap")
+    @Description("The bootstrap of a Config")
+    static final class BootstrapEvent extends ConfigEvent {
+        @Label("Class Loader")
+        String classLoader;
+    }
+
+    @Name("jakarta.config.Load")
+    @Label("Config Load")
+    @Description("The load of an object from a Config")
+    static final class LoadEvent extends ConfigEvent {
+        @Label("Type")
+        Class<?> type;
+
+        @Label("Path")
+        String path;
+    }
+
+    @Name("jakarta.config.SourceRead")
+    @Label("Config Source Read")
+    @Description("The read of a configuration source")
+    static final class SourceReadEvent extends ConfigEvent {
+        @Label("Source")
+        String source;
+    }
+
+    @Name("jakarta.config.Conversion")
+    @Label("Config Conversion")
+    @Description("The conversion of a raw value")
+    static final class ConversionEvent extends ConfigEvent {
+        @Label("Type")
+        Class<?> type;
+    }
+
+    @Name("jakarta.config.Reload")
+    @Label("Config Reload")
+    @Description("The reload of a configuration")
+    static final class ReloadEvent extends ConfigEvent {
+        @Label("Changes")
+        @Description("The number of changed configuration paths")
+        int changes;
+    }
+}
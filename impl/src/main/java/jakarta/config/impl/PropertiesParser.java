@@ -0,0 +1,476 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+
+/**
+ * A streaming parser of the <code>properties</code> format, as defined by the <em>Mapping to properties format</em>
+ * section of the specification.
+ *
+ * <p>The parser reads the format that is loadable by {@link java.util.Properties#load(Reader)}, encoded using the
+ * UTF-8 character encoding. It transforms every <code>properties</code> key into a {@link ConfigPath} as defined by
+ * the <em>Property key encoding</em> of the specification, in the same pass that decodes the <code>properties</code>
+ * escapes. Every entry is handed to a consumer, in the order of the file, so an implementation can build its
+ * configuration tree directly, without an intermediate {@link java.util.Properties} table. A later entry with the
+ * same {@link ConfigPath} replaces an earlier one.</p>
+ *
+ * <blockquote><pre> {@linkplain PropertiesParser}.{@linkplain #parse(Path, BiConsumer) parse}(file, (path, value) -&gt; tree.put(path, value));</pre></blockquote>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class PropertiesParser {
+    private static final int BUFFER_SIZE = 8192;
+
+    private PropertiesParser() {
+    }
+
+    /**
+     * Parses the supplied <code>properties</code> file, which is memory-mapped if possible.
+     *
+     * @param file the <code>properties</code> file; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every entry; must not
+     *                 be {@code null}
+     * @exception IOException if the file could not be read
+     * @exception ConfigException if the file is not a valid UTF-8 encoded <code>properties</code> file, or contains a
+     *            key that cannot be transformed into a <em>configuration path</em>
+     */
+    public static void parse(Path file, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(consumer, "consumer");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Input input = size <= Integer.MAX_VALUE
+                    ? new DecodingInput(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), null)
+                    : new DecodingInput(ByteBuffer.allocate(BUFFER_SIZE).flip(), channel);
+            new Parser(input, file.toString(), consumer).parse();
+        }
+    }
+
+    /**
+     * Parses the supplied UTF-8 encoded <code>properties</code> content, named in the messages of the parse failures.
+     */
+    static void parse(byte[] content, String name, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        new Parser(new DecodingInput(ByteBuffer.wrap(content), null), name, consumer).parse();
+    }
+
+    /**
+     * Parses the supplied UTF-8 encoded <code>properties</code> stream, which is not closed.
+     *
+     * @param in the <code>properties</code> stream; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every entry; must not
+     *                 be {@code null}
+     * @exception IOException if the stream could not be read
+     * @exception ConfigException if the stream is not a valid UTF-8 encoded <code>properties</code> stream, or
+     *            contains a key that cannot be transformed into a <em>configuration path</em>
+     */
+    public static void parse(InputStream in, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(in, "in");
+        Objects.requireNonNull(consumer, "consumer");
+        Input input = new DecodingInput(ByteBuffer.allocate(BUFFER_SIZE).flip(), Channels.newChannel(in));
+        new Parser(input, "properties", consumer).parse();
+    }
+
+    /**
+     * Parses the supplied <code>properties</code> characters, which are not closed.
+     *
+     * @param reader the <code>properties</code> characters; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every entry; must not
+     *                 be {@code null}
+     * @exception IOException if the characters could not be read
+     * @exception ConfigException if the characters contain a key that cannot be transformed into a
+     *            <em>configuration path</em>
+     */
+    public static void parse(Reader reader, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(consumer, "consumer");
+        new Parser(new ReaderInput(reader), "properties", consumer).parse();
+    }
+
+    /**
+     * A source of characters.
+     */
+    private abstract static class Input {
+        final char[] buffer = new char[BUFFER_SIZE];
+
+        /**
+         * Reads characters into the buffer.
+         *
+         * @return the number of characters read, or {@code -1} at the end of the input
+         */
+        abstract int fill() throws IOException;
+    }
+
+    private static final class ReaderInput extends Input {
+        private final Reader reader;
+
+        ReaderInput(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        int fill() throws IOException {
+            return reader.read(buffer);
+        }
+    }
+
+    /**
+     * Decodes UTF-8 bytes, either all available in a (memory-mapped) buffer, or read from a channel.
+     */
+    private static final class DecodingInput extends Input {
+        private final ByteBuffer bytes;
+        private final ReadableByteChannel channel;
+        private final CharBuffer chars = CharBuffer.wrap(buffer);
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private boolean endOfInput;
+        private boolean flushed;
+
+        DecodingInput(ByteBuffer bytes, ReadableByteChannel channel) {
+            this.bytes = bytes;
+            this.channel = channel;
+            this.endOfInput = channel == null;
+        }
+
+        @Override
+        int fill() throws IOException {
+            if (flushed) {
+                return -1;
+            }
+            chars.clear();
+            while (true) {
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                if (result.isError()) {
+                    throw new ConfigException("Invalid UTF-8 input at byte " + bytes.position());
+                }
+                if (result.isOverflow()) {
+                    break;
+                }
+                if (endOfInput) {
+                    decoder.flush(chars);
+                    flushed = true;
+                    break;
+                }
+                bytes.compact();
+                int read = channel.read(bytes);
+                bytes.flip();
+                if (read < 0) {
+                    endOfInput = true;
+                } else if (chars.position() > 0) {
+                    break;
+                }
+            }
+            int length = chars.position();
+            return length == 0 && flushed ? -1 : length;
+        }
+    }
+
+    /**
+     * The parser, which follows {@link java.util.Properties#load(Reader)}: logical lines are read first, then split
+     * into a key and a value.
+     */
+    private static final class Parser {
+        private final Input input;
+        private final String name;
+        private final BiConsumer<ConfigPath, String> consumer;
+        private final StringBuilder segment = new StringBuilder();
+        private char[] line = new char[256];
+        private int position;
+        private int limit;
+        private int lineNumber = 1;
+        private int entryLineNumber;
+        private boolean skipLineFeed;
+
+        Parser(Input input, String name, BiConsumer<ConfigPath, String> consumer) {
+            this.input = input;
+            this.name = name;
+            this.consumer = consumer;
+        }
+
+        void parse() throws IOException {
+            // a byte order mark is not part of the first key
+            int first = read();
+            if (first >= 0 && first != '\uFEFF') {
+                position--;
+            }
+            int length;
+            while ((length = readLine()) >= 0) {
+                entry(length);
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = input.fill();
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return input.buffer[position++];
+        }
+
+        /**
+         * Reads a logical line, without comments, leading white space and line continuations.
+         *
+         * @return the length of the logical line, or {@code -1} at the end of the input
+         */
+        private int readLine() throws IOException {
+            int length = 0;
+            boolean skipWhiteSpace = true;
+            boolean commentLine = false;
+            boolean newLine = true;
+            boolean appendedLineBegin = false;
+            boolean precedingBackslash = false;
+
+            while (true) {
+                int read = read();
+                if (read < 0) {
+                    if (length == 0 || commentLine) {
+                        return -1;
+                    }
+                    return precedingBackslash ? length - 1 : length;
+                }
+                char c = (char) read;
+
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (skipWhiteSpace) {
+                    if (c == ' ' || c == '\t' || c == '\f') {
+                        continue;
+                    }
+                    if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                        newLine(c);
+                        continue;
+                    }
+                    skipWhiteSpace = false;
+                    appendedLineBegin = false;
+                }
+                if (newLine) {
+                    newLine = false;
+                    entryLineNumber = lineNumber;
+                    if (c == '#' || c == '!') {
+                        commentLine = true;
+                        continue;
+                    }
+                }
+
+                if (c != '\n' && c != '\r') {
+                    if (commentLine) {
+                        continue;
+                    }
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = c;
+                    precedingBackslash = c == '\\' && !precedingBackslash;
+                    continue;
+                }
+
+                newLine(c);
+                if (commentLine || length == 0) {
+                    commentLine = false;
+                    newLine = true;
+                    skipWhiteSpace = true;
+                    length = 0;
+                    continue;
+                }
+                if (precedingBackslash) {
+                    // a line continuation
+                    length--;
+                    skipWhiteSpace = true;
+                    appendedLineBegin = true;
+                    precedingBackslash = false;
+                    continue;
+                }
+                return length;
+            }
+        }
+
+        private void newLine(char c) {
+            lineNumber++;
+            if (c == '\r') {
+                skipLineFeed = true;
+            }
+        }
+
+        private void entry(int length) {
+            int keyLength = 0;
+            int valueStart = length;
+            boolean hasSeparator = false;
+            boolean precedingBackslash = false;
+            while (keyLength < length) {
+                char c = line[keyLength];
+                if ((c == '=' || c == ':') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    hasSeparator = true;
+                    break;
+                } else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                    valueStart = keyLength + 1;
+                    break;
+                }
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                keyLength++;
+            }
+            while (valueStart < length) {
+                char c = line[valueStart];
+                if (c != ' ' && c != '\t' && c != '\f') {
+                    if (!hasSeparator && (c == '=' || c == ':')) {
+                        hasSeparator = true;
+                    } else {
+                        break;
+                    }
+                }
+                valueStart++;
+            }
+            ConfigPath path = path(keyLength);
+            consumer.accept(path, value(valueStart, length));
+        }
+
+        /**
+         * Decodes the <code>properties</code> escapes of the key and splits it into a {@link ConfigPath}, in one
+         * pass.
+         */
+        private ConfigPath path(int keyLength) {
+            ConfigPath path = ConfigPath.root();
+            if (keyLength == 0) {
+                return path;
+            }
+            segment.setLength(0);
+            boolean escape = false;
+            int i = 0;
+            while (i < keyLength) {
+                char c = line[i++];
+                if (c == '\\' && i < keyLength) {
+                    c = unescape(line[i++]);
+                    if (c == 'u' && line[i - 1] == 'u') {
+                        c = unicode(i, keyLength);
+                        i += 4;
+                    }
+                }
+                if (escape) {
+                    segment.append(c);
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '.') {
+                    path = child(path);
+                } else {
+                    segment.append(c);
+                }
+            }
+            if (escape) {
+                throw error("A key must not end with an escape");
+            }
+            return child(path);
+        }
+
+        private ConfigPath child(ConfigPath path) {
+            try {
+                ConfigPath child = path.child(segment.toString());
+                segment.setLength(0);
+                return child;
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        private String value(int start, int end) {
+            StringBuilder value = null;
+            int i = start;
+            while (i < end) {
+                char c = line[i++];
+                if (c == '\\' && i < end) {
+                    if (value == null) {
+                        value = new StringBuilder(end - start).append(line, start, i - 1 - start);
+                    }
+                    char escaped = line[i++];
+                    if (escaped == 'u') {
+                        value.append(unicode(i, end));
+                        i += 4;
+                    } else {
+                        value.append(unescape(escaped));
+                    }
+                } else if (value != null) {
+                    value.append(c);
+                }
+            }
+            // a value without escapes is copied once
+            return value == null ? new String(line, start, end - start) : value.toString();
+        }
+
+        private char unicode(int start, int end) {
+            if (start + 4 > end) {
+                throw error("Malformed \\uxxxx encoding");
+            }
+            int value = 0;
+            for (int i = start; i < start + 4; i++) {
+                int digit = Character.digit(line[i], 16);
+                if (digit < 0) {
+                    throw error("Malformed \\uxxxx encoding");
+                }
+                value = (value << 4) + digit;
+            }
+            return (char) value;
+        }
+
+        private static char unescape(char c) {
+            switch (c) {
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case 'n':
+                return '\n';
+            case 'f':
+                return '\f';
+            default:
+                return c;
+            }
+        }
+
+        private ConfigException error(String message) {
+            return new ConfigException(name + ":" + entryLineNumber + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+
+/**
+ * A {@link Config} whose configuration is reloaded when its <code>properties</code> files change.
+ *
+ * <p>The <code>properties</code> files are parsed into an immutable configuration tree, a {@link ConfigNode}, which
+ * is turned into a {@link Config} by a factory of the implementation. The files are watched by a background thread,
+ * which parses changed files, and publishes the new configuration with a single reference swap. Readers never block,
+ * and never observe a partially applied change. A file that cannot be parsed, for instance because it is still
+ * being written, leaves the previous configuration in place.</p>
+ *
+ * <blockquote><pre> {@linkplain ReloadingConfig} config = {@linkplain ReloadingConfig}.{@linkplain #of(Function, ClassLoader) of}(MyConfig::new, classLoader);
+ *config.{@linkplain #addListener(ConfigListener) addListener}(paths -&gt; pool.resize(config.{@linkplain #path(String) path("pool")}.{@linkplain #load(Class) load(Pool.class)}.size()));
+ *...
+ *config.{@linkplain #close() close()};</pre></blockquote>
+ *
+ * <p>A {@link CachingConfig} wrapping a {@link ReloadingConfig} must be {@linkplain CachingConfig#invalidate(
+ * java.util.Collection) invalidated} by a {@link ConfigListener}, which discards the objects of the changed subtrees
+ * only. The changes are found by comparing the {@linkplain ConfigNode#hash() content hashes} of the subtrees of the
+ * previous and new configuration trees, so that only the subtrees that changed are compared, and only their objects
+ * are loaded again.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class ReloadingConfig implements Config, AutoCloseable {
+    private static final String RESOURCE = "META-INF/jakarta-config.properties";
+
+    private final Reloader reloader;
+    private final ConfigPath path;
+
+    private ReloadingConfig(Reloader reloader, ConfigPath path) {
+        this.reloader = reloader;
+        this.path = path;
+    }
+
+    /**
+     * Creates a new {@link ReloadingConfig} of the supplied <code>properties</code> files, and starts watching them.
+     *
+     * <p>A later file overrides the <em>raw values</em> of an earlier file. A file that does not exist is considered
+     * empty, and is watched for its creation if its directory exists.</p>
+     *
+     * @param factory the function that creates a {@link Config} of a configuration tree; must not be {@code null}
+     * @param files the <code>properties</code> files of the default file system; must not be {@code null}
+     * @return a new {@link ReloadingConfig}; never {@code null}
+     * @exception NullPointerException if the supplied {@code factory} or {@code files} was {@code null}
+     * @exception ConfigException if a file could not be read or parsed
+     */
+    public static ReloadingConfig of(Function<? super ConfigNode, ? extends Config> factory, List<Path> files) {
+        Objects.requireNonNull(factory, "factory");
+        List<Path> absolute = new ArrayList<>(files.size());
+        for (Path file : files) {
+            absolute.add(file.toAbsolutePath().normalize());
+        }
+        Reloader reloader = new Reloader(factory, absolute);
+        try {
+            reloader.reload();
+            reloader.watch();
+        } catch (IOException e) {
+            reloader.close();
+            throw new ConfigException(e);
+        }
+        return new ReloadingConfig(reloader, ConfigPath.root());
+    }
+
+    /**
+     * Creates a new {@link ReloadingConfig} of the <em>META-INF/jakarta-config.properties</em> files found on the
+     * classpath, and starts watching them.
+     *
+     * <p>Only files of the file system are reloadable, so files within archives are not part of the
+     * configuration.</p>
+     *
+     * @param factory the function that creates a {@link Config} of a configuration tree; must not be {@code null}
+     * @param classLoader the {@link ClassLoader} to find the files with; may be {@code null} to indicate the system
+     *                    classloader
+     * @return a new {@link ReloadingConfig}; never {@code null}
+     * @exception NullPointerException if the supplied {@code factory} was {@code null}
+     * @exception ConfigException if a file could not be found, read or parsed
+     */
+    public static ReloadingConfig of(Function<? super ConfigNode, ? extends Config> factory, ClassLoader classLoader) {
+        ClassLoader loader = classLoader == null ? ClassLoader.getSystemClassLoader() : classLoader;
+        List<Path> files = new ArrayList<>();
+        try {
+            Enumeration<URL> resources = loader.getResources(RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if ("file".equals(resource.getProtocol())) {
+                    files.add(Path.of(resource.toURI()));
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new ConfigException(e);
+        }
+        return of(factory, files);
+    }
+
+    /**
+     * Loads an object of the supplied {@code type} from the current {@link Config} <em>configuration path</em>, of
+     * the latest configuration.
+     *
+     * @param <T> the type of object to load
+     * @param type the type of object to load; must not be {@code null}
+     * @return the loaded object; never {@code null}
+     * @exception java.util.NoSuchElementException if the requested object is not found.
+     * @exception IllegalArgumentException if the supplied {@code type} was invalid for any reason
+     * @exception NullPointerException if the supplied {@code type} was {@code null}
+     */
+    @Override
+    public <T> T load(Class<T> type) {
+        Config config = reloader.state.config;
+        return (path.isRoot() ? config : config.path(path)).load(type);
+    }
+
+    /**
+     * Loads an object of every supplied type from the current {@link Config} <em>configuration path</em>, of the
+     * latest configuration; every object is loaded from the same configuration.
+     *
+     * @param types the types of object to load; must not be {@code null} or contain {@code null}
+     * @return an unmodifiable map of the loaded objects, by type; never {@code null}
+     * @exception ConfigException if any object could not be loaded
+     * @exception NullPointerException if the supplied {@code types}, or any of its elements, was {@code null}
+     */
+    @Override
+    public Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types) {
+        return snapshot().loadAll(types);
+    }
+
+    /**
+     * Loads an object of every supplied type from the current {@link Config} <em>configuration path</em>, of the
+     * latest configuration, in parallel; every object is loaded from the same configuration.
+     *
+     * @param types the types of object to load; must not be {@code null} or contain {@code null}
+     * @param executor the {@link Executor} to load the objects with; must not be {@code null}
+     * @return an unmodifiable map of the loaded objects, by type; never {@code null}
+     * @exception ConfigException if any object could not be loaded
+     * @exception NullPointerException if the supplied {@code types}, any of its elements, or {@code executor} was
+     *            {@code null}
+     */
+    @Override
+    public Map<Class<?>, Object> loadAll(Collection<? extends Class<?>> types, Executor executor) {
+        return snapshot().loadAll(types, executor);
+    }
+
+    /**
+     * Return a new instance of a {@link ReloadingConfig} with the <em>configuration path</em> set, which shares the
+     * configuration of this {@link ReloadingConfig}.
+     *
+     * @param paths a <code>String</code> array of configuration paths
+     * @return a new instance of the {@link ReloadingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public ReloadingConfig path(String... paths) {
+        return new ReloadingConfig(reloader, path.append(paths));
+    }
+
+    /**
+     * Return a new instance of a {@link ReloadingConfig} with the <em>configuration path</em> set, which shares the
+     * configuration of this {@link ReloadingConfig}.
+     *
+     * @param path a <code>String</code> of a configuration path
+     * @return a new instance of the {@link ReloadingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public ReloadingConfig path(String path) {
+        return new ReloadingConfig(reloader, this.path.child(path));
+    }
+
+    /**
+     * Return a new instance of a {@link ReloadingConfig} with the <em>configuration path</em> set, which shares the
+     * configuration of this {@link ReloadingConfig}.
+     *
+     * @param path a {@link ConfigPath}; must not be {@code null}
+     * @return a new instance of the {@link ReloadingConfig} class with the new <em>configuration path</em>
+     */
+    @Override
+    public ReloadingConfig path(ConfigPath path) {
+        return new ReloadingConfig(reloader, this.path.append(path));
+    }
+
+    /**
+     * Returns the <em>configuration keys</em> of the child configuration entries of the current
+     * <em>configuration path</em>, of the latest configuration.
+     *
+     * @return an unmodifiable set of the child configuration keys; never {@code null}
+     */
+    @Override
+    public Set<String> childKeys() {
+        Config config = reloader.state.config;
+        return (path.isRoot() ? config : config.path(path)).childKeys();
+    }
+
+    /**
+     * Returns a {@link Config} of the latest configuration, with the <em>configuration path</em> of this
+     * {@link ReloadingConfig}, which subsequent reloads do not change.
+     *
+     * <p>The configuration trees are immutable, so a snapshot is not a copy.</p>
+     *
+     * @return a {@link Config} of the latest configuration; never {@code null}
+     */
+    @Override
+    public Config snapshot() {
+        Config config = reloader.state.config.snapshot();
+        return path.isRoot() ? config : config.path(path);
+    }
+
+    /**
+     * Registers a {@link ConfigListener}, which is notified of every subsequent change of the configuration.
+     *
+     * @param listener the {@link ConfigListener}; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code listener} was {@code null}
+     */
+    public void addListener(ConfigListener listener) {
+        reloader.listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Unregisters a {@link ConfigListener}.
+     *
+     * @param listener the {@link ConfigListener}; must not be {@code null}
+     * @exception NullPointerException if the supplied {@code listener} was {@code null}
+     */
+    public void removeListener(ConfigListener listener) {
+        reloader.listeners.remove(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /**
+     * Reloads the configuration immediately, in the current thread.
+     *
+     * @return an unmodifiable set of the changed <em>configuration paths</em>; never {@code null}
+     * @exception ConfigException if a file could not be read or parsed, in which case the configuration is unchanged
+     */
+    public Set<ConfigPath> reload() {
+        try {
+            return reloader.reload();
+        } catch (IOException e) {
+            throw new ConfigException(e);
+        }
+    }
+
+    /**
+     * Stops watching the files of the configuration shared by this {@link ReloadingConfig}. The configuration
+     * remains readable, and can still be {@linkplain #reload() reloaded}.
+     */
+    @Override
+    public void close() {
+        reloader.close();
+    }
+
+    /**
+     * The configuration shared by every {@link ReloadingConfig} derived from the same
+     * {@link ReloadingConfig#of(Function, List)}.
+     */
+    private static final class Reloader implements Runnable {
+        private static final System.Logger LOGGER = System.getLogger(ReloadingConfig.class.getName());
+        private static final long QUIET_PERIOD_MILLIS = 100;
+
+        private final Function<? super ConfigNode, ? extends Config> factory;
+        private final List<Path> files;
+        private final List<ConfigListener> listeners = new CopyOnWriteArrayList<>();
+        private final ReentrantLock reloadLock = new ReentrantLock();
+        private volatile State state;
+        private volatile WatchService watchService;
+
+        Reloader(Function<? super ConfigNode, ? extends Config> factory, List<Path> files) {
+            this.factory = factory;
+            this.files = List.copyOf(files);
+        }
+
+        Set<ConfigPath> reload() throws IOException {
+            Probe probe = ConfigInstrumentation.reload();
+            try {
+                Set<ConfigPath> changes = update();
+                if (probe != null) {
+                    probe.changes(changes.size());
+                    probe.end();
+                }
+                return changes;
+            } catch (IOException | RuntimeException | Error e) {
+                if (probe != null) {
+                    probe.end(e);
+                }
+                throw e;
+            }
+        }
+
+        private Set<ConfigPath> update() throws IOException {
+            reloadLock.lock();
+            try {
+                ConfigNode.Builder builder = ConfigNode.builder();
+                for (Path file : files) {
+                    // not memory-mapped: the file may be truncated while it is parsed
+                    try (InputStream in = Files.newInputStream(file)) {
+                        PropertiesParser.parse(in, builder::put);
+                    } catch (NoSuchFileException e) {
+                        // an absent file is empty
+                    } catch (ConfigException e) {
+                        throw new ConfigException(file + ": " + e.getMessage(), e);
+                    }
+                }
+                ConfigNode tree = builder.build();
+                State previous = state;
+                if (previous == null) {
+                    state = new State(tree, create(tree));
+                    return Set.of();
+                }
+                Set<ConfigPath> changes = ConfigNode.changes(previous.tree, tree);
+                if (changes.isEmpty()) {
+                    return changes;
+                }
+                state = new State(tree, create(tree));
+                for (ConfigListener listener : listeners) {
+                    try {
+                        listener.changed(changes);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(System.Logger.Level.WARNING, "Configuration listener failed", e);
+                    }
+                }
+                return changes;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+
+        private Config create(ConfigNode tree) {
+            return Objects.requireNonNull(factory.apply(tree), "factory returned null");
+        }
+
+        void watch() throws IOException {
+            Set<Path> directories = new LinkedHashSet<>();
+            for (Path file : files) {
+                Path directory = file.getParent();
+                if (directory != null && directory.toFile().isDirectory()) {
+                    directories.add(directory);
+                }
+            }
+            if (directories.isEmpty()) {
+                return;
+            }
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : directories) {
+                directory.register(watchService,
+                                   StandardWatchEventKinds.ENTRY_CREATE,
+                                   StandardWatchEventKinds.ENTRY_MODIFY,
+                                   StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            Thread thread = new Thread(this, "jakarta-config-reload");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    if (!changed(watchService.take())) {
+                        continue;
+                    }
+                    // coalesce the events of a file that is still being written
+                    WatchKey key;
+                    while ((key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        changed(key);
+                    }
+                    try {
+                        reload();
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.log(System.Logger.Level.WARNING, "Configuration reload failed; keeping the previous"
+                                + " configuration", e);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            }
+        }
+
+        private boolean changed(WatchKey key) {
+            Path directory = (Path) key.watchable();
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || files.contains(directory.resolve((Path) event.context()));
+            }
+            key.reset();
+            return changed;
+        }
+
+        void close() {
+            WatchService service = watchService;
+            if (service != null) {
+                try {
+                    service.close();
+                } catch (IOException e) {
+                    LOGGER.log(System.Logger.Level.DEBUG, "Failed to close the watch service", e);
+                }
+            }
+        }
+    }
+
+    private static final class State {
+        private final ConfigNode tree;
+        private final Config config;
+
+        State(ConfigNode tree, Config config) {
+            this.tree = tree;
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,1142 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+
+/**
+ * A streaming parser of the YAML format, as defined by the <em>Mapping to YAML format</em> section of the
+ * specification.
+ *
+ * <p>The parser does not build a document model. It reads the YAML stream line by line, and hands the
+ * <em>configuration path</em> and <em>raw value</em> of every scalar to a consumer as soon as the scalar has been
+ * read, so an implementation can build its configuration tree directly, and the memory used by the parser is bounded
+ * by the nesting depth of the document and the length of its longest scalar:</p>
+ *
+ * <ul>
+ *     <li>the entries of a mapping are nested configuration entries, by mapping key;</li>
+ *     <li>the entries of a sequence are nested configuration entries, by index: <code>0</code>, <code>1</code>,
+ *     ...;</li>
+ *     <li>every scalar is canonicalized according to its tag, and a <code>null</code> scalar has no
+ *     <em>raw value</em>: a <code>bool</code> is <code>true</code> or <code>false</code>, an <code>int</code> is
+ *     decimal, and a <code>float</code> is kept as written, such as <code>1e3</code> or <code>1.50</code>, except
+ *     for <code>Infinity</code>, <code>-Infinity</code> and <code>NaN</code>.</li>
+ * </ul>
+ *
+ * <blockquote><pre> {@linkplain YamlParser}.{@linkplain #parse(Path, BiConsumer) parse}(file, (path, value) -&gt; tree.put(path, value));</pre></blockquote>
+ *
+ * <p>Block and flow collections, plain, quoted and block scalars, tags, anchors and aliases are supported. A stream of
+ * more than one document, complex mapping keys, and <code>%TAG</code> directives are not.</p>
+ *
+ * <p>This class is safe for concurrent use by multiple threads.</p>
+ */
+public final class YamlParser {
+    private static final String CORE_TAG_PREFIX = "tag:yaml.org,2002:";
+    private static final String STR = CORE_TAG_PREFIX + "str";
+    private static final String NULL = CORE_TAG_PREFIX + "null";
+    private static final String BOOL = CORE_TAG_PREFIX + "bool";
+    private static final String INT = CORE_TAG_PREFIX + "int";
+    private static final String FLOAT = CORE_TAG_PREFIX + "float";
+
+    private static final Pattern NULL_PATTERN = Pattern.compile("~|null|Null|NULL|");
+    private static final Pattern TRUE_PATTERN = Pattern.compile("true|True|TRUE");
+    private static final Pattern FALSE_PATTERN = Pattern.compile("false|False|FALSE");
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile("[-+]?[0-9]+");
+    private static final Pattern OCTAL_PATTERN = Pattern.compile("0o[0-7]+");
+    private static final Pattern HEXADECIMAL_PATTERN = Pattern.compile("0x[0-9a-fA-F]+");
+    private static final Pattern FLOAT_PATTERN = Pattern.compile("[-+]?(\\.[0-9]+|[0-9]+(\\.[0-9]*)?)([eE][-+]?[0-9]+)?");
+    private static final Pattern INFINITY_PATTERN = Pattern.compile("[-+]?\\.(inf|Inf|INF)");
+    private static final Pattern NAN_PATTERN = Pattern.compile("\\.(nan|NaN|NAN)");
+
+    private YamlParser() {
+    }
+
+    /**
+     * Parses the supplied UTF-8 encoded YAML file.
+     *
+     * @param file the YAML file; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every scalar; must
+     *                 not be {@code null}
+     * @exception IOException if the file could not be read
+     * @exception ConfigException if the file is not a valid UTF-8 encoded YAML file, or uses a construct that is not
+     *            supported
+     */
+    public static void parse(Path file, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(consumer, "consumer");
+        try (InputStream in = Files.newInputStream(file)) {
+            new Parser(new BufferedReader(decoder(in)), file.toString(), consumer).parse();
+        }
+    }
+
+    /**
+     * Parses the supplied UTF-8 encoded YAML content, named in the messages of the parse failures.
+     */
+    static void parse(byte[] content, String name, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        new Parser(new BufferedReader(decoder(new ByteArrayInputStream(content))), name, consumer).parse();
+    }
+
+    /**
+     * Parses the supplied UTF-8 encoded YAML stream, which is not closed.
+     *
+     * @param in the YAML stream; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every scalar; must
+     *                 not be {@code null}
+     * @exception IOException if the stream could not be read
+     * @exception ConfigException if the stream is not a valid UTF-8 encoded YAML stream, or uses a construct that is
+     *            not supported
+     */
+    public static void parse(InputStream in, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(in, "in");
+        Objects.requireNonNull(consumer, "consumer");
+        new Parser(new BufferedReader(decoder(in)), "yaml", consumer).parse();
+    }
+
+    /**
+     * Parses the supplied YAML characters, which are not closed.
+     *
+     * @param reader the YAML characters; must not be {@code null}
+     * @param consumer the consumer of the <em>configuration path</em> and <em>raw value</em> of every scalar; must
+     *                 not be {@code null}
+     * @exception IOException if the characters could not be read
+     * @exception ConfigException if the characters use a construct that is not supported
+     */
+    public static void parse(Reader reader, BiConsumer<ConfigPath, String> consumer) throws IOException {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(consumer, "consumer");
+        new Parser(new BufferedReader(reader), "yaml", consumer).parse();
+    }
+
+    private static Reader decoder(InputStream in) {
+        // malformed input is reported by the parser as a ConfigException, rather than replaced
+        return new InputStreamReader(in, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT));
+    }
+
+    /**
+     * Returns the <em>raw value</em> of a scalar, as defined by the specification.
+     *
+     * @param tag the resolved tag, or {@code null} if the scalar has no tag
+     * @param text the content of the scalar
+     * @param plain whether the scalar is a plain scalar, whose tag is resolved by the YAML core schema
+     * @return the <em>raw value</em>, or {@code null} if the scalar is {@code null}
+     * @exception IllegalArgumentException if the content is not valid for the tag
+     */
+    static String rawValue(String tag, String text, boolean plain) {
+        if (tag == null) {
+            if (!plain) {
+                return text;
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            if ("~nNtTfF0123456789+-.".indexOf(text.charAt(0)) < 0) {
+                // cannot be resolved to anything but a string
+                return text;
+            }
+            if (NULL_PATTERN.matcher(text).matches()) {
+                return null;
+            }
+            String value = bool(text);
+            if (value == null) {
+                value = integer(text);
+            }
+            if (value == null) {
+                value = floatingPoint(text);
+            }
+            return value == null ? text : value;
+        }
+        String value;
+        switch (tag) {
+        case NULL:
+            return null;
+        case BOOL:
+            value = bool(text);
+            break;
+        case INT:
+            value = integer(text);
+            break;
+        case FLOAT:
+            value = floatingPoint(text);
+            if (value == null) {
+                value = integer(text);
+            }
+            break;
+        case STR:
+        default:
+            // the non-specific tag, and custom tags
+            return text;
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid !!" + tag.substring(CORE_TAG_PREFIX.length())
+                                                       + " value: " + text);
+        }
+        return value;
+    }
+
+    private static String bool(String text) {
+        if (TRUE_PATTERN.matcher(text).matches()) {
+            return "true";
+        }
+        if (FALSE_PATTERN.matcher(text).matches()) {
+            return "false";
+        }
+        return null;
+    }
+
+    private static String integer(String text) {
+        if (DECIMAL_PATTERN.matcher(text).matches()) {
+            return new BigInteger(text).toString();
+        }
+        if (OCTAL_PATTERN.matcher(text).matches()) {
+            return new BigInteger(text.substring(2), 8).toString();
+        }
+        if (HEXADECIMAL_PATTERN.matcher(text).matches()) {
+            return new BigInteger(text.substring(2), 16).toString();
+        }
+        return null;
+    }
+
+    private static String floatingPoint(String text) {
+        if (FLOAT_PATTERN.matcher(text).matches()) {
+            // as written, which every floating-point and decimal conversion accepts, and which loses no precision
+            return text;
+        }
+        if (INFINITY_PATTERN.matcher(text).matches()) {
+            return text.charAt(0) == '-' ? "-Infinity" : "Infinity";
+        }
+        if (NAN_PATTERN.matcher(text).matches()) {
+            return "NaN";
+        }
+        return null;
+    }
+
+    /**
+     * The parser: a recursive descent over the lines of the stream. A block node consumes its lines completely, so
+     * that the current line is the first line that follows it.
+     */
+    private static final class Parser {
+        private final BufferedReader reader;
+        private final String name;
+        private final BiConsumer<ConfigPath, String> consumer;
+        private final Map<String, Anchor> anchors = new HashMap<>();
+        private final List<Anchor> recording = new ArrayList<>();
+        private String line;
+        private int lineNumber;
+        private int position;
+        private int scalarLineNumber;
+
+        Parser(BufferedReader reader, String name, BiConsumer<ConfigPath, String> consumer) {
+            this.reader = reader;
+            this.name = name;
+            this.consumer = consumer;
+        }
+
+        void parse() throws IOException {
+            try {
+                document();
+            } catch (CharacterCodingException e) {
+                // the reader decodes ahead of the current line
+                throw new ConfigException(name + ": Invalid UTF-8 input at or after line " + (lineNumber + 1), e);
+            }
+        }
+
+        private void document() throws IOException {
+            nextLine();
+            // a byte order mark is not part of the document
+            if (line != null && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            skipBlankLines();
+            boolean directives = false;
+            while (line != null && line.startsWith("%")) {
+                if (line.startsWith("%TAG")) {
+                    throw error("%TAG directives are not supported");
+                }
+                directives = true;
+                nextLine();
+                skipBlankLines();
+            }
+            if (isDocumentMarker("---")) {
+                position = 3;
+            } else if (directives) {
+                throw error("Expected '---' after a directive");
+            } else if (line == null) {
+                return;
+            }
+            node(ConfigPath.root(), -1, Context.DOCUMENT);
+            skipBlankLines();
+            if (isDocumentMarker("...")) {
+                nextLine();
+                skipBlankLines();
+            }
+            if (line != null) {
+                throw error(isDocumentMarker("---")
+                                    ? "A stream of more than one document is not supported"
+                                    : "Unexpected content");
+            }
+        }
+
+        /**
+         * Parses a block node, from the current position to the end of the node.
+         *
+         * @param path the <em>configuration path</em> of the node
+         * @param parent the indentation of the parent node
+         * @param context where the node is
+         */
+        private void node(ConfigPath path, int parent, Context context) throws IOException {
+            skipSpaces();
+            String tag = null;
+            String anchor = null;
+            while (position < line.length()) {
+                char c = line.charAt(position);
+                if (c == '!' && tag == null) {
+                    tag = tag();
+                } else if (c == '&' && anchor == null) {
+                    position++;
+                    anchor = name();
+                } else {
+                    break;
+                }
+                skipSpaces();
+            }
+            if (anchor != null) {
+                startAnchor(anchor, path);
+            }
+            if (atEnd()) {
+                // the content, if any, is on the following lines
+                scalarLineNumber = lineNumber;
+                nextLine();
+                skipBlankLines();
+                int indent = indent();
+                if (line != null
+                        && (indent > parent
+                                    || (context == Context.MAPPING_VALUE && indent == parent && isSequenceEntry(indent)))) {
+                    position = indent;
+                    content(path, tag, parent, Context.DOCUMENT);
+                } else {
+                    scalar(path, tag, "", true);
+                }
+            } else {
+                content(path, tag, parent, context);
+            }
+            if (anchor != null) {
+                endAnchor(anchor);
+            }
+        }
+
+        private void content(ConfigPath path, String tag, int parent, Context context) throws IOException {
+            char c = line.charAt(position);
+            scalarLineNumber = lineNumber;
+            if (isSequenceEntry(position)) {
+                if (context == Context.MAPPING_VALUE) {
+                    throw error("A block sequence must start on a new line");
+                }
+                sequence(path, position);
+            } else if (c == '*') {
+                position++;
+                alias(path, name());
+                endLine();
+            } else if (c == '|' || c == '>') {
+                blockScalar(path, tag, parent);
+            } else if (c == '[' || c == '{') {
+                flowNode(path, false);
+                endLine();
+            } else if (c == '?' && (position + 1 == line.length() || isWhitespace(line.charAt(position + 1)))) {
+                throw error("Complex mapping keys are not supported");
+            } else if (isMappingKey()) {
+                if (context == Context.MAPPING_VALUE) {
+                    throw error("A block mapping must start on a new line");
+                }
+                mapping(path, position);
+            } else if (c == '"' || c == '\'') {
+                String text = c == '"' ? doubleQuoted() : singleQuoted();
+                endLine();
+                scalar(path, tag, text, false);
+            } else {
+                scalar(path, tag, plain(parent), true);
+            }
+        }
+
+        private void mapping(ConfigPath path, int indent) throws IOException {
+            while (true) {
+                char c = line.charAt(position);
+                String key;
+                if (c == '"' || c == '\'') {
+                    key = c == '"' ? doubleQuoted() : singleQuoted();
+                    skipSpaces();
+                } else {
+                    int start = position;
+                    while (!isValueIndicator(position)) {
+                        position++;
+                    }
+                    key = line.substring(start, position).strip();
+                }
+                if (position == line.length() || line.charAt(position) != ':') {
+                    throw error("Expected ':' after a mapping key");
+                }
+                position++;
+                node(child(path, key), indent, Context.MAPPING_VALUE);
+
+                skipBlankLines();
+                int next = indent();
+                if (line == null || next < indent) {
+                    return;
+                }
+                if (next > indent) {
+                    throw error("Unexpected indentation");
+                }
+                position = next;
+                if (!isMappingKey()) {
+                    throw error("Expected a mapping key");
+                }
+            }
+        }
+
+        private void sequence(ConfigPath path, int indent) throws IOException {
+            int index = 0;
+            while (true) {
+                position = indent + 1;
+                node(child(path, Integer.toString(index++)), indent, Context.SEQUENCE_ENTRY);
+
+                skipBlankLines();
+                int next = indent();
+                if (line == null || next < indent) {
+                    return;
+                }
+                if (next > indent) {
+                    throw error("Unexpected indentation");
+                }
+                if (!isSequenceEntry(next)) {
+                    // a key of the mapping that contains this sequence
+                    position = next;
+                    return;
+                }
+            }
+        }
+
+        private void blockScalar(ConfigPath path, String tag, int parent) throws IOException {
+            boolean literal = line.charAt(position++) == '|';
+            char chomping = ' ';
+            int explicit = 0;
+            for (int i = 0; i < 2 && position < line.length(); i++) {
+                char c = line.charAt(position);
+                if ((c == '+' || c == '-') && chomping == ' ') {
+                    chomping = c;
+                } else if (c >= '1' && c <= '9' && explicit == 0) {
+                    explicit = c - '0';
+                } else {
+                    break;
+                }
+                position++;
+            }
+            if (!atEnd()) {
+                throw error("Unexpected content after a block scalar header");
+            }
+            int indent = explicit == 0 ? -1 : Math.max(parent + explicit, 0);
+
+            StringBuilder text = new StringBuilder();
+            boolean first = true;
+            boolean moreIndented = false;
+            int empty = 0;
+            while (nextLine() && !isDocumentMarker("---") && !isDocumentMarker("...")) {
+                int spaces = 0;
+                while (spaces < line.length() && line.charAt(spaces) == ' ') {
+                    spaces++;
+                }
+                boolean blank = line.isBlank();
+                if (indent < 0 && !blank) {
+                    if (spaces <= parent) {
+                        break;
+                    }
+                    indent = spaces;
+                }
+                if (indent < 0 || spaces < indent) {
+                    if (!blank) {
+                        break;
+                    }
+                    empty++;
+                    continue;
+                }
+                String content = line.substring(indent);
+                if (content.isEmpty()) {
+                    empty++;
+                    continue;
+                }
+                boolean more = isWhitespace(content.charAt(0));
+                if (first) {
+                    text.append("\n".repeat(empty));
+                } else if (literal || moreIndented || more) {
+                    text.append("\n".repeat(empty + 1));
+                } else {
+                    text.append(empty == 0 ? " " : "\n".repeat(empty));
+                }
+                text.append(content);
+                first = false;
+                moreIndented = more;
+                empty = 0;
+            }
+            position = 0;
+            if (chomping == '+') {
+                text.append("\n".repeat(first ? empty : empty + 1));
+            } else if (chomping == ' ' && !first) {
+                text.append('\n');
+            }
+            scalar(path, tag, text.toString(), false);
+        }
+
+        private String plain(int parent) throws IOException {
+            StringBuilder text = new StringBuilder(plainLine());
+            // a comment ends a plain scalar
+            while (position == line.length()) {
+                // a plain scalar may continue on more indented lines, which are folded
+                int empty = 0;
+                while (nextLine() && line.isBlank()) {
+                    empty++;
+                }
+                int indent = indent();
+                if (line == null || indent <= parent || isComment(indent)) {
+                    return text.toString();
+                }
+                position = indent;
+                text.append(empty == 0 ? " " : "\n".repeat(empty));
+                int start = text.length();
+                text.append(plainLine());
+                if (text.indexOf(": ", start) >= 0 || text.charAt(text.length() - 1) == ':') {
+                    throw error("A plain scalar that spans lines must not contain a mapping key");
+                }
+            }
+            endLine();
+            return text.toString();
+        }
+
+        /**
+         * Reads the plain scalar on the current line, up to a comment.
+         */
+        private String plainLine() {
+            int start = position;
+            while (position < line.length()
+                    && !(line.charAt(position) == '#' && position > start && isWhitespace(line.charAt(position - 1)))) {
+                position++;
+            }
+            return line.substring(start, position).strip();
+        }
+
+        private String doubleQuoted() throws IOException {
+            StringBuilder text = new StringBuilder();
+            position++;
+            while (true) {
+                if (position == line.length()) {
+                    fold(text, false);
+                    continue;
+                }
+                char c = line.charAt(position++);
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                if (position == line.length()) {
+                    // an escaped line break
+                    fold(text, true);
+                    continue;
+                }
+                c = line.charAt(position++);
+                switch (c) {
+                case '0':
+                    text.append('\0');
+                    break;
+                case 'a':
+                    text.append('\u0007');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 't':
+                case '\t':
+                    text.append('\t');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'v':
+                    text.append('\u000B');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 'e':
+                    text.append('\u001B');
+                    break;
+                case ' ':
+                case '"':
+                case '/':
+                case '\\':
+                    text.append(c);
+                    break;
+                case 'N':
+                    text.append('\u0085');
+                    break;
+                case '_':
+                    text.append('\u00A0');
+                    break;
+                case 'L':
+                    text.append('\u2028');
+                    break;
+                case 'P':
+                    text.append('\u2029');
+                    break;
+                case 'x':
+                    text.appendCodePoint(hex(2));
+                    break;
+                case 'u':
+                    text.appendCodePoint(hex(4));
+                    break;
+                case 'U':
+                    text.appendCodePoint(hex(8));
+                    break;
+                default:
+                    throw error("Invalid escape in a double-quoted scalar: \\" + c);
+                }
+            }
+        }
+
+        private int hex(int digits) {
+            if (position + digits > line.length()) {
+                throw error("Invalid escape in a double-quoted scalar");
+            }
+            try {
+                int codePoint = Integer.parseUnsignedInt(line, position, position + digits, 16);
+                position += digits;
+                if (!Character.isValidCodePoint(codePoint)) {
+                    throw error("Invalid escape in a double-quoted scalar");
+                }
+                return codePoint;
+            } catch (NumberFormatException e) {
+                throw error("Invalid escape in a double-quoted scalar");
+            }
+        }
+
+        private String singleQuoted() throws IOException {
+            StringBuilder text = new StringBuilder();
+            position++;
+            while (true) {
+                if (position == line.length()) {
+                    fold(text, false);
+                    continue;
+                }
+                char c = line.charAt(position++);
+                if (c == '\'') {
+                    if (position < line.length() && line.charAt(position) == '\'') {
+                        position++;
+                    } else {
+                        return text.toString();
+                    }
+                }
+                text.append(c);
+            }
+        }
+
+        /**
+         * Folds the line break of a quoted scalar: trailing and leading white space is removed, a single line break
+         * becomes a space, and every empty line becomes a line feed.
+         */
+        private void fold(StringBuilder text, boolean escaped) throws IOException {
+            if (!escaped) {
+                int length = text.length();
+                while (length > 0 && isWhitespace(text.charAt(length - 1))) {
+                    length--;
+                }
+                text.setLength(length);
+            }
+            int empty = 0;
+            while (true) {
+                if (!nextLine() || isDocumentMarker("---") || isDocumentMarker("...")) {
+                    throw error("Unterminated quoted scalar");
+                }
+                if (!line.isBlank()) {
+                    break;
+                }
+                empty++;
+            }
+            skipSpaces();
+            if (empty > 0) {
+                text.append("\n".repeat(empty));
+            } else if (!escaped) {
+                text.append(' ');
+            }
+        }
+
+        /**
+         * Parses a flow node, which may span lines, and emits its scalars.
+         *
+         * @param path the <em>configuration path</em> of the node
+         * @param pair whether the node may be a single pair mapping, as an entry of a flow sequence
+         */
+        private void flowNode(ConfigPath path, boolean pair) throws IOException {
+            skipFlowSpaces();
+            String tag = null;
+            String anchor = null;
+            while (true) {
+                char c = line.charAt(position);
+                if (c == '!' && tag == null) {
+                    tag = tag();
+                } else if (c == '&' && anchor == null) {
+                    position++;
+                    anchor = name();
+                } else {
+                    break;
+                }
+                skipFlowSpaces();
+            }
+            if (anchor != null) {
+                startAnchor(anchor, path);
+            }
+            char c = line.charAt(position);
+            if (c == '[') {
+                position++;
+                int index = 0;
+                skipFlowSpaces();
+                while (line.charAt(position) != ']') {
+                    flowNode(child(path, Integer.toString(index++)), true);
+                    if (!flowSeparator(']')) {
+                        break;
+                    }
+                }
+                position++;
+            } else if (c == '{') {
+                position++;
+                skipFlowSpaces();
+                while (line.charAt(position) != '}') {
+                    flowEntry(path);
+                    if (!flowSeparator('}')) {
+                        break;
+                    }
+                }
+                position++;
+            } else if (c == '*') {
+                position++;
+                alias(path, name());
+            } else {
+                boolean plain = c != '"' && c != '\'';
+                scalarLineNumber = lineNumber;
+                String text = plain ? flowPlain() : c == '"' ? doubleQuoted() : singleQuoted();
+                skipFlowSpaces();
+                if (pair && line.charAt(position) == ':') {
+                    position++;
+                    flowValue(child(path, text));
+                } else {
+                    scalar(path, tag, text, plain);
+                }
+            }
+            if (anchor != null) {
+                endAnchor(anchor);
+            }
+        }
+
+        private void flowEntry(ConfigPath path) throws IOException {
+            char c = line.charAt(position);
+            if (c == '?' && position + 1 < line.length() && isWhitespace(line.charAt(position + 1))) {
+                throw error("Complex mapping keys are not supported");
+            }
+            String key = c == '"' ? doubleQuoted() : c == '\'' ? singleQuoted() : flowPlain();
+            skipFlowSpaces();
+            if (line.charAt(position) == ':') {
+                position++;
+                flowValue(child(path, key));
+            } else {
+                // an entry without a value is null
+                child(path, key);
+            }
+        }
+
+        private void flowValue(ConfigPath path) throws IOException {
+            skipFlowSpaces();
+            char c = line.charAt(position);
+            if (c == ',' || c == '}' || c == ']') {
+                scalar(path, null, "", true);
+            } else {
+                flowNode(path, false);
+            }
+        }
+
+        /**
+         * Consumes the separator of two flow entries, if any.
+         *
+         * @return {@code true} if another entry may follow
+         */
+        private boolean flowSeparator(char end) throws IOException {
+            skipFlowSpaces();
+            char c = line.charAt(position);
+            if (c == ',') {
+                position++;
+                skipFlowSpaces();
+                return true;
+            }
+            if (c != end) {
+                throw error("Expected ',' or '" + end + "' in a flow collection");
+            }
+            return false;
+        }
+
+        private String flowPlain() throws IOException {
+            StringBuilder text = new StringBuilder();
+            while (true) {
+                int start = position;
+                while (position < line.length() && !isFlowEnd(position)) {
+                    position++;
+                }
+                text.append(line, start, position);
+                if (position < line.length()) {
+                    break;
+                }
+                // a plain scalar may continue on the following lines, which are folded
+                int empty = 0;
+                while (true) {
+                    if (!nextLine()) {
+                        throw error("Unterminated flow collection");
+                    }
+                    if (!line.isBlank()) {
+                        break;
+                    }
+                    empty++;
+                }
+                skipSpaces();
+                if (isFlowEnd(position)) {
+                    break;
+                }
+                stripTrailing(text);
+                text.append(empty == 0 ? " " : "\n".repeat(empty));
+            }
+            return stripTrailing(text).toString();
+        }
+
+        private boolean isFlowEnd(int index) {
+            char c = line.charAt(index);
+            switch (c) {
+            case ',':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                return true;
+            case '#':
+                return index == 0 || isWhitespace(line.charAt(index - 1));
+            case ':':
+                if (index + 1 == line.length()) {
+                    return true;
+                }
+                char next = line.charAt(index + 1);
+                return isWhitespace(next) || next == ',' || next == '[' || next == ']' || next == '{' || next == '}';
+            default:
+                return false;
+            }
+        }
+
+        private void skipFlowSpaces() throws IOException {
+            while (true) {
+                skipSpaces();
+                if (position < line.length() && line.charAt(position) != '#') {
+                    return;
+                }
+                if (!nextLine()) {
+                    throw error("Unterminated flow collection");
+                }
+            }
+        }
+
+        private String tag() {
+            int start = position;
+            while (position < line.length() && !isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            String tag = line.substring(start, position);
+            if (tag.startsWith("!<") && tag.endsWith(">")) {
+                return tag.substring(2, tag.length() - 1);
+            }
+            if (tag.startsWith("!!")) {
+                return CORE_TAG_PREFIX + tag.substring(2);
+            }
+            return tag;
+        }
+
+        private String name() {
+            int start = position;
+            while (position < line.length() && !isWhitespace(line.charAt(position)) && !isFlowEnd(position)) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected an anchor name");
+            }
+            return line.substring(start, position);
+        }
+
+        private void startAnchor(String name, ConfigPath path) {
+            recording.add(new Anchor(name, path));
+        }
+
+        private void endAnchor(String name) {
+            Anchor anchor = recording.remove(recording.size() - 1);
+            anchors.put(name, anchor);
+        }
+
+        private void alias(ConfigPath path, String name) {
+            Anchor anchor = anchors.get(name);
+            if (anchor == null) {
+                throw error("Undefined alias: *" + name);
+            }
+            for (int i = 0; i < anchor.paths.size(); i++) {
+                emit(path.append(anchor.paths.get(i)), anchor.values.get(i));
+            }
+        }
+
+        private void scalar(ConfigPath path, String tag, String text, boolean plain) {
+            String value;
+            try {
+                value = rawValue(tag, text, plain);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigException(name + ":" + scalarLineNumber + ": " + e.getMessage());
+            }
+            if (value != null) {
+                emit(path, value);
+            }
+        }
+
+        private void emit(ConfigPath path, String value) {
+            consumer.accept(path, value);
+            for (Anchor anchor : recording) {
+                anchor.record(path, value);
+            }
+        }
+
+        private ConfigPath child(ConfigPath path, String key) {
+            try {
+                return path.child(key);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        private boolean nextLine() throws IOException {
+            line = reader.readLine();
+            lineNumber++;
+            position = 0;
+            return line != null;
+        }
+
+        private void skipBlankLines() throws IOException {
+            while (line != null && isComment(indent())) {
+                nextLine();
+            }
+        }
+
+        /**
+         * Returns the indentation of the current line, or {@code -1} at a document marker or at the end of the
+         * stream.
+         */
+        private int indent() {
+            if (line == null || isDocumentMarker("---") || isDocumentMarker("...")) {
+                return -1;
+            }
+            int indent = 0;
+            while (indent < line.length() && line.charAt(indent) == ' ') {
+                indent++;
+            }
+            if (indent < line.length() && line.charAt(indent) == '\t' && !line.isBlank()
+                    && !isComment(indent)) {
+                throw error("Tabs must not be used for indentation");
+            }
+            return indent;
+        }
+
+        /**
+         * Returns whether the current line is blank or a comment from the supplied index.
+         */
+        private boolean isComment(int index) {
+            if (line == null || index < 0) {
+                return false;
+            }
+            while (index < line.length() && isWhitespace(line.charAt(index))) {
+                index++;
+            }
+            return index == line.length() || line.charAt(index) == '#';
+        }
+
+        private boolean isDocumentMarker(String marker) {
+            return line != null && line.startsWith(marker)
+                    && (line.length() == 3 || isWhitespace(line.charAt(3)));
+        }
+
+        private boolean isSequenceEntry(int index) {
+            return index < line.length() && line.charAt(index) == '-'
+                    && (index + 1 == line.length() || isWhitespace(line.charAt(index + 1)));
+        }
+
+        /**
+         * Returns whether the current line contains a mapping key from the current position.
+         */
+        private boolean isMappingKey() {
+            int index = position;
+            char c = line.charAt(index);
+            if (c == '"' || c == '\'') {
+                index++;
+                while (true) {
+                    if (index >= line.length()) {
+                        return false;
+                    }
+                    char d = line.charAt(index++);
+                    if (d == '\\' && c == '"') {
+                        index++;
+                    } else if (d == c) {
+                        if (c == '\'' && index < line.length() && line.charAt(index) == '\'') {
+                            index++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+                while (index < line.length() && isWhitespace(line.charAt(index))) {
+                    index++;
+                }
+                return index < line.length() && isValueIndicator(index);
+            }
+            if ("#&*!|>%@`,[]{}".indexOf(c) >= 0) {
+                return false;
+            }
+            while (index < line.length()) {
+                if (isValueIndicator(index)) {
+                    return true;
+                }
+                if (line.charAt(index) == '#' && isWhitespace(line.charAt(index - 1))) {
+                    return false;
+                }
+                index++;
+            }
+            return false;
+        }
+
+        private boolean isValueIndicator(int index) {
+            if (index == line.length()) {
+                throw error("Expected ':' after a mapping key");
+            }
+            return line.charAt(index) == ':' && (index + 1 == line.length() || isWhitespace(line.charAt(index + 1)));
+        }
+
+        private void skipSpaces() {
+            while (position < line.length() && isWhitespace(line.charAt(position))) {
+                position++;
+            }
+        }
+
+        /**
+         * Returns whether the rest of the current line is blank or a comment.
+         */
+        private boolean atEnd() {
+            skipSpaces();
+            return position == line.length()
+                    || (line.charAt(position) == '#' && (position == 0 || isWhitespace(line.charAt(position - 1))));
+        }
+
+        /**
+         * Consumes the rest of the current line, which must be blank or a comment.
+         */
+        private void endLine() throws IOException {
+            if (!atEnd()) {
+                throw error("Unexpected content");
+            }
+            nextLine();
+        }
+
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t';
+        }
+
+        private static StringBuilder stripTrailing(StringBuilder text) {
+            int length = text.length();
+            while (length > 0 && isWhitespace(text.charAt(length - 1))) {
+                length--;
+            }
+            text.setLength(length);
+            return text;
+        }
+
+        private ConfigException error(String message) {
+            return new ConfigException(name + ":" + lineNumber + ": " + message);
+        }
+    }
+
+    private enum Context {
+        DOCUMENT,
+        MAPPING_VALUE,
+        SEQUENCE_ENTRY
+    }
+
+    /**
+     * The scalars of an anchored node, relative to the node, which are emitted again for every alias of the node.
+     */
+    private static final class Anchor {
+        private final String name;
+        private final ConfigPath path;
+        private final List<ConfigPath> paths = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+
+        Anchor(String name, ConfigPath path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        void record(ConfigPath path, String value) {
+            String[] keys = path.toArray();
+            paths.add(ConfigPath.of(Arrays.copyOfRange(keys, this.path.size(), keys.length)));
+            values.add(value);
+        }
+
+        @Override
+        public String toString() {
+            return "&" + name;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import jakarta.config.impl.BootstrapInstrumentation;
+import jakarta.config.impl.ConfigSource;
+import jakarta.config.spi.BootstrapListener;
+
+/**
+ * Jakarta Config Implementation.
+ */
+module jakarta.config.impl {
+    requires transitive jakarta.config.api;
+    requires static jdk.jfr;
+
+    exports jakarta.config.impl;
+    uses ConfigSource;
+    provides BootstrapListener with BootstrapInstrumentation;
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingConfigTest {
+    @Test
+    void memoizesObjects() {
+        TreeConfig tree = TreeConfig.of("a.b", "1", "a.c", "2");
+        CachingConfig config = CachingConfig.of(tree, 16);
+
+        String value = config.path("a", "b").load(String.class);
+        assertSame(value, config.path("a").path("b").load(String.class));
+        assertSame(value, config.path(ConfigPath.of("a", "b")).load(String.class));
+        assertEquals(1, tree.loads());
+
+        assertEquals("2", config.path("a", "c").load(String.class));
+        assertEquals(2, tree.loads());
+    }
+
+    @Test
+    void doesNotMemoizeFailures() {
+        TreeConfig tree = TreeConfig.of("a", "1");
+        CachingConfig config = CachingConfig.of(tree, 16);
+
+        assertThrows(NoSuchElementException.class, () -> config.path("missing").load(String.class));
+        assertThrows(NoSuchElementException.class, () -> config.path("missing").load(String.class));
+        assertThrows(IllegalArgumentException.class, () -> config.path("a").load(Integer.class));
+        assertEquals(3, tree.loads());
+    }
+
+    @Test
+    void invalidatesChangedSubtrees() {
+        TreeConfig tree = TreeConfig.of("a.b", "1", "a.c", "2", "d", "3");
+        CachingConfig config = CachingConfig.of(tree, 16);
+        config.path("a", "b").load(String.class);
+        config.path("a", "c").load(String.class);
+        config.path("d").load(String.class);
+
+        config.invalidate(List.of(ConfigPath.of("a", "b", "x")));
+        config.path("a", "b").load(String.class);
+        config.path("a", "c").load(String.class);
+        config.path("d").load(String.class);
+        assertEquals(4, tree.loads());
+
+        config.invalidate();
+        config.path("a", "c").load(String.class);
+        config.path("d").load(String.class);
+        assertEquals(6, tree.loads());
+    }
+
+    @Test
+    void evictsBeyondMaximumSize() {
+        TreeConfig tree = TreeConfig.of("a", "1", "b", "2", "c", "3");
+        CachingConfig config = CachingConfig.of(tree, 2);
+        for (String key : List.of("a", "b", "c")) {
+            config.path(key).load(String.class);
+        }
+        assertEquals(3, tree.loads());
+
+        for (String key : List.of("a", "b", "c")) {
+            config.path(key).load(String.class);
+        }
+        assertTrue(tree.loads() > 3, "an object should have been evicted");
+    }
+
+    @Test
+    void delegatesChildKeys() {
+        CachingConfig config = CachingConfig.of(TreeConfig.of("a.b", "1", "a.c", "2"), 16);
+
+        assertEquals(Set.of("a"), config.childKeys());
+        assertEquals(Set.of("b", "c"), config.path("a").childKeys());
+    }
+
+    @Test
+    void rejectsInvalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> CachingConfig.of(TreeConfig.of(), 0));
+        assertThrows(NullPointerException.class, () -> CachingConfig.of(null, 1));
+    }
+}
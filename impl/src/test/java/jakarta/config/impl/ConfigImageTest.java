@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigImageTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void looksUpRawValues() throws IOException {
+        ConfigNode tree = TreeConfig.tree("server.host", "localhost", "server.port", "8080", "server", "root",
+                                          "name", "\u00e9t\u00e9", "empty", "", "other.host", "localhost");
+        ConfigImage image = ConfigImage.open(write(tree), 200);
+
+        assertEquals("localhost", image.value(ConfigPath.of("server", "host")));
+        assertEquals("8080", image.value(ConfigPath.of("server", "port")));
+        assertEquals("root", image.value(ConfigPath.of("server")));
+        assertEquals("\u00e9t\u00e9", image.value(ConfigPath.of("name")));
+        assertEquals("", image.value(ConfigPath.of("empty")));
+        assertSame(image.value(ConfigPath.of("server", "host")), image.value(ConfigPath.of("other", "host")));
+        assertNull(image.value(ConfigPath.of("server", "missing")));
+        assertNull(image.value(ConfigPath.of("missing")));
+        assertNull(image.value(ConfigPath.of("server", "host", "deeper")));
+        assertNull(image.value(ConfigPath.root()));
+        assertEquals(200, image.ordinal());
+        assertTrue(image.isImmutable());
+        assertEquals(Set.of(), ConfigNode.changes(tree, image.tree()));
+    }
+
+    @Test
+    void preconvertsPrimitiveValues() throws IOException {
+        ConfigImage image = ConfigImage.open(write(TreeConfig.tree("flag", "TRUE", "off", "false", "port", "8080",
+                                                                   "large", "4294967296", "ratio", "0.75",
+                                                                   "timeout", "PT5S", "name", "x")), 100);
+
+        assertEquals(Boolean.TRUE, image.value(ConfigPath.of("flag"), boolean.class));
+        assertEquals(Boolean.FALSE, image.value(ConfigPath.of("off"), Boolean.class));
+        assertEquals(8080, image.value(ConfigPath.of("port"), int.class));
+        assertEquals(8080L, image.value(ConfigPath.of("port"), Long.class));
+        assertEquals((short) 8080, image.value(ConfigPath.of("port"), short.class));
+        assertEquals(4294967296L, image.value(ConfigPath.of("large"), long.class));
+        assertEquals(0.75, image.value(ConfigPath.of("ratio"), double.class));
+        // not pre-converted, converted from the raw value
+        assertEquals(8080.0, image.value(ConfigPath.of("port"), Double.class));
+        assertEquals(0.75f, image.value(ConfigPath.of("ratio"), float.class));
+        assertEquals("8080", image.value(ConfigPath.of("port"), String.class));
+        assertEquals(Duration.ofSeconds(5), image.value(ConfigPath.of("timeout"), Duration.class));
+        assertNull(image.value(ConfigPath.of("missing"), int.class));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> image.value(ConfigPath.of("large"), int.class));
+        assertTrue(e.getMessage().contains("4294967296"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> image.value(ConfigPath.of("port"), byte.class));
+        assertThrows(IllegalArgumentException.class, () -> image.value(ConfigPath.of("name"), boolean.class));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = Files.writeString(directory.resolve("other.image"), "a=1\n");
+
+        ConfigException e = assertThrows(ConfigException.class, () -> ConfigImage.open(file, 100));
+        assertTrue(e.getMessage().startsWith("Not a configuration image"), e.getMessage());
+        assertThrows(ConfigException.class, () -> ConfigImage.open(directory.resolve("missing.image"), 100));
+    }
+
+    @Test
+    void detectsTruncation() throws IOException {
+        Path file = write(TreeConfig.tree("a.b", "1", "c", "two"));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        ConfigException e = assertThrows(ConfigException.class, () -> ConfigImage.open(file, 100));
+        assertTrue(e.getMessage().startsWith("Corrupt configuration image"), e.getMessage());
+    }
+
+    @Test
+    void detectsCorruptOffsets() throws IOException {
+        Path file = write(TreeConfig.tree("a.b", "1", "c", "two"));
+        byte[] bytes = Files.readAllBytes(file);
+        int stringCount = ByteBuffer.wrap(bytes).getInt(8);
+
+        // the offset of the third of the five strings, which a lookup compares first, beyond the strings
+        byte[] strings = bytes.clone();
+        ByteBuffer.wrap(strings).putInt(28, Integer.MAX_VALUE);
+        ConfigImage corruptStrings = ConfigImage.open(Files.write(directory.resolve("strings.image"), strings), 100);
+        assertThrows(ConfigException.class, () -> corruptStrings.value(ConfigPath.of("c")));
+
+        // the path offset of every entry, before the paths
+        byte[] paths = bytes.clone();
+        int entries = 20 + 4 * (stringCount + 1);
+        ByteBuffer.wrap(paths).putInt(entries, -1).putInt(entries + 20, -1);
+        ConfigImage corruptPaths = ConfigImage.open(Files.write(directory.resolve("paths.image"), paths), 100);
+        assertThrows(ConfigException.class, () -> corruptPaths.value(ConfigPath.of("c")));
+        assertThrows(ConfigException.class, corruptPaths::tree);
+
+        // the header, with more entries than the file holds
+        byte[] header = bytes.clone();
+        ByteBuffer.wrap(header).putInt(12, Integer.MAX_VALUE);
+        Path corruptHeader = Files.write(directory.resolve("header.image"), header);
+        assertThrows(ConfigException.class, () -> ConfigImage.open(corruptHeader, 100));
+    }
+
+    private Path write(ConfigNode tree) throws IOException {
+        Path file = directory.resolve("config.image");
+        ConfigImage.write(tree, file);
+        return file;
+    }
+}
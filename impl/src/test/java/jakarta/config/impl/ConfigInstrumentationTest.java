@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigInstrumentationTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void enablesWhileRegistered() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        assertFalse(ConfigInstrumentation.isEnabled());
+        assertNull(ConfigInstrumentation.load(String.class, ConfigPath.root()));
+
+        ConfigInstrumentation.register(first);
+        ConfigInstrumentation.register(second);
+        assertTrue(ConfigInstrumentation.isEnabled());
+        ConfigInstrumentation.unregister(first);
+        assertTrue(ConfigInstrumentation.isEnabled());
+        ConfigInstrumentation.unregister(second);
+        assertFalse(ConfigInstrumentation.isEnabled());
+        ConfigInstrumentation.unregister(second);
+        assertFalse(ConfigInstrumentation.isEnabled());
+
+        ConfigInstrumentation.cacheHit(String.class);
+        assertEquals(List.of(), first.events);
+    }
+
+    @Test
+    void reportsToRegisteredMetrics() throws IOException {
+        Path file = Files.writeString(directory.resolve("config.properties"), "a=1\n");
+        Recorder recorder = new Recorder();
+        ConfigInstrumentation.register(recorder);
+        try {
+            ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+            assertThrows(NoSuchElementException.class, () -> Config.bootstrap(classLoader));
+
+            Probe probe = ConfigInstrumentation.load(String.class, ConfigPath.of("a"));
+            probe.end();
+            probe = ConfigInstrumentation.conversion(Integer.class);
+            probe.end(new IllegalArgumentException());
+
+            CachingConfig caching = CachingConfig.of(TreeConfig.of("a", "1"), 16);
+            caching.path("a").load(String.class);
+            caching.path("a").load(String.class);
+
+            ConfigSources.file(file, 100);
+
+            try (ReloadingConfig config = ReloadingConfig.of(TreeConfig::new, List.of(file))) {
+                config.close();
+                Files.writeString(file, "a=2\n");
+                config.reload();
+            }
+        } finally {
+            ConfigInstrumentation.unregister(recorder);
+        }
+
+        assertEquals(List.of("bootstrapped failed",
+                             "loaded java.lang.String a",
+                             "converted java.lang.Integer failed",
+                             "cacheMiss java.lang.String",
+                             "cacheHit java.lang.String",
+                             "sourceRead " + file,
+                             "reloaded 0",
+                             "reloaded 1"),
+                     recorder.events);
+    }
+
+    @Test
+    void countsMeasurements() {
+        ConfigCounters counters = new ConfigCounters();
+        counters.loaded(String.class, ConfigPath.root(), 1000, false);
+        counters.loaded(String.class, ConfigPath.root(), 1500, true);
+        counters.loaded(String.class, ConfigPath.root(), 0, false);
+        counters.cacheHit(String.class);
+        counters.cacheHit(String.class);
+        counters.cacheMiss(String.class);
+        counters.reloaded(3, 10, false);
+
+        assertEquals(3, counters.loads());
+        assertEquals(1, counters.loadFailures());
+        assertEquals(2, counters.cacheHits());
+        assertEquals(1, counters.cacheMisses());
+        assertEquals(1, counters.reloads());
+        long[] latencies = new long[64];
+        latencies[0] = 1;
+        latencies[9] = 1;
+        latencies[10] = 1;
+        assertArrayEquals(latencies, counters.loadLatencies());
+    }
+
+    private static final class Recorder implements ConfigMetrics {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void bootstrapped(long nanos, boolean failed) {
+            events.add("bootstrapped" + (failed ? " failed" : ""));
+        }
+
+        @Override
+        public void loaded(Class<?> type, ConfigPath path, long nanos, boolean failed) {
+            events.add("loaded " + type.getName() + " " + path + (failed ? " failed" : ""));
+        }
+
+        @Override
+        public void sourceRead(String source, long nanos, boolean failed) {
+            events.add("sourceRead " + source + (failed ? " failed" : ""));
+        }
+
+        @Override
+        public void converted(Class<?> type, long nanos, boolean failed) {
+            events.add("converted " + type.getName() + (failed ? " failed" : ""));
+        }
+
+        @Override
+        public void cacheHit(Class<?> type) {
+            events.add("cacheHit " + type.getName());
+        }
+
+        @Override
+        public void cacheMiss(Class<?> type) {
+            events.add("cacheMiss " + type.getName());
+        }
+
+        @Override
+        public void reloaded(int changes, long nanos, boolean failed) {
+            events.add("reloaded " + changes + (failed ? " failed" : ""));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.List;
+import java.util.Set;
+
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigNodeTest {
+    @Test
+    void buildsTree() {
+        ConfigNode tree = TreeConfig.tree("server.host", "localhost", "server.port", "8080", "server", "root");
+
+        assertEquals("root", tree.child("server").value());
+        assertEquals("8080", tree.get(ConfigPath.of("server", "port")).value());
+        assertEquals(List.of("host", "port"), List.copyOf(tree.child("server").children().keySet()));
+        assertSame(tree, tree.get(ConfigPath.root()));
+        assertNull(tree.get(ConfigPath.of("server", "missing", "deeper")));
+        assertTrue(ConfigNode.builder().build().isEmpty());
+    }
+
+    @Test
+    void indexesElements() {
+        ConfigNode tree = TreeConfig.tree("list.10", "j", "list.1", "b", "list.0", "a", "list.01", "x", "list.key", "y",
+                                          "list.-1", "z", "list.4294967296", "w", "leaf", "v");
+
+        assertEquals(List.of("0", "1", "10"), List.copyOf(tree.child("list").elements().keySet()));
+        assertEquals("b", tree.child("list").elements().get("1").value());
+        assertTrue(tree.child("leaf").elements().isEmpty());
+        assertTrue(tree.elements().isEmpty());
+    }
+
+    @Test
+    void hashesContent() {
+        ConfigNode tree = TreeConfig.tree("a.b", "1", "a.c", "2", "d", "3");
+
+        assertEquals(tree.hash(), TreeConfig.tree("d", "3", "a.c", "2", "a.b", "1").hash());
+        assertNotEquals(tree.hash(), TreeConfig.tree("a.b", "1", "a.c", "2", "d", "4").hash());
+        assertNotEquals(tree.hash(), TreeConfig.tree("a.b", "1", "a.c", "2", "e", "3").hash());
+        assertEquals(0, ConfigNode.empty().hash());
+    }
+
+    @Test
+    void sharesUnmodifiedEntries() {
+        ConfigNode tree = TreeConfig.tree("a.b", "1", "c.d", "2");
+
+        ConfigNode modified = tree.with(ConfigPath.of("a", "b"), "3");
+        assertEquals("3", modified.get(ConfigPath.of("a", "b")).value());
+        assertEquals("1", tree.get(ConfigPath.of("a", "b")).value());
+        assertSame(tree.child("c"), modified.child("c"));
+        assertSame(tree, tree.with(ConfigPath.of("a", "b"), "1"));
+        assertSame(tree, tree.with(ConfigPath.of("x", "y"), null));
+
+        ConfigNode removed = tree.with(ConfigPath.of("a", "b"), null);
+        assertNull(removed.child("a"));
+        assertSame(tree.child("c"), removed.child("c"));
+    }
+
+    @Test
+    void overlaysOverrides() {
+        ConfigNode base = TreeConfig.tree("a.b", "1", "a.c", "2", "d.e", "3");
+
+        ConfigNode overlay = base.overlay(TreeConfig.tree("a.b", "9", "f", "4"));
+        assertEquals("9", overlay.get(ConfigPath.of("a", "b")).value());
+        assertEquals("2", overlay.get(ConfigPath.of("a", "c")).value());
+        assertEquals("4", overlay.child("f").value());
+        assertSame(base.child("d"), overlay.child("d"));
+        assertSame(base.get(ConfigPath.of("a", "c")), overlay.get(ConfigPath.of("a", "c")));
+        assertEquals(TreeConfig.tree("a.b", "9", "a.c", "2", "d.e", "3", "f", "4").hash(), overlay.hash());
+
+        assertSame(base, base.overlay(ConfigNode.empty()));
+        assertSame(base, base.overlay(TreeConfig.tree("a.b", "1")));
+    }
+
+    @Test
+    void findsChanges() {
+        ConfigNode previous = TreeConfig.tree("a.b", "1", "a.c", "2", "d.e", "3");
+        ConfigNode current = TreeConfig.tree("a.b", "1", "a.c", "5", "f", "4");
+
+        assertEquals(Set.of(ConfigPath.of("a", "c"), ConfigPath.of("d", "e"), ConfigPath.of("f")),
+                     ConfigNode.changes(previous, current));
+        assertTrue(ConfigNode.changes(previous, TreeConfig.tree("d.e", "3", "a.c", "2", "a.b", "1")).isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigProfileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsKeysBackAsWritten() throws IOException {
+        List<ConfigPath> paths = List.of(ConfigPath.of("with space", "a b"),
+                                         ConfigPath.of("back\\slash", "dot.ted"),
+                                         ConfigPath.of("line\u2028separator", "paragraph\u2029separator"),
+                                         ConfigPath.of("lone\ud800", "\udc00surrogate"),
+                                         ConfigPath.of("escape\\u0041", "undefined\u0378"));
+        ConfigProfile profile;
+        try (ConfigProfile.Recorder recorder = ConfigProfile.record()) {
+            for (ConfigPath path : paths) {
+                ConfigInstrumentation.load(String.class, path).end();
+            }
+            ConfigInstrumentation.conversion(Integer.class).end();
+            profile = recorder.profile();
+        }
+        Path file = directory.resolve("config.profile");
+        profile.write(file);
+
+        // every key is written on a single line
+        assertEquals(1 + paths.size() + 1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+        ConfigProfile read = ConfigProfile.read(file);
+        assertEquals(Map.of(String.class.getName(), Set.copyOf(paths)), read.loads());
+        assertEquals(Set.of(Integer.class.getName()), read.conversions());
+        assertEquals(profile.loads(), read.loads());
+    }
+
+    @Test
+    void rejectsMalformedEscapes() throws IOException {
+        for (String key : List.of("a\\", "a\\u12", "a\\uzzzz", "a\\u+123", "a\\x")) {
+            Path file = Files.writeString(directory.resolve("config.profile"),
+                                          "# Jakarta Config profile\nload java.lang.String " + key + "\n",
+                                          StandardCharsets.UTF_8);
+            ConfigException e = assertThrows(ConfigException.class, () -> ConfigProfile.read(file), key);
+            assertTrue(e.getMessage().startsWith("Corrupt configuration profile"), e.getMessage());
+        }
+    }
+}
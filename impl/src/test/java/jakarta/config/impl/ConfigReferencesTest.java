@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigReferencesTest {
+    @Test
+    void expandsReferences() {
+        ConfigReferences references = ConfigReferences.of(TreeConfig.tree(
+                "host", "localhost",
+                "port", "8080",
+                "url", "http://${host}:${port}/",
+                "proxy", "${url}proxy",
+                "fallback", "${missing:none}",
+                "escaped", "$${host} costs $5",
+                "plain", "plain"));
+
+        assertEquals("http://localhost:8080/", references.value(ConfigPath.of("url")));
+        assertEquals("http://localhost:8080/proxy", references.value(ConfigPath.of("proxy")));
+        assertEquals("none", references.value(ConfigPath.of("fallback")));
+        assertEquals("${host} costs $5", references.value(ConfigPath.of("escaped")));
+        assertEquals("plain", references.value(ConfigPath.of("plain")));
+        assertNull(references.value(ConfigPath.of("missing")));
+    }
+
+    @Test
+    void rejectsInvalidReferences() {
+        ConfigReferences references = ConfigReferences.of(TreeConfig.tree(
+                "unresolved", "${missing}",
+                "malformed", "${host",
+                "a", "${b}",
+                "b", "${a}"));
+
+        assertTrue(assertThrows(ConfigException.class, () -> references.value(ConfigPath.of("unresolved")))
+                           .getMessage().contains("missing"));
+        assertThrows(ConfigException.class, () -> references.value(ConfigPath.of("malformed")));
+        String message = assertThrows(ConfigException.class, () -> references.value(ConfigPath.of("a"))).getMessage();
+        assertTrue(message.contains("a") && message.contains("b"), message);
+    }
+
+    @Test
+    void keepsUnchangedExpansions() {
+        ConfigReferences references = ConfigReferences.of(TreeConfig.tree(
+                "host", "localhost",
+                "port", "8080",
+                "url", "http://${host}/",
+                "endpoint", "${url}api",
+                "other", "${port}"));
+        String endpoint = references.value(ConfigPath.of("endpoint"));
+        assertEquals("8080", references.value(ConfigPath.of("other")));
+
+        ConfigReferences updated = references.update(TreeConfig.tree(
+                "host", "localhost",
+                "port", "9090",
+                "url", "http://${host}/",
+                "endpoint", "${url}api",
+                "other", "${port}"));
+        assertSame(endpoint, updated.value(ConfigPath.of("endpoint")));
+        assertEquals("9090", updated.value(ConfigPath.of("other")));
+        assertEquals("8080", references.value(ConfigPath.of("other")));
+
+        ConfigReferences moved = updated.update(TreeConfig.tree(
+                "host", "example.com",
+                "port", "9090",
+                "url", "http://${host}/",
+                "endpoint", "${url}api",
+                "other", "${port}"));
+        assertEquals("http://example.com/api", moved.value(ConfigPath.of("endpoint")));
+        assertSame(moved, moved.update(moved.tree()));
+    }
+}
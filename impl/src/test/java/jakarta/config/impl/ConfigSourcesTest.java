@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigSourcesTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesFileOnce() throws IOException {
+        ConfigSources.Cache cache = new ConfigSources.Cache();
+        Path file = Files.writeString(directory.resolve("application.yaml"), "server:\n  port: 8080\n");
+        FileTime modified = Files.getLastModifiedTime(file);
+        ConfigNode tree = ConfigSources.file(file, 100, cache).tree();
+
+        assertSame(tree, ConfigSources.file(file, 200, cache).tree());
+        assertSame(tree, ConfigSources.file(directory.resolve(".").resolve("application.yaml"), 100, cache).tree());
+        assertNotSame(tree, ConfigSources.file(file, 100).tree());
+        assertNotSame(tree, ConfigSources.file(file, 100, new ConfigSources.Cache()).tree());
+
+        // a file of the same size and modification time is not read again
+        Files.writeString(file, "server:\n  port: 9090\n");
+        Files.setLastModifiedTime(file, modified);
+        assertSame(tree, ConfigSources.file(file, 100, cache).tree());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1000));
+        ConfigNode changed = ConfigSources.file(file, 100, cache).tree();
+        assertNotSame(tree, changed);
+        assertEquals("9090", changed.get(ConfigPath.of("server", "port")).value());
+
+        cache.clear();
+        assertNotSame(changed, ConfigSources.file(file, 100, cache).tree());
+    }
+
+    @Test
+    void namesFileOfParseFailure() throws IOException {
+        Path file = Files.writeString(directory.resolve("invalid.properties"), "a..b=1\n");
+
+        ConfigException e = assertThrows(ConfigException.class, () -> ConfigSources.file(file, 100));
+        assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+    }
+
+    @Test
+    void opensImageOfSystemProperty() throws IOException {
+        Path image = directory.resolve("config.image");
+        ConfigImage.write(TreeConfig.tree("server.port", "9090"), image);
+        Path classes = Files.createDirectories(directory.resolve("classes/META-INF")).getParent();
+        Files.writeString(classes.resolve("META-INF/jakarta-config.properties"), "server.port=8080\nserver.host=h\n");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, null)) {
+            assertEquals("8080", ConfigSources.load(loader).value(ConfigPath.of("server", "port")));
+
+            System.setProperty(ConfigSources.IMAGE_PROPERTY, image.toString());
+            try {
+                ConfigSources sources = ConfigSources.load(loader);
+                assertEquals("9090", sources.value(ConfigPath.of("server", "port")));
+                assertEquals("h", sources.value(ConfigPath.of("server", "host")));
+            } finally {
+                System.clearProperty(ConfigSources.IMAGE_PROPERTY);
+            }
+        }
+    }
+
+    @Test
+    void overridesEnvironmentVariablesByLookupOnly() {
+        ConfigSource environment = ConfigSources.environmentVariables(Map.of("server.host", "h",
+                                                                             "SERVER_IO_THREADS", "8",
+                                                                             "server_io_threads", "4"));
+        ConfigSource file = ConfigSources.of("file", 100, TreeConfig.tree("server.port", "1"));
+        ConfigSources sources = ConfigSources.of(List.of(environment, file));
+
+        assertEquals("h", sources.value(ConfigPath.of("server", "host")));
+        assertEquals("8", sources.value(ConfigPath.of("server", "io-threads")));
+        assertEquals("8", sources.value(ConfigPath.of("server", "io", "threads")));
+        // a normalized name does not determine a configuration path, so it is not in the tree
+        assertEquals(Set.of("host", "port"), sources.tree().child("server").children().keySet());
+        assertNull(environment.tree().get(ConfigPath.of("server", "io-threads")));
+    }
+
+    @Test
+    void parsesClasspathOnce() throws IOException {
+        ConfigSources.Cache cache = new ConfigSources.Cache();
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        Files.createDirectories(first.resolve("META-INF"));
+        Files.createDirectories(second.resolve("META-INF"));
+        Files.writeString(first.resolve("META-INF/jakarta-config.properties"), "a=1\n");
+        Path overridden = Files.writeString(second.resolve("META-INF/jakarta-config.properties"), "a=2\nb=2\n");
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {first.toUri().toURL(), second.toUri().toURL()},
+                                                        null)) {
+            ConfigNode tree = ConfigSources.classpath(loader, cache).tree();
+            assertEquals("1", tree.child("a").value());
+            assertEquals("2", tree.child("b").value());
+            // the parsed files are shared, and only the overridden configuration entries are copied
+            assertSame(tree.child("b"), ConfigSources.classpath(loader, cache).tree().child("b"));
+            assertNotSame(tree.child("b"), ConfigSources.classpath(loader).tree().child("b"));
+
+            Files.writeString(overridden, "a=2\nb=3\n");
+            ConfigNode changed = ConfigSources.classpath(loader, cache).tree();
+            assertEquals("1", changed.child("a").value());
+            assertEquals("3", changed.child("b").value());
+        }
+    }
+
+    @Test
+    void parsesJarEntryOnce() throws IOException {
+        ConfigSources.Cache cache = new ConfigSources.Cache();
+        Path jar = directory.resolve("config.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("META-INF/jakarta-config.properties"));
+            out.write("a=1\n".getBytes(StandardCharsets.UTF_8));
+        }
+        URL[] urls = {jar.toUri().toURL()};
+        // the class loaders of two deployments of the same JAR file share its configuration tree
+        try (URLClassLoader first = new URLClassLoader(urls, null);
+                URLClassLoader second = new URLClassLoader(urls, null)) {
+            ConfigNode tree = ConfigSources.classpath(first, cache).tree();
+            assertEquals("1", tree.child("a").value());
+            assertSame(tree.child("a"), ConfigSources.classpath(second, cache).tree().child("a"));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConvertersTest {
+    @Test
+    void convertsBooleansStrictly() {
+        assertEquals(true, Converters.convert(boolean.class, "TRUE"));
+        assertEquals(false, Converters.convert(Boolean.class, "False"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> Converters.convert(boolean.class, "yes"));
+        assertTrue(e.getMessage().contains("'yes'") && e.getMessage().contains("boolean"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Converters.convert(Boolean.class, "ture"));
+        assertThrows(IllegalArgumentException.class, () -> Converters.convert(Boolean.class, ""));
+    }
+
+    @Test
+    void convertsSingleCharacters() {
+        assertEquals('x', Converters.convert(char.class, "x"));
+        assertEquals('é', Converters.convert(Character.class, "é"));
+
+        assertThrows(IllegalArgumentException.class, () -> Converters.convert(char.class, ""));
+        assertThrows(IllegalArgumentException.class, () -> Converters.convert(Character.class, "xy"));
+    }
+
+    @Test
+    void prefersFactoryMethodsInOrder() {
+        assertEquals("valueOf a", Converters.convert(AllFactories.class, "a").via);
+        assertEquals("of a", Converters.convert(OfAndParse.class, "a").via);
+        assertEquals("parse a", Converters.convert(ParseAndConstructor.class, "a").via);
+        assertEquals("constructor a", Converters.convert(ConstructorOnly.class, "a").via);
+        // built-in converters and enums take precedence over factory methods
+        assertEquals(Duration.ofSeconds(1), Converters.convert(Duration.class, "PT1S"));
+        assertSame(Level.HIGH, Converters.convert(Level.class, "HIGH"));
+    }
+
+    @Test
+    void rejectsTypesWithoutConversion() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                                  () -> Converters.of(NoConversion.class));
+        assertTrue(e.getMessage().contains(NoConversion.class.getName()), e.getMessage());
+    }
+
+    @Test
+    void resolvesConvertersOnce() {
+        assertSame(Converters.of(OfAndParse.class), Converters.of(OfAndParse.class));
+    }
+
+    public enum Level {
+        HIGH;
+
+        public static Level of(String value) {
+            throw new AssertionError(value);
+        }
+    }
+
+    public static final class AllFactories {
+        private final String via;
+
+        public AllFactories(String value) {
+            via = "constructor " + value;
+        }
+
+        private AllFactories(String via, boolean factory) {
+            this.via = via;
+        }
+
+        public static AllFactories parse(String value) {
+            return new AllFactories("parse " + value, true);
+        }
+
+        public static AllFactories of(String value) {
+            return new AllFactories("of " + value, true);
+        }
+
+        public static AllFactories valueOf(String value) {
+            return new AllFactories("valueOf " + value, true);
+        }
+    }
+
+    public static final class OfAndParse {
+        private final String via;
+
+        private OfAndParse(String via) {
+            this.via = via;
+        }
+
+        public static OfAndParse parse(String value) {
+            return new OfAndParse("parse " + value);
+        }
+
+        public static OfAndParse of(CharSequence value) {
+            return new OfAndParse("of " + value);
+        }
+    }
+
+    public static final class ParseAndConstructor {
+        private final String via;
+
+        public ParseAndConstructor(String value) {
+            via = "constructor " + value;
+        }
+
+        private ParseAndConstructor(String via, boolean factory) {
+            this.via = via;
+        }
+
+        public static ParseAndConstructor parse(String value) {
+            return new ParseAndConstructor("parse " + value, true);
+        }
+    }
+
+    public static final class ConstructorOnly {
+        private final String via;
+
+        public ConstructorOnly(String value) {
+            via = "constructor " + value;
+        }
+    }
+
+    public static final class NoConversion {
+        public NoConversion(int value) {
+        }
+    }
+}
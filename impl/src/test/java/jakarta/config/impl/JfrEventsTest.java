@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigInstrumentation.Probe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrEventsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void emitsEventsWhileRecording() throws IOException {
+        assertTrue(ConfigInstrumentation.enableFlightRecorder());
+        Path file = directory.resolve("config.jfr");
+        ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Bootstrap", "Load", "SourceRead", "Conversion", "Reload")) {
+                recording.enable("jakarta.config." + name);
+            }
+            recording.start();
+            assertTrue(ConfigInstrumentation.isEnabled());
+
+            assertThrows(NoSuchElementException.class, () -> Config.bootstrap(classLoader));
+            ConfigInstrumentation.load(String.class, ConfigPath.of("a", "b")).end();
+            ConfigInstrumentation.sourceRead("source").end();
+            ConfigInstrumentation.conversion(Integer.class).end(new IllegalArgumentException("invalid"));
+            Probe reload = ConfigInstrumentation.reload();
+            reload.changes(3);
+            reload.end();
+
+            recording.stop();
+            assertFalse(ConfigInstrumentation.isEnabled());
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> events = new TreeMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            events.put(event.getEventType().getName(), event);
+        }
+        assertEquals(List.of("jakarta.config.Bootstrap", "jakarta.config.Conversion", "jakarta.config.Load",
+                             "jakarta.config.Reload", "jakarta.config.SourceRead"),
+                     List.copyOf(events.keySet()));
+        assertEquals(classLoader.toString(), events.get("jakarta.config.Bootstrap").getString("classLoader"));
+        assertEquals(new NoSuchElementException().toString(),
+                     events.get("jakarta.config.Bootstrap").getString("failure"));
+        assertEquals("a.b", events.get("jakarta.config.Load").getString("path"));
+        assertNull(events.get("jakarta.config.Load").getString("failure"));
+        assertEquals("source", events.get("jakarta.config.SourceRead").getString("source"));
+        assertEquals(new IllegalArgumentException("invalid").toString(),
+                     events.get("jakarta.config.Conversion").getString("failure"));
+        assertEquals(3, events.get("jakarta.config.Reload").getInt("changes"));
+    }
+}
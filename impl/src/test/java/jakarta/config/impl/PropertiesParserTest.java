@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertiesParserTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesEntries() throws IOException {
+        Map<ConfigPath, String> entries = parse("# comment\n"
+                + "! comment\n"
+                + "a.b=1\n"
+                + "  c : 2\n"
+                + "d 3\n"
+                + "e\n"
+                + "f=\n"
+                + "a.b=4\n");
+
+        assertEquals(Map.of(ConfigPath.of("a", "b"), "4",
+                            ConfigPath.of("c"), "2",
+                            ConfigPath.of("d"), "3",
+                            ConfigPath.of("e"), "",
+                            ConfigPath.of("f"), ""),
+                     entries);
+    }
+
+    @Test
+    void decodesEscapes() throws IOException {
+        Map<ConfigPath, String> entries = parse("tab=a\\tb\n"
+                + "unicode=\\u00e9\\u20AC\n"
+                + "continued=a, \\\n"
+                + "    b\n"
+                + "separators=a\\=b\\:c\\ d\n"
+                + "key\\ with\\=separators=1\n"
+                + "dotted\\\\.key.child=2\n"
+                + "back\\\\\\\\slash=3\n"
+                + "utf8=\u00e9\u4e2d\n");
+
+        assertEquals("a\tb", entries.get(ConfigPath.of("tab")));
+        assertEquals("\u00e9\u20ac", entries.get(ConfigPath.of("unicode")));
+        assertEquals("a, b", entries.get(ConfigPath.of("continued")));
+        assertEquals("a=b:c d", entries.get(ConfigPath.of("separators")));
+        assertEquals("1", entries.get(ConfigPath.of("key with=separators")));
+        assertEquals("2", entries.get(ConfigPath.of("dotted.key", "child")));
+        assertEquals("3", entries.get(ConfigPath.of("back\\slash")));
+        assertEquals("\u00e9\u4e2d", entries.get(ConfigPath.of("utf8")));
+    }
+
+    @Test
+    void parsesFilesAndReaders() throws IOException {
+        Path file = Files.writeString(directory.resolve("config.properties"), "a.b=\u00e9\n");
+        Map<ConfigPath, String> entries = new LinkedHashMap<>();
+        PropertiesParser.parse(file, entries::put);
+        PropertiesParser.parse(new StringReader("c=1"), entries::put);
+
+        assertEquals(Map.of(ConfigPath.of("a", "b"), "\u00e9", ConfigPath.of("c"), "1"), entries);
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(ConfigException.class, () -> parse("key\\\\=1\n"));
+        assertThrows(ConfigException.class, () -> parse("a..b=1\n"));
+        assertThrows(ConfigException.class, () -> parse("a=\\u00g0\n"));
+
+        byte[] invalid = {'a', '=', (byte) 0xc3, '(', '\n'};
+        ConfigException e = assertThrows(ConfigException.class, () -> PropertiesParser.parse(
+                new ByteArrayInputStream(invalid), (path, value) -> { }));
+        assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+    }
+
+    private static Map<ConfigPath, String> parse(String properties) throws IOException {
+        Map<ConfigPath, String> entries = new LinkedHashMap<>();
+        PropertiesParser.parse(new ByteArrayInputStream(properties.getBytes(StandardCharsets.UTF_8)), entries::put);
+        return entries;
+    }
+}
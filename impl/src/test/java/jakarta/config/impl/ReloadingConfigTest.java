@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReloadingConfigTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void overridesEarlierFiles() throws IOException {
+        Path first = write("first.properties", "a=1\nb=2\n");
+        Path second = write("second.properties", "b=3\n");
+
+        try (ReloadingConfig config = ReloadingConfig.of(TreeConfig::new, List.of(first, second))) {
+            assertEquals("1", config.path("a").load(String.class));
+            assertEquals("3", config.path("b").load(String.class));
+        }
+    }
+
+    @Test
+    void reloadsChanges() throws IOException {
+        Path file = write("config.properties", "a.b=1\na.c=2\n");
+        Path absent = directory.resolve("absent.properties");
+
+        try (ReloadingConfig config = ReloadingConfig.of(TreeConfig::new, List.of(file, absent))) {
+            // reload in this thread only
+            config.close();
+            List<Set<ConfigPath>> notified = new CopyOnWriteArrayList<>();
+            config.addListener(notified::add);
+            Config a = config.path("a");
+            Config snapshot = config.snapshot();
+
+            write("config.properties", "a.b=1\na.c=5\n");
+            write("absent.properties", "d=4\n");
+            Set<ConfigPath> changes = config.reload();
+            assertEquals(Set.of(ConfigPath.of("a", "c"), ConfigPath.of("d")), changes);
+            assertEquals(List.of(changes), notified);
+            assertEquals("5", a.path("c").load(String.class));
+            assertEquals("4", config.path("d").load(String.class));
+            assertEquals(Set.of("b", "c"), a.childKeys());
+            assertEquals("2", snapshot.path("a", "c").load(String.class));
+            assertThrows(NoSuchElementException.class, () -> snapshot.path("d").load(String.class));
+
+            assertTrue(config.reload().isEmpty());
+            assertEquals(1, notified.size());
+        }
+    }
+
+    @Test
+    void keepsConfigurationOnFailure() throws IOException {
+        Path file = write("config.properties", "a=1\n");
+
+        try (ReloadingConfig config = ReloadingConfig.of(TreeConfig::new, List.of(file))) {
+            config.close();
+            // a key that ends with an escape
+            write("config.properties", "a=2\nb\\\\=3\n");
+            assertThrows(ConfigException.class, config::reload);
+            assertEquals("1", config.path("a").load(String.class));
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
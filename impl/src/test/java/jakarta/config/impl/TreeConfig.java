@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+
+/**
+ * A {@link Config} of a configuration tree, which loads the expanded <em>raw value</em> of a
+ * <em>configuration path</em> as a {@code String}, and counts its loads.
+ */
+final class TreeConfig implements Config {
+    private final ConfigReferences references;
+    private final ConfigPath path;
+    private final AtomicInteger loads;
+
+    TreeConfig(ConfigNode tree) {
+        this(ConfigReferences.of(tree), ConfigPath.root(), new AtomicInteger());
+    }
+
+    private TreeConfig(ConfigReferences references, ConfigPath path, AtomicInteger loads) {
+        this.references = references;
+        this.path = path;
+        this.loads = loads;
+    }
+
+    /**
+     * Creates a {@link TreeConfig} of the supplied <code>properties</code> keys and <em>raw values</em>, in pairs.
+     */
+    static TreeConfig of(String... entries) {
+        return new TreeConfig(tree(entries));
+    }
+
+    /**
+     * Builds the configuration tree of the supplied <code>properties</code> keys and <em>raw values</em>, in pairs.
+     */
+    static ConfigNode tree(String... entries) {
+        ConfigNode.Builder builder = ConfigNode.builder();
+        for (int i = 0; i < entries.length; i += 2) {
+            builder.put(ConfigPath.parse(entries[i]), entries[i + 1]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of loads of this {@link TreeConfig} and of every {@link TreeConfig} derived from it.
+     */
+    int loads() {
+        return loads.get();
+    }
+
+    @Override
+    public <T> T load(Class<T> type) {
+        loads.incrementAndGet();
+        if (type != String.class) {
+            throw new IllegalArgumentException(type.getName());
+        }
+        String value = references.value(path);
+        if (value == null) {
+            throw new NoSuchElementException(path.toString());
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public TreeConfig path(String... paths) {
+        return new TreeConfig(references, path.append(paths), loads);
+    }
+
+    @Override
+    public TreeConfig path(ConfigPath path) {
+        return new TreeConfig(references, this.path.append(path), loads);
+    }
+
+    @Override
+    public Set<String> childKeys() {
+        ConfigNode node = references.tree().get(path);
+        return node == null ? Set.of() : node.children().keySet();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.config.ConfigException;
+import jakarta.config.ConfigPath;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YamlParserTest {
+    @Test
+    void parsesCollections() throws IOException {
+        Map<ConfigPath, String> entries = parse("server:\n"
+                + "  host: localhost # comment\n"
+                + "  ports:\n"
+                + "    - 80\n"
+                + "    - 443\n"
+                + "  endpoints:\n"
+                + "    - path: /a\n"
+                + "      methods: [GET, POST]\n"
+                + "  labels: {team: core, tier: \"1\"}\n");
+
+        assertEquals("localhost", entries.get(ConfigPath.of("server", "host")));
+        assertEquals("80", entries.get(ConfigPath.of("server", "ports", "0")));
+        assertEquals("443", entries.get(ConfigPath.of("server", "ports", "1")));
+        assertEquals("/a", entries.get(ConfigPath.of("server", "endpoints", "0", "path")));
+        assertEquals("POST", entries.get(ConfigPath.of("server", "endpoints", "0", "methods", "1")));
+        assertEquals("core", entries.get(ConfigPath.of("server", "labels", "team")));
+        assertEquals("1", entries.get(ConfigPath.of("server", "labels", "tier")));
+    }
+
+    @Test
+    void canonicalizesScalars() throws IOException {
+        Map<ConfigPath, String> entries = parse("null: ~\n"
+                + "empty:\n"
+                + "bool: True\n"
+                + "hex: 0x1F\n"
+                + "octal: 0o17\n"
+                + "positive: +012\n"
+                + "float: 1.50\n"
+                + "exponent: 1e3\n"
+                + "infinity: -.inf\n"
+                + "nan: .NaN\n"
+                + "quoted: '0x1F'\n"
+                + "tagged: !!str true\n");
+
+        assertFalse(entries.containsKey(ConfigPath.of("null")));
+        assertFalse(entries.containsKey(ConfigPath.of("empty")));
+        assertEquals("true", entries.get(ConfigPath.of("bool")));
+        assertEquals("31", entries.get(ConfigPath.of("hex")));
+        assertEquals("15", entries.get(ConfigPath.of("octal")));
+        assertEquals("12", entries.get(ConfigPath.of("positive")));
+        assertEquals("1.50", entries.get(ConfigPath.of("float")));
+        assertEquals("1e3", entries.get(ConfigPath.of("exponent")));
+        assertEquals("-Infinity", entries.get(ConfigPath.of("infinity")));
+        assertEquals("NaN", entries.get(ConfigPath.of("nan")));
+        assertEquals("0x1F", entries.get(ConfigPath.of("quoted")));
+        assertEquals("true", entries.get(ConfigPath.of("tagged")));
+    }
+
+    @Test
+    void parsesQuotedAndBlockScalars() throws IOException {
+        Map<ConfigPath, String> entries = parse("double: \"a\\tb\\u00e9\\n\"\n"
+                + "single: 'it''s'\n"
+                + "literal: |\n"
+                + "  line 1\n"
+                + "  line 2\n"
+                + "folded: >-\n"
+                + "  word 1\n"
+                + "  word 2\n"
+                + "anchor: &value shared\n"
+                + "alias: *value\n");
+
+        assertEquals("a\tb\u00e9\n", entries.get(ConfigPath.of("double")));
+        assertEquals("it's", entries.get(ConfigPath.of("single")));
+        assertEquals("line 1\nline 2\n", entries.get(ConfigPath.of("literal")));
+        assertEquals("word 1 word 2", entries.get(ConfigPath.of("folded")));
+        assertEquals("shared", entries.get(ConfigPath.of("alias")));
+    }
+
+    @Test
+    void rejectsUnsupportedConstructs() {
+        assertThrows(ConfigException.class, () -> parse("a: 1\n---\nb: 2\n"));
+        assertThrows(ConfigException.class, () -> parse("? complex\n: key\n"));
+        assertThrows(ConfigException.class, () -> parse("%TAG ! tag:example.com,2000:\n---\na: 1\n"));
+        assertThrows(ConfigException.class, () -> parse("alias: *undefined\n"));
+
+        byte[] invalid = {'a', ':', ' ', (byte) 0xc3, '(', '\n'};
+        ConfigException e = assertThrows(ConfigException.class, () -> YamlParser.parse(
+                new ByteArrayInputStream(invalid), (path, value) -> { }));
+        assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+    }
+
+    private static Map<ConfigPath, String> parse(String yaml) throws IOException {
+        Map<ConfigPath, String> entries = new LinkedHashMap<>();
+        YamlParser.parse(new StringReader(yaml), entries::put);
+        return entries;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * An annotation processor that generates an implementation class for every
+ * {@code jakarta.config.ConfigMapping} interface at build time.
+ *
+ * <p>A generated implementation is a plain {@code final} class, named after the mapping interface as described by
+ * {@code jakarta.config.ConfigMapping}. Its public constructor accepts a {@code jakarta.config.Config} positioned at
+ * the <em>configuration path</em> of the mapping, and resolves every member eagerly, using
+ * <em>configuration paths</em> that were converted to their kebab-case format at build time. A {@code Config}
+ * implementation uses the generated class in place of reflection and dynamic proxies.</p>
+ *
+ * <p>{@code List}, {@code Collection} and {@code Set} members are resolved from the indexed children of their
+ * <em>configuration path</em>, and {@code Map} members from the child keys of their <em>configuration path</em>, with
+ * {@code jakarta.config.Config#childKeys()}. Mapping interfaces with members that cannot be resolved by a generated
+ * class, such as an {@code Optional} collection or a collection of a generic type, are reported with a note and left to
+ * the runtime mapping of the {@code Config} implementation.</p>
+ */
+// the member annotations are only meaningful within a mapping, so they are claimed along with it
+@SupportedAnnotationTypes({ConfigMappingProcessor.CONFIG_MAPPING,
+                           MappingModel.CONFIG_NAME,
+                           MappingModel.CONFIG_DEFAULT,
+                           MappingModel.CONFIG_DEFAULT + ".OfInt",
+                           MappingModel.CONFIG_DEFAULT + ".OfLong",
+                           MappingModel.CONFIG_DEFAULT + ".OfDouble",
+                           MappingModel.CONFIG_DEFAULT + ".OfBoolean",
+                           MappingModel.CONFIG_CONVERTER})
+public class ConfigMappingProcessor extends AbstractProcessor {
+    static final String CONFIG_MAPPING = "jakarta.config.ConfigMapping";
+
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * Creates a new {@link ConfigMappingProcessor}.
+     */
+    public ConfigMappingProcessor() {
+        super();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            if (!annotation.getQualifiedName().contentEquals(CONFIG_MAPPING)) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "@ConfigMapping is only supported on interfaces", element);
+                    continue;
+                }
+                generate((TypeElement) element, roundEnv);
+            }
+        }
+        // the supported annotations are defined by Jakarta Config, and no other processor needs to see them
+        return true;
+    }
+
+    private void generate(TypeElement type, RoundEnvironment roundEnv) {
+        MappingModel model = MappingModel.of(type, roundEnv, processingEnv);
+        if (model == null) {
+            return;
+        }
+        for (MappingModel nested : model.dependencies()) {
+            write(nested);
+        }
+        write(model);
+    }
+
+    private void write(MappingModel model) {
+        String className = model.qualifiedImplementationName();
+        if (!generated.add(className)) {
+            return;
+        }
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(className, model.type());
+            try (Writer writer = file.openWriter()) {
+                writer.write(new MappingWriter(model).write());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write " + className + ": " + e.getMessage(), model.type());
+        }
+    }
+}
@@ -0,0 +1,966 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.processor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * The build-time model of a mapping interface: its members, their <em>configuration paths</em> and the nested
+ * mapping interfaces that are generated alongside it.
+ */
+final class MappingModel {
+    static final String CONFIG_NAME = "jakarta.config.ConfigName";
+    static final String CONFIG_DEFAULT = "jakarta.config.ConfigDefault";
+    static final String CONFIG_CONVERTER = "jakarta.config.ConfigConverter";
+    static final String CONVERTER = "jakarta.config.spi.Converter";
+    static final String CONVERTER_SUFFIX = "$converter";
+    static final Map<String, TypeKind> TYPED_DEFAULTS = Map.of(CONFIG_DEFAULT + ".OfInt", TypeKind.INT,
+                                                               CONFIG_DEFAULT + ".OfLong", TypeKind.LONG,
+                                                               CONFIG_DEFAULT + ".OfDouble", TypeKind.DOUBLE,
+                                                               CONFIG_DEFAULT + ".OfBoolean", TypeKind.BOOLEAN);
+    static final String IMPLEMENTATION_SUFFIX = "_ConfigMapping";
+    // the built-in conversions of types without a conversion method that a search would find, by type name
+    private static final Map<String, String> BUILT_IN_FACTORIES = Map.of("java.math.BigInteger", "new ",
+                                                                          "java.math.BigDecimal", "new ",
+                                                                          "java.net.URI", "create",
+                                                                          "java.nio.file.Path", "of",
+                                                                          "java.util.UUID", "fromString");
+    private static final String[] FACTORIES = {"valueOf", "of", "parse"};
+
+    private final TypeElement type;
+    private final String packageName;
+    private final String implementationName;
+    private final List<Member> members;
+    private final Set<MappingModel> dependencies;
+    private final boolean lazy;
+
+    private MappingModel(TypeElement type,
+                         String packageName,
+                         String implementationName,
+                         List<Member> members,
+                         Set<MappingModel> dependencies,
+                         boolean lazy) {
+        this.type = type;
+        this.packageName = packageName;
+        this.implementationName = implementationName;
+        this.members = members;
+        this.dependencies = dependencies;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Builds the model of the supplied mapping interface.
+     *
+     * @return the model, or {@code null} if no implementation can be generated; the reason has been reported
+     */
+    static MappingModel of(TypeElement type, RoundEnvironment roundEnv, ProcessingEnvironment env) {
+        return new Builder(roundEnv, env).build(type);
+    }
+
+    TypeElement type() {
+        return type;
+    }
+
+    String packageName() {
+        return packageName;
+    }
+
+    String implementationName() {
+        return implementationName;
+    }
+
+    String qualifiedImplementationName() {
+        return packageName.isEmpty() ? implementationName : packageName + "." + implementationName;
+    }
+
+    List<Member> members() {
+        return members;
+    }
+
+    /**
+     * Whether the nested and {@code Optional} members are resolved on first access, as requested by
+     * {@code ConfigMapping#lazy()}.
+     */
+    boolean lazy() {
+        return lazy;
+    }
+
+    /**
+     * The nested mapping interfaces, transitively, that the generated class instantiates directly.
+     */
+    Set<MappingModel> dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Converts a member name to its kebab-case format, e.g. {@code ioThreads} to {@code io-threads} and
+     * {@code HTTPServer} to {@code http-server}.
+     */
+    static String kebabCase(String name) {
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c)) {
+                char previous = name.charAt(i - 1);
+                boolean wordEnd = Character.isLowerCase(previous) || Character.isDigit(previous);
+                boolean acronymEnd = Character.isUpperCase(previous)
+                        && i + 1 < name.length()
+                        && Character.isLowerCase(name.charAt(i + 1));
+                if (wordEnd || acronymEnd) {
+                    builder.append('-');
+                }
+            }
+            builder.append(Character.toLowerCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The kinds of collection members: a {@code List} or {@code Collection}, a {@code Set}, or a {@code Map} by
+     * {@code String} key.
+     */
+    enum Container {
+        LIST,
+        SET,
+        MAP
+    }
+
+    /**
+     * A mapping member.
+     */
+    static final class Member {
+        private final String method;
+        private final List<String> keys;
+        private final String type;
+        private final TypeKind kind;
+        private final String loadType;
+        private final MappingModel nested;
+        private final boolean optional;
+        private final Container container;
+        private final String defaultValue;
+        private final String converter;
+
+        Member(String method,
+               List<String> keys,
+               String type,
+               TypeKind kind,
+               String loadType,
+               MappingModel nested,
+               boolean optional,
+               Container container,
+               String defaultValue,
+               String converter) {
+            this.method = method;
+            this.keys = keys;
+            this.type = type;
+            this.kind = kind;
+            this.loadType = loadType;
+            this.nested = nested;
+            this.optional = optional;
+            this.container = container;
+            this.defaultValue = defaultValue;
+            this.converter = converter;
+        }
+
+        /**
+         * The name of the interface method.
+         */
+        String method() {
+            return method;
+        }
+
+        /**
+         * The <em>configuration path</em> of the member, relative to the mapping, as a <code>properties</code> key.
+         */
+        String path() {
+            StringBuilder path = new StringBuilder();
+            for (String key : keys) {
+                if (path.length() > 0) {
+                    path.append('.');
+                }
+                for (int i = 0; i < key.length(); i++) {
+                    char c = key.charAt(i);
+                    if (c == '.' || c == '\\') {
+                        path.append('\\');
+                    }
+                    path.append(c);
+                }
+            }
+            return path.toString();
+        }
+
+        /**
+         * The configuration keys of the <em>configuration path</em> of the member, relative to the mapping: the
+         * kebab-case name of the member, or the keys of its {@code @ConfigName}.
+         */
+        List<String> keys() {
+            return keys;
+        }
+
+        /**
+         * The source form of the member type.
+         */
+        String type() {
+            return type;
+        }
+
+        /**
+         * The kind of the member type; {@link TypeKind#DECLARED} for reference types.
+         */
+        TypeKind kind() {
+            return kind;
+        }
+
+        /**
+         * The source form of the (boxed) type passed to {@code Config#load}; the element type of a collection
+         * member, and the value type of a {@code Map} member.
+         */
+        String loadType() {
+            return loadType;
+        }
+
+        /**
+         * The nested mapping that is instantiated directly, or {@code null} if the value is loaded through
+         * {@code Config#load}.
+         */
+        MappingModel nested() {
+            return nested;
+        }
+
+        boolean optional() {
+            return optional;
+        }
+
+        /**
+         * The kind of collection of the member, or {@code null} if the member is not a collection.
+         */
+        Container container() {
+            return container;
+        }
+
+        /**
+         * The source form of the default value, or {@code null} if the member has no default value. The default
+         * value of a reference type is an expression that is only evaluated when the value is not found.
+         */
+        String defaultValue() {
+            return defaultValue;
+        }
+
+        /**
+         * The source form of the {@code ConfigConverter} type of the member, or {@code null} if the member is loaded
+         * with the default converter. The converter type has been checked to convert to the (boxed) member type, and
+         * to be instantiable by the generated class. The default value of a member with a converter is a
+         * {@code String} literal.
+         */
+        String converter() {
+            return converter;
+        }
+    }
+
+    private static final class Builder {
+        private final RoundEnvironment roundEnv;
+        private final ProcessingEnvironment env;
+        private final Map<TypeElement, MappingModel> built = new LinkedHashMap<>();
+        private final Set<TypeElement> building = new LinkedHashSet<>();
+
+        Builder(RoundEnvironment roundEnv, ProcessingEnvironment env) {
+            this.roundEnv = roundEnv;
+            this.env = env;
+        }
+
+        MappingModel build(TypeElement type) {
+            MappingModel existing = built.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            if (!building.add(type)) {
+                note(type, "it refers to itself");
+                return null;
+            }
+            try {
+                MappingModel model = doBuild(type);
+                if (model != null) {
+                    built.put(type, model);
+                }
+                return model;
+            } finally {
+                building.remove(type);
+            }
+        }
+
+        private MappingModel doBuild(TypeElement type) {
+            if (!type.getTypeParameters().isEmpty()) {
+                note(type, "it declares type parameters");
+                return null;
+            }
+            if (!accessible(type)) {
+                note(type, "it is not accessible from its package");
+                return null;
+            }
+
+            List<Member> members = new ArrayList<>();
+            Set<MappingModel> dependencies = new LinkedHashSet<>();
+            Set<String> paths = new LinkedHashSet<>();
+            boolean valid = true;
+            for (ExecutableElement method : ElementFilter.methodsIn(env.getElementUtils().getAllMembers(type))) {
+                if (!method.getModifiers().contains(Modifier.ABSTRACT) || objectMethod(method)) {
+                    continue;
+                }
+                Member member = member(type, method, dependencies);
+                if (member == null) {
+                    valid = false;
+                } else if (!paths.add(member.path())) {
+                    error(method, "Duplicate configuration path '" + member.path() + "' in " + type.getQualifiedName());
+                    valid = false;
+                } else {
+                    members.add(member);
+                }
+            }
+            if (!valid) {
+                return null;
+            }
+
+            boolean lazy = "true".equals(annotationValue(type, ConfigMappingProcessor.CONFIG_MAPPING, "lazy"));
+            String packageName = env.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            String binaryName = env.getElementUtils().getBinaryName(type).toString();
+            String simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+            return new MappingModel(type,
+                                    packageName,
+                                    simpleName.replace('$', '_') + IMPLEMENTATION_SUFFIX,
+                                    members,
+                                    dependencies,
+                                    lazy);
+        }
+
+        private Member member(TypeElement type, ExecutableElement method, Set<MappingModel> dependencies) {
+            if (!method.getParameters().isEmpty() || !method.getTypeParameters().isEmpty()) {
+                error(method, "A configuration member must not declare parameters");
+                return null;
+            }
+            TypeMirror returnType = method.getReturnType();
+            if (returnType.getKind() == TypeKind.VOID) {
+                error(method, "A configuration member must return a value");
+                return null;
+            }
+
+            List<String> path = configName(method, returnType);
+            if (path == null) {
+                return null;
+            }
+            String defaultValue = annotationValue(method, CONFIG_DEFAULT);
+            AnnotationValue converterValue = annotationMember(method, CONFIG_CONVERTER, "value");
+            TypeMirror converterType = converterValue == null ? null : (TypeMirror) converterValue.getValue();
+            String converter = converterType == null ? null : converterType.toString();
+            TypeKind typedDefault = null;
+            for (Map.Entry<String, TypeKind> typed : TYPED_DEFAULTS.entrySet()) {
+                String value = annotationValue(method, typed.getKey());
+                if (value != null) {
+                    if (defaultValue != null) {
+                        error(method, "A configuration member must declare at most one default value");
+                        return null;
+                    }
+                    defaultValue = value;
+                    typedDefault = typed.getValue();
+                }
+            }
+
+            boolean optional = false;
+            TypeMirror valueType = returnType;
+            if (isOptional(returnType)) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+                if (arguments.size() != 1) {
+                    note(type, "member " + method.getSimpleName() + "() has a raw Optional type");
+                    return null;
+                }
+                optional = true;
+                valueType = arguments.get(0);
+            }
+            if (typedDefault != null && primitiveKind(valueType) != typedDefault) {
+                error(method, "A default value of type " + typedDefault.name().toLowerCase()
+                        + " does not match the member type " + valueType);
+                return null;
+            }
+
+            Container container = isOptional(valueType) ? null : container(valueType);
+            TypeMirror elementType = valueType;
+            if (container != null) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) valueType).getTypeArguments();
+                if (optional || arguments.isEmpty()
+                        || (container == Container.MAP && !isType(arguments.get(0), "java.lang.String"))) {
+                    note(type, "member " + method.getSimpleName() + "() of type " + returnType
+                            + " requires the runtime mapping of the Config implementation");
+                    return null;
+                }
+                if (container == Container.MAP && defaultValue != null) {
+                    error(method, "A Map configuration member must not declare a default value");
+                    return null;
+                }
+                elementType = arguments.get(arguments.size() - 1);
+            }
+
+            if (converterType != null && !checkConverter(method, converterType, elementType)) {
+                return null;
+            }
+
+            if (valueType.getKind().isPrimitive()) {
+                String boxed = env.getTypeUtils().boxedClass((PrimitiveType) valueType)
+                                  .getQualifiedName().toString();
+                String literal = defaultValue == null ? null
+                        : converter != null ? stringLiteral(defaultValue)
+                        : literal(method, valueType.getKind(), defaultValue);
+                if (defaultValue != null && literal == null) {
+                    return null;
+                }
+                return new Member(method.getSimpleName().toString(), path, valueType.toString(), valueType.getKind(),
+                                  boxed, null, false, null, literal, converter);
+            }
+            if (elementType.getKind() != TypeKind.DECLARED
+                    || !((DeclaredType) elementType).getTypeArguments().isEmpty()) {
+                note(type, "member " + method.getSimpleName() + "() of type " + returnType
+                        + " requires the runtime mapping of the Config implementation");
+                return null;
+            }
+
+            TypeElement valueElement = (TypeElement) ((DeclaredType) elementType).asElement();
+            String valueName = valueElement.getQualifiedName().toString();
+            MappingModel nested = null;
+            if (converter == null && valueElement.getKind() == ElementKind.INTERFACE && fromSource(valueElement)) {
+                if (defaultValue != null) {
+                    error(method, "A nested configuration member must not declare a default value");
+                    return null;
+                }
+                nested = build(valueElement);
+                if (nested == null) {
+                    return null;
+                }
+                dependencies.addAll(nested.dependencies());
+                dependencies.add(nested);
+            }
+
+            String literal = null;
+            if (defaultValue != null && container != null) {
+                // the elements of a collection default value are separated by commas, and trimmed
+                StringBuilder elements = new StringBuilder("java.util.List.<" + valueName + ">of(");
+                for (String element : defaultValue.split(",")) {
+                    element = element.trim();
+                    String elementLiteral = converter != null
+                            ? method.getSimpleName() + CONVERTER_SUFFIX + ".convert(" + stringLiteral(element) + ")"
+                            : literal(type, method, valueElement, element);
+                    if (elementLiteral == null) {
+                        return null;
+                    }
+                    elements.append(elements.charAt(elements.length() - 1) == '(' ? "" : ", ").append(elementLiteral);
+                }
+                literal = elements.append(')').toString();
+            } else if (defaultValue != null) {
+                literal = converter != null ? stringLiteral(defaultValue) : literal(type, method, valueElement, defaultValue);
+                if (literal == null) {
+                    return null;
+                }
+            }
+            String declared;
+            if (container != null) {
+                String containerName = ((TypeElement) ((DeclaredType) valueType).asElement()).getQualifiedName()
+                        .toString();
+                declared = containerName + (container == Container.MAP ? "<java.lang.String, " : "<") + valueName + ">";
+            } else {
+                declared = optional ? "java.util.Optional<" + valueName + ">" : valueName;
+            }
+            return new Member(method.getSimpleName().toString(), path, declared, TypeKind.DECLARED,
+                              valueName, nested, optional, container, literal, converter);
+        }
+
+        /**
+         * Returns the kind of collection of the supplied type, or {@code null} if it is not a collection type that a
+         * generated class resolves.
+         */
+        private Container container(TypeMirror type) {
+            if (type.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            TypeMirror erasure = env.getTypeUtils().erasure(type);
+            if (isType(erasure, "java.util.List") || isType(erasure, "java.util.Collection")) {
+                return Container.LIST;
+            }
+            if (isType(erasure, "java.util.Set")) {
+                return Container.SET;
+            }
+            if (isType(erasure, "java.util.Map")) {
+                return Container.MAP;
+            }
+            return null;
+        }
+
+        private List<String> configName(ExecutableElement method, TypeMirror returnType) {
+            String name = annotationValue(method, CONFIG_NAME);
+            if (name != null) {
+                if (name.isEmpty()) {
+                    error(method, "@ConfigName must not be empty");
+                    return null;
+                }
+                List<String> keys = parseKey(name);
+                if (keys == null) {
+                    error(method, "@ConfigName '" + name + "' is not a valid properties key");
+                }
+                return keys;
+            }
+            return List.of(kebabCase(propertyName(method.getSimpleName().toString(), returnType)));
+        }
+
+        /**
+         * Parses a <code>properties</code> key into its configuration keys, as {@code ConfigPath.parse} does: a
+         * backslash escapes the next character, and a dot that is not escaped separates two configuration keys.
+         *
+         * @return the configuration keys, or {@code null} if the key ends with an escape or has an empty key
+         */
+        private static List<String> parseKey(String name) {
+            List<String> keys = new ArrayList<>();
+            StringBuilder key = new StringBuilder(name.length());
+            boolean escape = false;
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (escape) {
+                    key.append(c);
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '.') {
+                    keys.add(key.toString());
+                    key.setLength(0);
+                } else {
+                    key.append(c);
+                }
+            }
+            keys.add(key.toString());
+            return escape || keys.contains("") ? null : List.copyOf(keys);
+        }
+
+        private String propertyName(String method, TypeMirror returnType) {
+            String property = null;
+            if (method.length() > 3 && method.startsWith("get") && Character.isUpperCase(method.charAt(3))) {
+                property = method.substring(3);
+            } else if (method.length() > 2 && method.startsWith("is") && Character.isUpperCase(method.charAt(2))
+                    && (returnType.getKind() == TypeKind.BOOLEAN || isType(returnType, "java.lang.Boolean"))) {
+                property = method.substring(2);
+            }
+            if (property == null) {
+                return method;
+            }
+            // java.beans.Introspector#decapitalize
+            if (property.length() > 1 && Character.isUpperCase(property.charAt(1))) {
+                return property;
+            }
+            return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        }
+
+        private String literal(ExecutableElement method, TypeKind kind, String value) {
+            try {
+                switch (kind) {
+                case BOOLEAN:
+                    if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+                        return Boolean.toString(Boolean.parseBoolean(value));
+                    }
+                    throw new IllegalArgumentException();
+                case BYTE:
+                    return "(byte) " + Byte.parseByte(value);
+                case SHORT:
+                    return "(short) " + Short.parseShort(value);
+                case INT:
+                    return Integer.toString(Integer.parseInt(value));
+                case LONG:
+                    return Long.parseLong(value) + "L";
+                case FLOAT:
+                    return floatLiteral(Float.parseFloat(value));
+                case DOUBLE:
+                    return doubleLiteral(Double.parseDouble(value));
+                case CHAR:
+                    if (value.length() == 1) {
+                        return "(char) " + (int) value.charAt(0);
+                    }
+                    throw new IllegalArgumentException();
+                default:
+                    throw new IllegalArgumentException();
+                }
+            } catch (IllegalArgumentException e) {
+                error(method, "Default value '" + value + "' is not a valid " + kind.name().toLowerCase());
+                return null;
+            }
+        }
+
+        private String literal(TypeElement type, ExecutableElement method, TypeElement valueType, String value) {
+            String name = valueType.getQualifiedName().toString();
+            switch (name) {
+            case "java.lang.String":
+            case "java.lang.CharSequence":
+            case "java.lang.Object":
+                return stringLiteral(value);
+            case "java.lang.Boolean":
+                return literal(method, TypeKind.BOOLEAN, value);
+            case "java.lang.Byte":
+                return literal(method, TypeKind.BYTE, value);
+            case "java.lang.Short":
+                return literal(method, TypeKind.SHORT, value);
+            case "java.lang.Integer":
+                return literal(method, TypeKind.INT, value);
+            case "java.lang.Long":
+                return literal(method, TypeKind.LONG, value);
+            case "java.lang.Float":
+                return literal(method, TypeKind.FLOAT, value);
+            case "java.lang.Double":
+                return literal(method, TypeKind.DOUBLE, value);
+            case "java.lang.Character":
+                return literal(method, TypeKind.CHAR, value);
+            default:
+                break;
+            }
+            if (valueType.getKind() == ElementKind.ENUM) {
+                for (Element constant : valueType.getEnclosedElements()) {
+                    if (constant.getKind() == ElementKind.ENUM_CONSTANT
+                            && constant.getSimpleName().contentEquals(value)) {
+                        return name + "." + value;
+                    }
+                }
+                error(method, "Default value '" + value + "' is not a constant of " + name);
+                return null;
+            }
+            ExecutableElement factory = factory(valueType);
+            if (factory == null) {
+                error(method, "Default value '" + value + "' cannot be converted to " + name
+                        + ", which declares no conversion");
+                return null;
+            }
+            for (TypeMirror thrown : factory.getThrownTypes()) {
+                if (!isUnchecked(thrown)) {
+                    note(type, "the default value of member " + method.getSimpleName() + "() requires a conversion to "
+                            + name + " that throws " + thrown + ", by the Config implementation");
+                    return null;
+                }
+            }
+            String literal = stringLiteral(value);
+            String invocation = factory.getKind() == ElementKind.CONSTRUCTOR
+                    ? "new " + name + "(" + literal + ")"
+                    : name + "." + factory.getSimpleName() + "(" + literal + ")";
+            String failure = validate(valueType, factory, value);
+            if (failure != null) {
+                error(method, "Default value '" + value + "' is not a valid " + name + ": " + failure);
+                return null;
+            }
+            return invocation;
+        }
+
+        /**
+         * Returns the conversion method or constructor of the supplied type, resolved as by
+         * {@code jakarta.config.impl.Converters#of(Class)}, or {@code null} if there is none.
+         */
+        private ExecutableElement factory(TypeElement type) {
+            String builtIn = BUILT_IN_FACTORIES.get(type.getQualifiedName().toString());
+            List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+            List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+            if (builtIn != null && !builtIn.equals("new ")) {
+                for (ExecutableElement method : methods) {
+                    // Path.of(String, String...) is invoked with a single argument
+                    boolean varArgs = method.isVarArgs() && method.getParameters().size() == 2
+                            && isType(method.getParameters().get(0).asType(), "java.lang.String");
+                    if (method.getSimpleName().contentEquals(builtIn)
+                            && method.getModifiers().contains(Modifier.STATIC)
+                            && (varArgs || conversion(method, "java.lang.String"))) {
+                        return method;
+                    }
+                }
+            }
+            if (builtIn == null) {
+                for (String name : FACTORIES) {
+                    for (String parameter : new String[] {"java.lang.String", "java.lang.CharSequence"}) {
+                        for (ExecutableElement method : methods) {
+                            if (method.getSimpleName().contentEquals(name)
+                                    && method.getModifiers().contains(Modifier.STATIC)
+                                    && env.getTypeUtils().isAssignable(method.getReturnType(), type.asType())
+                                    && conversion(method, parameter)) {
+                                return method;
+                            }
+                        }
+                    }
+                }
+            }
+            for (ExecutableElement constructor : constructors) {
+                if (!type.getModifiers().contains(Modifier.ABSTRACT) && conversion(constructor, "java.lang.String")) {
+                    return constructor;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Whether the supplied method or constructor is public, and has a single parameter of the supplied type.
+         */
+        private boolean conversion(ExecutableElement executable, String parameter) {
+            return executable.getModifiers().contains(Modifier.PUBLIC)
+                    && executable.getParameters().size() == 1
+                    && isType(executable.getParameters().get(0).asType(), parameter);
+        }
+
+        /**
+         * Converts the supplied default value at build time, if the supplied type is a type of the platform that the
+         * processor can load, such as {@code java.time.Duration}.
+         *
+         * @return the reason the conversion failed, or {@code null} if it succeeded or cannot be attempted
+         */
+        private String validate(TypeElement type, ExecutableElement factory, String value) {
+            Class<?> platformType;
+            try {
+                platformType = Class.forName(env.getElementUtils().getBinaryName(type).toString(), false, null);
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            }
+            Class<?> parameter = isType(factory.getParameters().get(0).asType(), "java.lang.String")
+                    ? String.class : CharSequence.class;
+            try {
+                if (factory.getKind() == ElementKind.CONSTRUCTOR) {
+                    platformType.getConstructor(parameter).newInstance(value);
+                } else {
+                    platformType.getMethod(factory.getSimpleName().toString(), parameter).invoke(null, value);
+                }
+                return null;
+            } catch (InvocationTargetException e) {
+                return String.valueOf(e.getCause().getMessage());
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                // not accessible to the processor; converted at run time only
+                return null;
+            }
+        }
+
+        /**
+         * Checks that the supplied {@code ConfigConverter} type is a public, concrete class with a public constructor
+         * without parameters, that converts to the supplied member type.
+         *
+         * @return {@code true} if the converter type is valid; otherwise the reason has been reported
+         */
+        private boolean checkConverter(ExecutableElement method, TypeMirror converterType, TypeMirror valueType) {
+            TypeElement converter = (TypeElement) ((DeclaredType) converterType).asElement();
+            boolean instantiable = converter.getKind() == ElementKind.CLASS
+                    && !converter.getModifiers().contains(Modifier.ABSTRACT)
+                    && (converter.getEnclosingElement().getKind() == ElementKind.PACKAGE
+                        || converter.getModifiers().contains(Modifier.STATIC));
+            for (Element e = converter; instantiable && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+                instantiable = e.getModifiers().contains(Modifier.PUBLIC);
+            }
+            boolean constructor = false;
+            for (ExecutableElement c : ElementFilter.constructorsIn(converter.getEnclosedElements())) {
+                constructor |= c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC);
+            }
+            if (!instantiable || !constructor) {
+                error(method, "Converter " + converter.getQualifiedName()
+                        + " must be a public, concrete class with a public constructor without parameters");
+                return false;
+            }
+            TypeMirror converted = convertedType(converterType);
+            if (converted == null) {
+                error(method, "Converter " + converter.getQualifiedName() + " must implement " + CONVERTER
+                        + " with a type argument");
+                return false;
+            }
+            TypeMirror memberType = valueType.getKind().isPrimitive()
+                    ? env.getTypeUtils().boxedClass((PrimitiveType) valueType).asType()
+                    : valueType;
+            if (!env.getTypeUtils().isAssignable(converted, memberType)) {
+                error(method, "Converter " + converter.getQualifiedName() + " converts to " + converted
+                        + ", which is not assignable to the member type " + valueType);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the type argument of {@code Converter} of the supplied converter type, or {@code null} if it does
+         * not implement {@code Converter}, or implements its raw type.
+         */
+        private TypeMirror convertedType(TypeMirror type) {
+            for (TypeMirror supertype : env.getTypeUtils().directSupertypes(type)) {
+                if (isType(env.getTypeUtils().erasure(supertype), CONVERTER)) {
+                    List<? extends TypeMirror> arguments = ((DeclaredType) supertype).getTypeArguments();
+                    return arguments.size() == 1 ? arguments.get(0) : null;
+                }
+                TypeMirror converted = convertedType(supertype);
+                if (converted != null) {
+                    return converted;
+                }
+            }
+            return null;
+        }
+
+        private boolean isUnchecked(TypeMirror thrown) {
+            Elements elements = env.getElementUtils();
+            Types types = env.getTypeUtils();
+            return types.isSubtype(thrown, elements.getTypeElement("java.lang.RuntimeException").asType())
+                    || types.isSubtype(thrown, elements.getTypeElement("java.lang.Error").asType());
+        }
+
+        private boolean fromSource(TypeElement element) {
+            Element outermost = element;
+            while (outermost.getEnclosingElement() != null
+                    && outermost.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+                outermost = outermost.getEnclosingElement();
+            }
+            return roundEnv.getRootElements().contains(outermost);
+        }
+
+        private boolean accessible(TypeElement type) {
+            for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+                if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean objectMethod(ExecutableElement method) {
+            String name = method.getSimpleName().toString();
+            int parameters = method.getParameters().size();
+            return (parameters == 0 && (name.equals("hashCode") || name.equals("toString")))
+                    || (parameters == 1 && name.equals("equals"));
+        }
+
+        /**
+         * The kind of the supplied primitive type, or of the primitive type of the supplied wrapper type, or
+         * {@code null}.
+         */
+        private TypeKind primitiveKind(TypeMirror type) {
+            if (type.getKind().isPrimitive()) {
+                return type.getKind();
+            }
+            try {
+                return env.getTypeUtils().unboxedType(type).getKind();
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private boolean isOptional(TypeMirror type) {
+            return type.getKind() == TypeKind.DECLARED
+                    && isType(env.getTypeUtils().erasure(type), "java.util.Optional");
+        }
+
+        private boolean isType(TypeMirror type, String name) {
+            return type.getKind() == TypeKind.DECLARED
+                    && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+        }
+
+        private String annotationValue(Element element, String annotation) {
+            return annotationValue(element, annotation, "value");
+        }
+
+        private String annotationValue(Element element, String annotation, String name) {
+            AnnotationValue value = annotationMember(element, annotation, name);
+            return value == null ? null : String.valueOf(value.getValue());
+        }
+
+        private AnnotationValue annotationMember(Element element, String annotation, String name) {
+            for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+                if (annotationType.getQualifiedName().contentEquals(annotation)) {
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                            : mirror.getElementValues().entrySet()) {
+                        if (entry.getKey().getSimpleName().contentEquals(name)) {
+                            return entry.getValue();
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void note(TypeElement type, String reason) {
+            env.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "No implementation generated for " + type.getQualifiedName() + ", because " + reason, type);
+        }
+
+        private void error(Element element, String message) {
+            env.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        }
+    }
+
+    private static String floatLiteral(float value) {
+        if (Float.isNaN(value)) {
+            return "Float.NaN";
+        }
+        if (Float.isInfinite(value)) {
+            return value > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY";
+        }
+        return value + "f";
+    }
+
+    private static String doubleLiteral(double value) {
+        if (Double.isNaN(value)) {
+            return "Double.NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return value + "d";
+    }
+
+    static String stringLiteral(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            default:
+                if (c < 0x20) {
+                    // octal, as a unicode escape of a line terminator would end the literal
+                    builder.append(String.format("\\%03o", (int) c));
+                } else if (c > 0x7e) {
+                    builder.append(String.format("\\u%04x", (int) c));
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
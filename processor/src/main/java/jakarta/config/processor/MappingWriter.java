@@ -0,0 +1,463 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.processor;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.lang.model.type.TypeKind;
+
+/**
+ * Writes the source of the implementation class of a {@link MappingModel}.
+ */
+final class MappingWriter {
+    private static final String LAZY_CONFIG = "config$";
+    private static final String LAZY_LOCK = "lock$";
+
+    private final MappingModel model;
+    private final StringBuilder out = new StringBuilder(2048);
+
+    MappingWriter(MappingModel model) {
+        this.model = model;
+    }
+
+    String write() {
+        String interfaceName = model.type().getQualifiedName().toString();
+        String className = model.implementationName();
+
+        line(0, "// Generated by " + ConfigMappingProcessor.class.getName() + ". Do not edit.");
+        if (!model.packageName().isEmpty()) {
+            line(0, "package " + model.packageName() + ";");
+        }
+        line(0, "");
+        line(0, "/**");
+        line(0, " * Implementation of {@link " + interfaceName + "} generated at build time.");
+        line(0, " */");
+        line(0, "public final class " + className + " implements " + interfaceName + " {");
+
+        for (MappingModel.Member member : model.members()) {
+            if (member.converter() != null) {
+                // a converter is safe for concurrent use, so a single instance is shared by every mapping object
+                line(1, "private static final " + MappingModel.CONVERTER + "<? extends " + member.loadType() + "> "
+                        + member.method() + MappingModel.CONVERTER_SUFFIX + " = new " + member.converter() + "();");
+            }
+        }
+        boolean lazy = false;
+        for (MappingModel.Member member : model.members()) {
+            if (lazy(member)) {
+                line(1, "private volatile " + member.type() + " " + member.method() + ";");
+                lazy = true;
+            } else {
+                line(1, "private final " + member.type() + " " + member.method() + ";");
+            }
+        }
+        if (lazy) {
+            // '$' is reserved for generated names, so these fields do not clash with a member field
+            line(1, "private final jakarta.config.Config " + LAZY_CONFIG + ";");
+            // a private lock, so that code holding the monitor of the mapping object cannot block its resolution
+            line(1, "private final Object " + LAZY_LOCK + " = new Object();");
+        }
+        line(0, "");
+
+        line(1, "/**");
+        if (lazy) {
+            line(1, " * Resolves every member of the mapping, except the nested, optional and collection members,");
+            line(1, " * which are resolved on first access.");
+        } else {
+            line(1, " * Resolves every member of the mapping.");
+        }
+        line(1, " *");
+        line(1, " * @param config the {@link jakarta.config.Config} positioned at the configuration path of the mapping");
+        line(1, " */");
+        line(1, "public " + className + "(jakarta.config.Config config) {");
+        boolean loadHelper = false;
+        boolean convertHelper = false;
+        boolean optionalHelper = false;
+        boolean listHelper = false;
+        boolean mapHelper = false;
+        Set<TypeKind> primitiveHelpers = EnumSet.noneOf(TypeKind.class);
+        if (lazy) {
+            line(2, "this." + LAZY_CONFIG + " = config;");
+        }
+        for (MappingModel.Member member : model.members()) {
+            if (!lazy(member)) {
+                line(2, "this." + member.method() + " = " + resolve(member, "config") + ";");
+            }
+            listHelper |= member.container() == MappingModel.Container.LIST
+                    || member.container() == MappingModel.Container.SET;
+            mapHelper |= member.container() == MappingModel.Container.MAP;
+            if (member.converter() != null) {
+                convertHelper = true;
+            } else if (member.defaultValue() != null && member.container() == null) {
+                if (accessor(member.kind()) != null) {
+                    primitiveHelpers.add(member.kind());
+                } else {
+                    loadHelper = true;
+                }
+            }
+            optionalHelper |= member.optional() && member.defaultValue() == null;
+        }
+        line(1, "}");
+
+        for (MappingModel.Member member : model.members()) {
+            line(0, "");
+            line(1, "@Override");
+            line(1, "public " + member.type() + " " + member.method() + "() {");
+            if (lazy(member)) {
+                // double-checked locking: the member is resolved at most once, and a failure is not cached
+                line(2, member.type() + " value = this." + member.method() + ";");
+                line(2, "if (value == null) {");
+                line(3, "synchronized (" + LAZY_LOCK + ") {");
+                line(4, "value = this." + member.method() + ";");
+                line(4, "if (value == null) {");
+                line(5, "value = " + resolve(member, "this." + LAZY_CONFIG) + ";");
+                line(5, "this." + member.method() + " = value;");
+                line(4, "}");
+                line(3, "}");
+                line(2, "}");
+                line(2, "return value;");
+            } else {
+                line(2, "return this." + member.method() + ";");
+            }
+            line(1, "}");
+        }
+
+        writeEquals(className);
+        writeHashCode();
+
+        if (lazy) {
+            line(0, "");
+            line(1, "/**");
+            line(1, " * Returns the resolved state of a lazy member: its value, or null if it is absent.");
+            line(1, " */");
+            line(1, "private static Object state(java.util.function.Supplier<?> member) {");
+            line(2, "try {");
+            line(3, "return member.get();");
+            line(2, "} catch (java.util.NoSuchElementException e) {");
+            line(3, "return null;");
+            line(2, "}");
+            line(1, "}");
+        }
+
+        if (loadHelper) {
+            line(0, "");
+            line(1, "private static <T> T load(jakarta.config.Config config, String path, Class<T> type, "
+                    + "java.util.function.Supplier<? extends T> defaultValue) {");
+            line(2, "try {");
+            line(3, "return config.path(path).load(type);");
+            line(2, "} catch (java.util.NoSuchElementException e) {");
+            line(3, "return defaultValue.get();");
+            line(2, "}");
+            line(1, "}");
+        }
+        if (convertHelper) {
+            line(0, "");
+            line(1, "private static <T> T convert(jakarta.config.Config config, String path, "
+                    + MappingModel.CONVERTER + "<? extends T> converter, String defaultValue) {");
+            line(2, "String value;");
+            line(2, "try {");
+            line(3, "value = config.path(path).load(String.class);");
+            line(2, "} catch (java.util.NoSuchElementException e) {");
+            line(3, "if (defaultValue == null) {");
+            line(4, "throw e;");
+            line(3, "}");
+            line(3, "value = defaultValue;");
+            line(2, "}");
+            line(2, "try {");
+            line(3, "return converter.convert(value);");
+            line(2, "} catch (IllegalArgumentException e) {");
+            line(3, "throw new jakarta.config.ConfigException(\"Unable to convert '\" + value + \"' of \" + path, e);");
+            line(2, "}");
+            line(1, "}");
+        }
+        for (TypeKind kind : primitiveHelpers) {
+            String type = kind.name().toLowerCase();
+            String accessor = accessor(kind);
+            line(0, "");
+            line(1, "private static " + type + " " + accessor + "(jakarta.config.Config config, String path, "
+                    + type + " defaultValue) {");
+            line(2, "try {");
+            line(3, "return config.path(path)." + accessor + "();");
+            line(2, "} catch (java.util.NoSuchElementException e) {");
+            line(3, "return defaultValue;");
+            line(2, "}");
+            line(1, "}");
+        }
+        if (optionalHelper) {
+            line(0, "");
+            line(1, "private static <T> java.util.Optional<T> optional(java.util.function.Supplier<T> value) {");
+            line(2, "try {");
+            line(3, "return java.util.Optional.of(value.get());");
+            line(2, "} catch (java.util.NoSuchElementException e) {");
+            line(3, "return java.util.Optional.empty();");
+            line(2, "}");
+            line(1, "}");
+        }
+        if (listHelper) {
+            writeListHelpers();
+        }
+        if (mapHelper) {
+            line(0, "");
+            line(1, "private static <T> java.util.Map<String, T> map(jakarta.config.Config config, String path, "
+                    + "java.util.function.BiFunction<jakarta.config.Config, String, T> value) {");
+            line(2, "jakarta.config.Config map = config.path(path);");
+            line(2, "java.util.Map<String, T> entries = new java.util.TreeMap<>();");
+            line(2, "for (String key : map.childKeys()) {");
+            line(3, "entries.put(key, value.apply(map, key));");
+            line(2, "}");
+            line(2, "if (entries.isEmpty()) {");
+            line(3, "throw new java.util.NoSuchElementException(path);");
+            line(2, "}");
+            line(2, "return java.util.Collections.unmodifiableMap(entries);");
+            line(1, "}");
+        }
+        line(0, "}");
+        return out.toString();
+    }
+
+    /**
+     * Writes the helpers of {@code List}, {@code Collection} and {@code Set} members, which resolve the children
+     * with the index keys {@code 0}, {@code 1}, etc. of the member path in the order of their indexes, ignoring
+     * gaps.
+     */
+    private void writeListHelpers() {
+        line(0, "");
+        line(1, "private static <T> java.util.List<T> list(jakarta.config.Config config, String path, "
+                + "java.util.function.BiFunction<jakarta.config.Config, String, T> element, "
+                + "java.util.function.Supplier<java.util.List<T>> defaultValue) {");
+        line(2, "jakarta.config.Config list = config.path(path);");
+        line(2, "java.util.Set<String> keys = list.childKeys();");
+        line(2, "// dense indexes are placed directly, any others are sorted");
+        line(2, "String[] dense = new String[keys.size()];");
+        line(2, "java.util.SortedMap<Integer, String> sparse = new java.util.TreeMap<>();");
+        line(2, "int count = 0;");
+        line(2, "for (String key : keys) {");
+        line(3, "int index = index(key);");
+        line(3, "if (index >= 0 && index < dense.length) {");
+        line(4, "dense[index] = key;");
+        line(4, "count++;");
+        line(3, "} else if (index >= 0) {");
+        line(4, "sparse.put(index, key);");
+        line(4, "count++;");
+        line(3, "}");
+        line(2, "}");
+        line(2, "if (count == 0) {");
+        line(3, "if (defaultValue == null) {");
+        line(4, "throw new java.util.NoSuchElementException(path);");
+        line(3, "}");
+        line(3, "return defaultValue.get();");
+        line(2, "}");
+        line(2, "java.util.List<T> elements = new java.util.ArrayList<>(count);");
+        line(2, "for (String key : dense) {");
+        line(3, "if (key != null) {");
+        line(4, "elements.add(element.apply(list, key));");
+        line(3, "}");
+        line(2, "}");
+        line(2, "for (String key : sparse.values()) {");
+        line(3, "elements.add(element.apply(list, key));");
+        line(2, "}");
+        line(2, "return java.util.Collections.unmodifiableList(elements);");
+        line(1, "}");
+        line(0, "");
+        line(1, "private static <T> java.util.Set<T> set(jakarta.config.Config config, String path, "
+                + "java.util.function.BiFunction<jakarta.config.Config, String, T> element, "
+                + "java.util.function.Supplier<java.util.List<T>> defaultValue) {");
+        line(2, "return java.util.Collections.unmodifiableSet(new java.util.LinkedHashSet<>("
+                + "list(config, path, element, defaultValue)));");
+        line(1, "}");
+        line(0, "");
+        line(1, "/**");
+        line(1, " * Returns the index of the supplied key, if it is a non-negative decimal index without leading zeros,");
+        line(1, " * or -1.");
+        line(1, " */");
+        line(1, "private static int index(String key) {");
+        line(2, "int length = key.length();");
+        line(2, "if (length == 0 || length > 10 || (length > 1 && key.charAt(0) == '0')) {");
+        line(3, "return -1;");
+        line(2, "}");
+        line(2, "long index = 0;");
+        line(2, "for (int i = 0; i < length; i++) {");
+        line(3, "char c = key.charAt(i);");
+        line(3, "if (c < '0' || c > '9') {");
+        line(4, "return -1;");
+        line(3, "}");
+        line(3, "index = index * 10 + (c - '0');");
+        line(2, "}");
+        line(2, "return index > Integer.MAX_VALUE ? -1 : (int) index;");
+        line(1, "}");
+    }
+
+    /**
+     * Whether the member is resolved on first access rather than by the constructor.
+     */
+    private boolean lazy(MappingModel.Member member) {
+        return model.lazy() && (member.nested() != null || member.optional() || member.container() != null);
+    }
+
+    private String resolve(MappingModel.Member member, String config) {
+        List<String> keys = member.keys();
+        if (keys.size() > 1) {
+            // a dotted @ConfigName is resolved by the last key, under the node of the others
+            config = config + ".path(" + keys.subList(0, keys.size() - 1).stream()
+                    .map(MappingModel::stringLiteral)
+                    .collect(Collectors.joining(", ")) + ")";
+        }
+        String path = MappingModel.stringLiteral(keys.get(keys.size() - 1));
+        String value;
+        MappingModel nested = member.nested();
+        String accessor = accessor(member.kind());
+        if (member.container() != null) {
+            return container(member, config, path);
+        }
+        if (member.converter() != null) {
+            value = "convert(" + config + ", " + path + ", " + member.method() + MappingModel.CONVERTER_SUFFIX + ", "
+                    + (member.defaultValue() == null ? "null" : member.defaultValue()) + ")";
+        } else if (nested != null) {
+            value = "new " + nested.qualifiedImplementationName() + "(" + config + ".path(" + path + "))";
+        } else if (accessor != null) {
+            // primitive members are loaded without boxing
+            value = member.defaultValue() != null
+                    ? accessor + "(" + config + ", " + path + ", " + member.defaultValue() + ")"
+                    : config + ".path(" + path + ")." + accessor + "()";
+        } else if (member.defaultValue() != null) {
+            // the default value is only evaluated if the value is not found
+            value = "load(" + config + ", " + path + ", " + member.loadType() + ".class, () -> "
+                    + member.defaultValue() + ")";
+        } else {
+            value = config + ".path(" + path + ").load(" + member.loadType() + ".class)";
+        }
+        if (member.optional()) {
+            return member.defaultValue() != null
+                    ? "java.util.Optional.of(" + value + ")"
+                    : "optional(() -> " + value + ")";
+        }
+        return value;
+    }
+
+    private String container(MappingModel.Member member, String config, String path) {
+        String element;
+        if (member.converter() != null) {
+            element = "convert(c, key, " + member.method() + MappingModel.CONVERTER_SUFFIX + ", null)";
+        } else if (member.nested() != null) {
+            element = "new " + member.nested().qualifiedImplementationName() + "(c.path(key))";
+        } else {
+            element = "c.path(key).load(" + member.loadType() + ".class)";
+        }
+        if (member.container() == MappingModel.Container.MAP) {
+            return "map(" + config + ", " + path + ", (c, key) -> " + element + ")";
+        }
+        return (member.container() == MappingModel.Container.SET ? "set(" : "list(") + config + ", " + path
+                + ", (c, key) -> " + element + ", "
+                + (member.defaultValue() == null ? "null" : "() -> " + member.defaultValue()) + ")";
+    }
+
+    /**
+     * The name of the unboxed accessor of {@code jakarta.config.Config} for the supplied kind of member type, or
+     * {@code null} if the member is loaded with {@code Config#load}.
+     */
+    private static String accessor(TypeKind kind) {
+        switch (kind) {
+        case INT:
+            return "loadInt";
+        case LONG:
+            return "loadLong";
+        case DOUBLE:
+            return "loadDouble";
+        case BOOLEAN:
+            return "loadBoolean";
+        default:
+            return null;
+        }
+    }
+
+    private void writeEquals(String className) {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public boolean equals(Object obj) {");
+        line(2, "if (this == obj) {");
+        line(3, "return true;");
+        line(2, "}");
+        line(2, "if (!(obj instanceof " + className + ")) {");
+        line(3, "return false;");
+        line(2, "}");
+        if (model.members().isEmpty()) {
+            line(2, "return true;");
+        } else {
+            line(2, className + " that = (" + className + ") obj;");
+            StringBuilder condition = new StringBuilder();
+            for (MappingModel.Member member : model.members()) {
+                if (condition.length() > 0) {
+                    condition.append("\n").append(indent(4)).append("&& ");
+                }
+                String name = lazy(member) ? "state(this::" + member.method() + ")" : "this." + member.method();
+                String other = lazy(member) ? "state(that::" + member.method() + ")" : "that." + member.method();
+                switch (member.kind()) {
+                case FLOAT:
+                    condition.append("Float.compare(").append(name).append(", ").append(other).append(") == 0");
+                    break;
+                case DOUBLE:
+                    condition.append("Double.compare(").append(name).append(", ").append(other).append(") == 0");
+                    break;
+                case DECLARED:
+                    condition.append("java.util.Objects.equals(").append(name).append(", ").append(other).append(")");
+                    break;
+                default:
+                    condition.append(name).append(" == ").append(other);
+                }
+            }
+            line(2, "return " + condition + ";");
+        }
+        line(1, "}");
+    }
+
+    private void writeHashCode() {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public int hashCode() {");
+        line(2, "int result = 1;");
+        for (MappingModel.Member member : model.members()) {
+            line(2, "result = 31 * result + " + hash(member, lazy(member)) + ";");
+        }
+        line(2, "return result;");
+        line(1, "}");
+    }
+
+    private static String hash(MappingModel.Member member, boolean lazy) {
+        String name = lazy ? "state(this::" + member.method() + ")" : "this." + member.method();
+        TypeKind kind = member.kind();
+        if (lazy || kind == TypeKind.DECLARED) {
+            return "java.util.Objects.hashCode(" + name + ")";
+        }
+        // Boolean.hashCode(boolean), Integer.hashCode(int), etc.; no boxing
+        return member.loadType() + ".hashCode(" + name + ")";
+    }
+
+    private void line(int level, String text) {
+        if (!text.isEmpty()) {
+            out.append(indent(level)).append(text);
+        }
+        out.append('\n');
+    }
+
+    private static String indent(int level) {
+        return "    ".repeat(level);
+    }
+}
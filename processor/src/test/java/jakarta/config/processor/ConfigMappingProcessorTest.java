@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jakarta.config.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import jakarta.config.impl.ConfigNode;
+import jakarta.config.impl.ConfigSources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigMappingProcessorTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void generatesImplementation() throws Exception {
+        Compilation compilation = compile("mappings.MapConfig", resource("mappings/MapConfig.java"),
+                                          "mappings.Server", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "import java.util.*;\n"
+                + "@ConfigMapping(\"server\")\n"
+                + "public interface Server {\n"
+                + "    String host();\n"
+                + "    @ConfigDefault.OfInt(8080) int port();\n"
+                + "    @ConfigDefault(\"PT30S\") java.time.Duration timeout();\n"
+                + "    @ConfigName(\"max-threads\") Optional<Integer> threads();\n"
+                + "    @ConfigConverter(Hex.class) int mask();\n"
+                + "    List<String> aliases();\n"
+                + "    Map<String, Endpoint> endpoints();\n"
+                + "    interface Endpoint { String path(); }\n"
+                + "    class Hex implements jakarta.config.spi.Converter<Integer> {\n"
+                + "        public Integer convert(String value) { return Integer.parseInt(value, 16); }\n"
+                + "    }\n"
+                + "}\n");
+
+        assertTrue(compilation.success, compilation.toString());
+        assertTrue(compilation.diagnostics(Diagnostic.Kind.WARNING).isEmpty(), compilation.toString());
+        assertTrue(Files.exists(compilation.sources.resolve("mappings/Server_ConfigMapping.java")));
+        assertTrue(Files.exists(compilation.sources.resolve("mappings/Server_Endpoint_ConfigMapping.java")));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {compilation.classes.toUri().toURL()},
+                                                        getClass().getClassLoader())) {
+            Class<?> configType = loader.loadClass("jakarta.config.Config");
+            Object config = loader.loadClass("mappings.MapConfig")
+                                  .getConstructor(Map.class)
+                                  .newInstance(Map.of("server.host", "localhost",
+                                                      "server.max-threads", "4",
+                                                      "server.mask", "ff",
+                                                      "server.aliases.10", "c",
+                                                      "server.aliases.1", "b",
+                                                      "server.aliases.0", "a",
+                                                      "server.aliases.x", "x",
+                                                      "server.endpoints.x.path", "/x"));
+            Object serverConfig = configType.getMethod("path", String.class).invoke(config, "server");
+            Class<?> type = loader.loadClass("mappings.Server");
+            Object server = loader.loadClass("mappings.Server_ConfigMapping")
+                                  .getConstructor(configType)
+                                  .newInstance(serverConfig);
+            assertEquals("localhost", type.getMethod("host").invoke(server));
+            assertEquals(8080, type.getMethod("port").invoke(server));
+            assertEquals(Duration.ofSeconds(30), type.getMethod("timeout").invoke(server));
+            assertEquals(Optional.of(4), type.getMethod("threads").invoke(server));
+            assertEquals(255, type.getMethod("mask").invoke(server));
+            assertEquals(List.of("a", "b", "c"), type.getMethod("aliases").invoke(server));
+            Map<?, ?> endpoints = (Map<?, ?>) type.getMethod("endpoints").invoke(server);
+            assertEquals(List.of("x"), List.copyOf(endpoints.keySet()));
+        }
+    }
+
+    @Test
+    void loadsListsOfYamlSequences() throws Exception {
+        Compilation compilation = compile("mappings.NodeConfig", resource("mappings/NodeConfig.java"),
+                                          "mappings.Routes", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "import java.util.*;\n"
+                + "@ConfigMapping(\"routes\")\n"
+                + "public interface Routes {\n"
+                + "    List<String> hosts();\n"
+                + "    List<Route> entries();\n"
+                + "    interface Route { String path(); List<String> methods(); }\n"
+                + "}\n");
+        Path yaml = Files.writeString(directory.resolve("routes.yaml"), "routes:\n"
+                + "  hosts:\n"
+                + "    - a\n"
+                + "    - b\n"
+                + "  entries:\n"
+                + "    - path: /x\n"
+                + "      methods: [GET, POST]\n"
+                + "    - path: /y\n"
+                + "      methods:\n"
+                + "        - PUT\n");
+
+        assertTrue(compilation.success, compilation.toString());
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {compilation.classes.toUri().toURL()},
+                                                        getClass().getClassLoader())) {
+            Object config = loader.loadClass("mappings.NodeConfig")
+                                  .getConstructor(ConfigNode.class)
+                                  .newInstance(ConfigSources.file(yaml, 100).tree().child("routes"));
+            Class<?> configType = loader.loadClass("jakarta.config.Config");
+            Class<?> type = loader.loadClass("mappings.Routes");
+            Class<?> routeType = loader.loadClass("mappings.Routes$Route");
+            Object routes = loader.loadClass("mappings.Routes_ConfigMapping")
+                                  .getConstructor(configType)
+                                  .newInstance(config);
+            assertEquals(List.of("a", "b"), type.getMethod("hosts").invoke(routes));
+            List<?> entries = (List<?>) type.getMethod("entries").invoke(routes);
+            assertEquals(2, entries.size());
+            assertEquals("/x", routeType.getMethod("path").invoke(entries.get(0)));
+            assertEquals(List.of("GET", "POST"), routeType.getMethod("methods").invoke(entries.get(0)));
+            assertEquals("/y", routeType.getMethod("path").invoke(entries.get(1)));
+            assertEquals(List.of("PUT"), routeType.getMethod("methods").invoke(entries.get(1)));
+        }
+    }
+
+    @Test
+    void comparesResolvedStateOfLazyMembers() throws Exception {
+        Compilation compilation = compile("mappings.MapConfig", resource("mappings/MapConfig.java"),
+                                          "mappings.Client", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "import java.util.*;\n"
+                + "@ConfigMapping(value = \"client\", lazy = true)\n"
+                + "public interface Client {\n"
+                + "    String name();\n"
+                + "    Optional<String> proxy();\n"
+                + "    List<String> hosts();\n"
+                + "}\n");
+
+        assertTrue(compilation.success, compilation.toString());
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {compilation.classes.toUri().toURL()},
+                                                        getClass().getClassLoader())) {
+            Class<?> configType = loader.loadClass("jakarta.config.Config");
+            Object config = loader.loadClass("mappings.MapConfig")
+                                  .getConstructor(Map.class)
+                                  .newInstance(Map.of("client.name", "c"));
+            Object clientConfig = configType.getMethod("path", String.class).invoke(config, "client");
+            Class<?> type = loader.loadClass("mappings.Client");
+            Constructor<?> constructor = loader.loadClass("mappings.Client_ConfigMapping").getConstructor(configType);
+            Object client = constructor.newInstance(clientConfig);
+            Object other = constructor.newInstance(clientConfig);
+
+            // the absent hosts member fails on access, but is equal to another absent member
+            InvocationTargetException e = assertThrows(InvocationTargetException.class,
+                                                       () -> type.getMethod("hosts").invoke(client));
+            assertTrue(e.getCause() instanceof NoSuchElementException, e.getCause().toString());
+            assertEquals(client, other);
+            assertEquals(client.hashCode(), other.hashCode());
+
+            // the lazy members are resolved with a private lock, not with the monitor of the mapping object
+            synchronized (client) {
+                CompletableFuture<Object> proxy = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return type.getMethod("proxy").invoke(client);
+                    } catch (ReflectiveOperationException x) {
+                        throw new IllegalStateException(x);
+                    }
+                });
+                assertEquals(Optional.empty(), proxy.get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void mapsDottedNamesAndTrimsCollectionDefaults() throws Exception {
+        Compilation compilation = compile("mappings.MapConfig", resource("mappings/MapConfig.java"),
+                                          "mappings.Pool", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "import java.util.*;\n"
+                + "@ConfigMapping(\"pool\")\n"
+                + "public interface Pool {\n"
+                + "    @ConfigName(\"limits.max-size\") int size();\n"
+                + "    @ConfigName(\"file\\\\.name\") String file();\n"
+                + "    @ConfigDefault(\"a, b ,c\") List<String> tags();\n"
+                + "}\n");
+
+        assertTrue(compilation.success, compilation.toString());
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {compilation.classes.toUri().toURL()},
+                                                        getClass().getClassLoader())) {
+            Class<?> configType = loader.loadClass("jakarta.config.Config");
+            Object config = loader.loadClass("mappings.MapConfig")
+                                  .getConstructor(Map.class)
+                                  .newInstance(Map.of("pool.limits.max-size", "8",
+                                                      "pool.file.name", "pool.txt"));
+            Object poolConfig = configType.getMethod("path", String.class).invoke(config, "pool");
+            Class<?> type = loader.loadClass("mappings.Pool");
+            Object pool = loader.loadClass("mappings.Pool_ConfigMapping")
+                                .getConstructor(configType)
+                                .newInstance(poolConfig);
+            assertEquals(8, type.getMethod("size").invoke(pool));
+            assertEquals("pool.txt", type.getMethod("file").invoke(pool));
+            assertEquals(List.of("a", "b", "c"), type.getMethod("tags").invoke(pool));
+        }
+    }
+
+    @Test
+    void reportsInvalidNames() throws IOException {
+        Compilation compilation = compile("mappings.Names", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "@ConfigMapping\n"
+                + "public interface Names {\n"
+                + "    @ConfigName(\"a..b\") String empty();\n"
+                + "    @ConfigName(\"a\\\\\") String escape();\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        List<String> errors = compilation.diagnostics(Diagnostic.Kind.ERROR);
+        assertTrue(contains(errors, "@ConfigName 'a..b' is not a valid properties key"), errors.toString());
+        assertTrue(contains(errors, "@ConfigName 'a\\' is not a valid properties key"), errors.toString());
+    }
+
+    @Test
+    void reportsInvalidDefaults() throws IOException {
+        Compilation compilation = compile("mappings.Defaults", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "@ConfigMapping\n"
+                + "public interface Defaults {\n"
+                + "    @ConfigDefault(\"1s\") java.time.Duration timeout();\n"
+                + "    @ConfigDefault(\"many\") int count();\n"
+                + "    @ConfigDefault.OfLong(1) int mismatched();\n"
+                + "    @ConfigDefault(\"x\") java.util.Map<String, String> map();\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        List<String> errors = compilation.diagnostics(Diagnostic.Kind.ERROR);
+        assertTrue(contains(errors, "Default value '1s' is not a valid java.time.Duration"), errors.toString());
+        assertTrue(contains(errors, "Default value 'many' is not a valid int"), errors.toString());
+        assertTrue(contains(errors, "A default value of type long does not match the member type int"),
+                   errors.toString());
+        assertTrue(contains(errors, "A Map configuration member must not declare a default value"), errors.toString());
+    }
+
+    @Test
+    void reportsInvalidConverters() throws IOException {
+        Compilation compilation = compile("mappings.Converters", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "@ConfigMapping\n"
+                + "public interface Converters {\n"
+                + "    @ConfigConverter(Hidden.class) int hidden();\n"
+                + "    @ConfigConverter(Text.class) int mismatched();\n"
+                + "    class Hidden implements jakarta.config.spi.Converter<Integer> {\n"
+                + "        Hidden() { }\n"
+                + "        public Integer convert(String value) { return 1; }\n"
+                + "    }\n"
+                + "    class Text implements jakarta.config.spi.Converter<String> {\n"
+                + "        public String convert(String value) { return value; }\n"
+                + "    }\n"
+                + "}\n");
+
+        assertFalse(compilation.success);
+        List<String> errors = compilation.diagnostics(Diagnostic.Kind.ERROR);
+        assertTrue(contains(errors, "Converter mappings.Converters.Hidden must be a public, concrete class"),
+                   errors.toString());
+        assertTrue(contains(errors, "Converter mappings.Converters.Text converts to java.lang.String, which is not assignable"),
+                   errors.toString());
+    }
+
+    @Test
+    void leavesUnsupportedMappingsToRuntime() throws IOException {
+        Compilation compilation = compile("mappings.Unsupported", "package mappings;\n"
+                + "import jakarta.config.*;\n"
+                + "@ConfigMapping\n"
+                + "public interface Unsupported {\n"
+                + "    java.util.Map<Integer, String> byNumber();\n"
+                + "}\n");
+
+        assertTrue(compilation.success, compilation.toString());
+        assertTrue(contains(compilation.diagnostics(Diagnostic.Kind.NOTE),
+                            "No implementation generated for mappings.Unsupported"), compilation.toString());
+        assertFalse(Files.exists(compilation.sources.resolve("mappings/Unsupported_ConfigMapping.java")));
+    }
+
+    /**
+     * Compiles the supplied sources with the processor, by pairs of binary name and source.
+     */
+    private Compilation compile(String... sources) throws IOException {
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        Path generated = Files.createDirectories(directory.resolve("sources"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<JavaFileObject> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i += 2) {
+            String source = sources[i + 1];
+            files.add(new SimpleJavaFileObject(URI.create("string:///" + sources[i].replace('.', '/') + ".java"),
+                                               JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            });
+        }
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = List.of("-Xlint:all", "-Werror",
+                                           "-classpath", System.getProperty("java.class.path"),
+                                           "-processor", ConfigMappingProcessor.class.getName(),
+                                           "-d", classes.toString(),
+                                           "-s", generated.toString());
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, files).call();
+            return new Compilation(success, diagnostics.getDiagnostics(), classes, generated);
+        }
+    }
+
+    private String resource(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean contains(List<String> messages, String text) {
+        return messages.stream().anyMatch(message -> message.contains(text));
+    }
+
+    private static final class Compilation {
+        private final boolean success;
+        private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        private final Path classes;
+        private final Path sources;
+
+        Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path classes,
+                    Path sources) {
+            this.success = success;
+            this.diagnostics = new ArrayList<>(diagnostics);
+            this.classes = classes;
+            this.sources = sources;
+        }
+
+        List<String> diagnostics(Diagnostic.Kind kind) {
+            return diagnostics.stream()
+                    .filter(diagnostic -> diagnostic.getKind() == kind
+                            || (kind == Diagnostic.Kind.WARNING
+                                && diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING))
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public String toString() {
+            return diagnostics.stream().map(Object::toString).collect(Collectors.joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package mappings;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.config.Config;
+
+/**
+ * A {@link Config} of <code>properties</code> keys without escapes, which converts <em>raw values</em> to
+ * {@code String}, {@code Integer} and {@code Duration}.
+ */
+public final class MapConfig implements Config {
+    private final Map<String, String> properties;
+    private final String prefix;
+
+    public MapConfig(Map<String, String> properties) {
+        this(properties, "");
+    }
+
+    private MapConfig(Map<String, String> properties, String prefix) {
+        this.properties = properties;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public <T> T load(Class<T> type) {
+        String key = prefix.isEmpty() ? "" : prefix.substring(0, prefix.length() - 1);
+        String value = properties.get(key);
+        if (value == null) {
+            throw new NoSuchElementException(key);
+        }
+        if (type == String.class) {
+            return type.cast(value);
+        }
+        if (type == Integer.class) {
+            return type.cast(Integer.valueOf(value));
+        }
+        if (type == Duration.class) {
+            return type.cast(Duration.parse(value));
+        }
+        throw new IllegalArgumentException(type.getName());
+    }
+
+    @Override
+    public Config path(String... paths) {
+        StringBuilder path = new StringBuilder(prefix);
+        for (String key : paths) {
+            path.append(key).append('.');
+        }
+        return new MapConfig(properties, path.toString());
+    }
+
+    @Override
+    public Set<String> childKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String key : properties.keySet()) {
+            if (key.startsWith(prefix) && key.length() > prefix.length()) {
+                int end = key.indexOf('.', prefix.length());
+                keys.add(key.substring(prefix.length(), end < 0 ? key.length() : end));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package mappings;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+import jakarta.config.impl.ConfigNode;
+
+/**
+ * A {@link Config} of a {@link ConfigNode} tree, which converts <em>raw values</em> to {@code String} only.
+ */
+public final class NodeConfig implements Config {
+    private final ConfigNode tree;
+    private final ConfigPath path;
+
+    public NodeConfig(ConfigNode tree) {
+        this(tree, ConfigPath.root());
+    }
+
+    private NodeConfig(ConfigNode tree, ConfigPath path) {
+        this.tree = tree;
+        this.path = path;
+    }
+
+    @Override
+    public <T> T load(Class<T> type) {
+        ConfigNode node = tree.get(path);
+        if (node == null || node.value() == null) {
+            throw new NoSuchElementException(path.toString());
+        }
+        if (type == String.class) {
+            return type.cast(node.value());
+        }
+        throw new IllegalArgumentException(type.getName());
+    }
+
+    @Override
+    public Config path(String... paths) {
+        return new NodeConfig(tree, path.append(paths));
+    }
+
+    @Override
+    public Set<String> childKeys() {
+        ConfigNode node = tree.get(path);
+        return node == null ? Set.of() : node.children().keySet();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package jakarta.config.tck;
+
+import jakarta.config.Config;
+import jakarta.config.ConfigPath;
+import jakarta.config.tck.common.AnyConfiguration;
+import jakarta.config.tck.common.JakartaConfigValues;
+import jakarta.config.tck.common.My;
+import jakarta.config.tck.common.Other;
+import jakarta.config.tck.common.TopLevelConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Verifies that {@link Config#bootstrap()}, {@link Config#path(String...)} and {@link Config#load(Class)} are
+ * idempotent and safe for concurrent use by multiple threads: every method is invoked by many threads at once, which
+ * must all observe the same values, and must not observe any exception that is not specified.
+ */
+public class ConcurrencyTest {
+    private static final int THREADS = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+    private static final int ITERATIONS = 200;
+    private static final long TIMEOUT_SECONDS = 60;
+
+    @Test
+    public void testConcurrentBootstrap() {
+        List<Config> configs = runConcurrently(Executors.newFixedThreadPool(THREADS), THREADS, Config::bootstrap);
+        for (Config config : configs) {
+            Assertions.assertSame(configs.get(0), config);
+        }
+    }
+
+    @Test
+    public void testConcurrentLoad() {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), THREADS, ConcurrencyTest::loadRepeatedly);
+    }
+
+    @Test
+    public void testConcurrentLoadOnVirtualThreads() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        runConcurrently(executor, THREADS * 8, ConcurrencyTest::loadRepeatedly);
+    }
+
+    @Test
+    public void testConcurrentLoadOfSharedPath() {
+        Config other = Config.bootstrap().path("other");
+        runConcurrently(Executors.newFixedThreadPool(THREADS), THREADS, () -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                assertThat(other.load(Other.class).configuration().key(),
+                           equalTo(JakartaConfigValues.otherConfigurationKey));
+                assertThat(other.path("configuration").load(AnyConfiguration.class).key(),
+                           equalTo(JakartaConfigValues.otherConfigurationKey));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testEquivalentPathsUnderContention() {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), THREADS, () -> {
+            Config config = Config.bootstrap();
+            for (int i = 0; i < ITERATIONS; i++) {
+                String expected = config.path("other", "configuration").load(AnyConfiguration.class).key();
+                assertThat(expected, equalTo(JakartaConfigValues.otherConfigurationKey));
+                assertThat(config.path("other").path("configuration").load(AnyConfiguration.class).key(),
+                           equalTo(expected));
+                assertThat(config.path(ConfigPath.of("other", "configuration")).load(AnyConfiguration.class).key(),
+                           equalTo(expected));
+                assertThat(config.load(Other.class).configuration().key(), equalTo(expected));
+                assertThat(config.load(TopLevelConfig.class).other().configuration().key(), equalTo(expected));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testLoadAsyncOnSingleThread() throws Exception {
+        // an implementation that loads the members of a mapping concurrently must not wait for a busy executor
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TopLevelConfig topLevel = Config.bootstrap()
+                    .loadAsync(TopLevelConfig.class, executor, Duration.ofSeconds(TIMEOUT_SECONDS))
+                    .toCompletableFuture()
+                    .get();
+            assertThat(topLevel.my().username(), equalTo(JakartaConfigValues.myUserName));
+            assertThat(topLevel.my().password(), equalTo(JakartaConfigValues.myPassword));
+            assertThat(topLevel.other().configuration().key(), equalTo(JakartaConfigValues.otherConfigurationKey));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentFailures() {
+        runConcurrently(Executors.newFixedThreadPool(THREADS), THREADS, () -> {
+            Config config = Config.bootstrap().path("my", "config");
+            for (int i = 0; i < ITERATIONS; i++) {
+                try {
+                    config.load(AnyConfiguration.class);
+                    Assertions.fail("Expected NoSuchElementException has not been thrown when the configuration object not found");
+                } catch (NoSuchElementException noSuchElementException) {
+                    // pass
+                }
+            }
+            return null;
+        });
+    }
+
+    private static Void loadRepeatedly() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Config config = Config.bootstrap();
+
+            My my = config.load(My.class);
+            assertThat(my.username(), equalTo(JakartaConfigValues.myUserName));
+            assertThat(my.password(), equalTo(JakartaConfigValues.myPassword));
+            assertThat(my.configuration().key(), equalTo(JakartaConfigValues.myConfigurationKey));
+
+            Other other = config.load(Other.class);
+            assertThat(other.configuration().key(), equalTo(JakartaConfigValues.otherConfigurationKey));
+
+            TopLevelConfig topLevel = config.load(TopLevelConfig.class);
+            assertThat(topLevel.my().username(), equalTo(JakartaConfigValues.myUserName));
+            assertThat(topLevel.other().configuration().key(), equalTo(JakartaConfigValues.otherConfigurationKey));
+        }
+        return null;
+    }
+
+    /**
+     * Runs the supplied number of copies of the supplied task with the supplied executor, which is shut down. The
+     * tasks are released at once, to maximize contention.
+     *
+     * @return the results of the tasks
+     * @exception AssertionError if any task failed, with every failure suppressed
+     */
+    private static <T> List<T> runConcurrently(ExecutorService executor, int tasks, Callable<T> task) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(tasks);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>(tasks);
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                } catch (TimeoutException e) {
+                    failures.add(new AssertionError("A task did not complete within " + TIMEOUT_SECONDS + " seconds", e));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AssertionError("Interrupted", e);
+                }
+            }
+            if (!failures.isEmpty()) {
+                AssertionError error = new AssertionError(failures.size() + " of " + tasks + " concurrent tasks failed",
+                                                          failures.get(0));
+                for (Throwable failure : failures.subList(1, failures.size())) {
+                    error.addSuppressed(failure);
+                }
+                throw error;
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a new executor of a virtual thread per task, or aborts the test if this runtime has no virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            // the TCK targets a release without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return Assumptions.abort("Virtual threads are not supported by this runtime");
+        } catch (InvocationTargetException e) {
+            // virtual threads are a preview feature of Java 19 and 20, which is unsupported unless enabled
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return Assumptions.abort("Virtual threads are a preview feature that is not enabled in this runtime");
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -27,10 +27,22 @@ import jakarta.config.tck.common.Other;
 import jakarta.config.tck.common.TopLevelConfig;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class ConfigTest {
+    @Test
+    public void testBootstrapKeepsConfig() {
+        WeakReference<Config> bootstrapped = new WeakReference<>(Config.bootstrap());
+        System.gc();
+        assertThat(Config.bootstrap(), sameInstance(bootstrapped.get()));
+    }
+
     @Test
     public void testTopLevelConfig() {
         TopLevelConfig configuration = Config.bootstrap().load(TopLevelConfig.class);
@@ -71,4 +83,29 @@ public class ConfigTest {
         AnyConfiguration configuration = Config.bootstrap().path("other", "configuration").load(AnyConfiguration.class);
         assertThat(configuration.key(), equalTo(JakartaConfigValues.otherConfigurationKey));
     }
+
+    @Test
+    public void testSnapshot() {
+        Config snapshot = Config.bootstrap().path("my").snapshot();
+        assertThat(snapshot.load(My.class).username(), equalTo(JakartaConfigValues.myUserName));
+        assertThat(snapshot.path("configuration").load(AnyConfiguration.class).key(),
+                   equalTo(JakartaConfigValues.myConfigurationKey));
+        assertThat(snapshot.snapshot().load(Other.class).configuration().key(),
+                   equalTo(JakartaConfigValues.myConfigurationKey));
+    }
+
+    @Test
+    public void testLoadAll() {
+        Map<Class<?>, Object> configurations = Config.bootstrap().loadAll(List.of(My.class, Other.class));
+        assertThat(My.class.cast(configurations.get(My.class)).username(), equalTo(JakartaConfigValues.myUserName));
+        assertThat(Other.class.cast(configurations.get(Other.class)).configuration().key(),
+                   equalTo(JakartaConfigValues.otherConfigurationKey));
+    }
+
+    @Test
+    public void testLoadAsync() {
+        My configuration = Config.bootstrap().loadAsync(My.class).toCompletableFuture().join();
+        assertThat(configuration.username(), equalTo(JakartaConfigValues.myUserName));
+        assertThat(configuration.configuration().key(), equalTo(JakartaConfigValues.myConfigurationKey));
+    }
 }
@@ -22,10 +22,14 @@ package jakarta.config.tck;
 import jakarta.config.ConfigException;
 import jakarta.config.Config;
 import jakarta.config.tck.common.AnyConfiguration;
+import jakarta.config.tck.common.My;
+import jakarta.config.tck.common.Other;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 public class NegativeConfigTest {
     @Test
@@ -48,6 +52,31 @@ public class NegativeConfigTest {
         }
     }
 
+    @Test
+    public void testFailLoadAllWithEveryFailure() {
+        try {
+            Config.bootstrap().path("my", "config").loadAll(List.of(AnyConfiguration.class, NotAnnotatedConfiguration.class));
+            Assertions.fail("Expected ConfigException has not been thrown when the configuration objects cannot be loaded");
+        } catch (ConfigException configException) {
+            Assertions.assertEquals(2, configException.getSuppressed().length);
+        }
+    }
+
+    @Test
+    public void testFailLoadAllWhenExecutorRejects() {
+        try {
+            Config.bootstrap().loadAll(List.of(My.class, Other.class), task -> {
+                throw new RejectedExecutionException("rejected");
+            });
+            Assertions.fail("Expected ConfigException has not been thrown when the executor rejects the loads");
+        } catch (ConfigException configException) {
+            Assertions.assertEquals(2, configException.getSuppressed().length);
+            for (Throwable suppressed : configException.getSuppressed()) {
+                Assertions.assertTrue(suppressed instanceof RejectedExecutionException, suppressed.toString());
+            }
+        }
+    }
+
     public static interface NotAnnotatedConfiguration {
         String key();
     }